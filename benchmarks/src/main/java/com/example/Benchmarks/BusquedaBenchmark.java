@@ -0,0 +1,58 @@
+package com.example.Benchmarks;
+
+import com.example.Controller.BusquedaAlfaBeta;
+import com.example.Controller.Controller;
+import com.example.Controller.Tablero;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * La búsqueda alfa-beta sola, en el 3x3 hasta el final y en el 5x5 con 4 en
+ * línea a profundidad fija, con la tabla de transposición ya caliente (como entre
+ * jugadas de una partida) y vacía (como en la primera jugada).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BusquedaBenchmark {
+    @Param({"3", "5"})
+    public int lado;
+    
+    @Param({Posiciones.VACIO, Posiciones.MEDIO, Posiciones.FINAL})
+    public String posicion;
+    
+    private Tablero tablero;
+    private BusquedaAlfaBeta busqueda;
+    
+    @Setup
+    public void preparar() {
+        int enLinea = lado == 3 ? 3 : 4;
+        tablero = Posiciones.crear(lado, enLinea, posicion).getPosicion();
+        busqueda = new BusquedaAlfaBeta(16);
+        if (lado > 3) busqueda.setProfundidadMaxima(4);
+    }
+    
+    @Benchmark
+    public int alfaBeta() {
+        return busqueda.mejorMovimiento(tablero, Controller.IA);
+    }
+    
+    @Benchmark
+    public int alfaBetaTablaVacia() {
+        busqueda.limpiarTabla();
+        return busqueda.mejorMovimiento(tablero, Controller.IA);
+    }
+}
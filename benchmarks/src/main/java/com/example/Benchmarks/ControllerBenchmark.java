@@ -0,0 +1,99 @@
+package com.example.Benchmarks;
+
+import com.example.Controller.Controller;
+import com.example.Controller.ControllerDecorator;
+import com.example.Controller.TablaPerfecta;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Las operaciones que hace la interfaz en cada turno del 3x3: comprobar el
+ * ganador, copiar el tablero y pedir la jugada de la IA en cada modo.
+ *
+ * <p>Las jugadas de la IA se deshacen al terminar cada invocación para medir
+ * siempre la misma posición.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ControllerBenchmark {
+    @Param({Posiciones.VACIO, Posiciones.MEDIO, Posiciones.FINAL})
+    public String posicion;
+    
+    private Controller controller;
+    private ControllerDecorator facil;
+    private ControllerDecorator dificil;
+    private ControllerDecorator dificilBusqueda;
+    private int propia;
+    private int rival;
+    
+    @Setup
+    public void preparar() {
+        controller = Posiciones.crear(3, 3, posicion);
+        facil = new ControllerDecorator(controller);
+        facil.setModoFacil(true);
+        dificil = new ControllerDecorator(controller);
+        dificilBusqueda = new ControllerDecorator(controller);
+        dificilBusqueda.setUsarTablaPerfecta(false);
+        propia = controller.getMascara(Controller.IA);
+        rival = controller.getMascara(Controller.HUMANO);
+    }
+    
+    @Benchmark
+    public int verificarGanador() {
+        return controller.verificarGanador();
+    }
+    
+    @Benchmark
+    public int[] getTablero() {
+        return controller.getTablero();
+    }
+    
+    @Benchmark
+    public int hacerMovimientoIAFacil() {
+        return jugarYDeshacer(facil);
+    }
+    
+    /**
+     * Modo difícil por defecto: la tabla resuelta.
+     */
+    @Benchmark
+    public int hacerMovimientoIADificil() {
+        return jugarYDeshacer(dificil);
+    }
+    
+    /**
+     * Modo difícil buscando con alfa-beta en lugar de consultar la tabla.
+     */
+    @Benchmark
+    public int hacerMovimientoIADificilBusqueda() {
+        return jugarYDeshacer(dificilBusqueda);
+    }
+    
+    /**
+     * La consulta sola, sin pasar por el decorador.
+     */
+    @Benchmark
+    public int tablaPerfecta() {
+        return TablaPerfecta.getInstancia().mejorMovimiento(propia, rival);
+    }
+    
+    private int jugarYDeshacer(ControllerDecorator decorador) {
+        int movimiento = decorador.hacerMovimientoIA();
+        controller.deshacerMovimiento(movimiento);
+        return movimiento;
+    }
+}
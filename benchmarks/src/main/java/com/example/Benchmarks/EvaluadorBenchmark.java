@@ -0,0 +1,82 @@
+package com.example.Benchmarks;
+
+import com.example.Aprendizaje.EvaluadorRed;
+import com.example.Controller.Controller;
+import com.example.Controller.Evaluador;
+import com.example.Controller.Tablero;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Valorar todos los hijos de una posición del 7x7 con 4 en línea, uno a uno y en
+ * un lote, con la evaluación por líneas y con una red de pesos al azar (el coste
+ * no depende de lo que haya aprendido). Cada operación valora todos los hijos.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluadorBenchmark {
+    @Param({"0", "16"})
+    public int ocultas;
+    
+    private Tablero tablero;
+    private EvaluadorRed red;
+    private int[] casillas;
+    private int num;
+    private int[] valores;
+    
+    @Setup
+    public void preparar() {
+        tablero = Posiciones.crear(7, 4, Posiciones.MEDIO).getPosicion();
+        float[] pesos = new float[EvaluadorRed.numPesos(tablero.getGeometria(), ocultas)];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < pesos.length; i++) {
+            pesos[i] = (float) (random.nextDouble() - 0.5);
+        }
+        red = new EvaluadorRed(tablero.getGeometria(), ocultas, pesos);
+        casillas = new int[tablero.getCasillas()];
+        for (int casilla = 0; casilla < casillas.length; casilla++) {
+            if (tablero.estaLibre(casilla)) casillas[num++] = casilla;
+        }
+        valores = new int[num];
+    }
+    
+    @Benchmark
+    public int[] lineas() {
+        return unoAUno(Evaluador.LINEAS);
+    }
+    
+    @Benchmark
+    public int[] red() {
+        return unoAUno(red);
+    }
+    
+    @Benchmark
+    public int[] redLote() {
+        red.evaluarHijos(tablero, Controller.IA, casillas, num, valores);
+        return valores;
+    }
+    
+    private int[] unoAUno(Evaluador evaluador) {
+        for (int i = 0; i < num; i++) {
+            tablero.mover(casillas[i], Controller.IA);
+            valores[i] = -evaluador.evaluar(tablero, Controller.HUMANO);
+            tablero.deshacer(casillas[i]);
+        }
+        return valores;
+    }
+}
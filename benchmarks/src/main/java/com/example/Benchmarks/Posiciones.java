@@ -0,0 +1,47 @@
+package com.example.Benchmarks;
+
+import com.example.Controller.Controller;
+import java.util.SplittableRandom;
+
+/**
+ * Posiciones fijas para los benchmarks, generadas con jugadas al azar a partir de
+ * una semilla fija, así que son las mismas en cada ejecución.
+ */
+final class Posiciones {
+    static final String VACIO = "vacio";
+    static final String MEDIO = "medio";
+    static final String FINAL = "final";
+    
+    private Posiciones() {
+    }
+    
+    /**
+     * Partida sin terminar con el número de jugadas que corresponde al nombre:
+     * ninguna, la mitad del tablero o todas menos dos. Siempre con la IA al turno
+     * cuando ya hay fichas.
+     */
+    static Controller crear(int lado, int enLinea, String nombre) {
+        int casillas = lado * lado;
+        int jugadas;
+        switch (nombre) {
+            case VACIO: jugadas = 0; break;
+            case MEDIO: jugadas = (casillas / 2) | 1; break;
+            case FINAL: jugadas = casillas - 2; break;
+            default: throw new IllegalArgumentException("Posición desconocida: " + nombre);
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        Controller controller = new Controller(lado, enLinea);
+        while (true) {
+            controller.reiniciarJuego();
+            for (int i = 0; i < jugadas && !controller.esFinal(); i++) {
+                int casilla;
+                do {
+                    casilla = random.nextInt(casillas);
+                } while (!controller.estaLibre(casilla));
+                if (i % 2 == 0) controller.hacerMovimientoHumano(casilla);
+                else controller.hacerMovimientoIA(casilla);
+            }
+            if (!controller.esFinal()) return controller;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.Benchmarks;
+
+import java.io.IOException;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Lanza los benchmarks con el perfilador de GC siempre activo, para que junto al
+ * rendimiento salga la tasa de asignación ({@code gc.alloc.rate.norm}, bytes por
+ * operación). Acepta las mismas opciones que JMH, por ejemplo
+ * {@code java -jar benchmarks.jar ControllerBenchmark -p posicion=medio}.
+ */
+public class Principal {
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        CommandLineOptions opciones = new CommandLineOptions(args);
+        if (opciones.shouldHelp() || opciones.shouldList()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        new Runner(new OptionsBuilder().parent(opciones).addProfiler(GCProfiler.class).build()).run();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.View;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javafx.scene.image.Image;
+
+/**
+ * Imágenes del juego. Salen de los recursos empaquetados, así que arrancar no
+ * necesita red.
+ *
+ * <p>Cualquiera puede sustituirse por una remota con la propiedad
+ * {@code tictactoe.imagen.<nombre>=<url>}: la primera vez se descarga en segundo
+ * plano a {@code ~/.tictactoe/imagenes} mientras se usa la empaquetada, y en los
+ * siguientes arranques se lee de esa caché. Todas se decodifican en segundo plano,
+ * de modo que {@link #cargar} vuelve al momento y la imagen aparece cuando está lista.
+ */
+final class Imagenes {
+    static final String HUMANO = "humano";
+    static final String IA = "ia";
+    static final String GANADOR = "ganador";
+    static final String X = "x";
+    static final String O = "o";
+    
+    private static final Path CACHE = Paths.get(System.getProperty("user.home"), ".tictactoe", "imagenes");
+    private static final int TIEMPO_ESPERA = 5000;
+    
+    private static final ExecutorService DESCARGAS = Executors.newSingleThreadExecutor(r -> {
+        Thread hilo = new Thread(r, "imagenes");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+    
+    private Imagenes() {
+    }
+    
+    static Image cargar(String nombre) {
+        String remota = System.getProperty("tictactoe.imagen." + nombre);
+        if (remota != null) {
+            Path enCache = CACHE.resolve(nombreEnCache(remota));
+            if (Files.isRegularFile(enCache)) {
+                return new Image(enCache.toUri().toString(), true);
+            }
+            DESCARGAS.execute(() -> descargar(remota, enCache));
+        }
+        URL recurso = Imagenes.class.getResource("imagenes/" + nombre + ".png");
+        return new Image(recurso.toExternalForm(), true);
+    }
+    
+    /**
+     * Si la imagen ya se decodificó sin errores y se puede mostrar.
+     */
+    static boolean lista(Image imagen) {
+        return imagen != null && imagen.getProgress() >= 1 && !imagen.isError();
+    }
+    
+    private static void descargar(String remota, Path destino) {
+        try {
+            Files.createDirectories(destino.getParent());
+            Path temporal = Files.createTempFile(destino.getParent(), destino.getFileName().toString(), ".tmp");
+            try {
+                URLConnection conexion = new URL(remota).openConnection();
+                conexion.setConnectTimeout(TIEMPO_ESPERA);
+                conexion.setReadTimeout(TIEMPO_ESPERA);
+                try (InputStream entrada = conexion.getInputStream()) {
+                    Files.copy(entrada, temporal, StandardCopyOption.REPLACE_EXISTING);
+                }
+                try {
+                    Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temporal);
+            }
+        } catch (IOException e) {
+            System.out.println("Error descargando " + remota + ": " + e.getMessage());
+        }
+    }
+    
+    private static String nombreEnCache(String remota) {
+        try {
+            byte[] resumen = MessageDigest.getInstance("SHA-256").digest(remota.getBytes(StandardCharsets.UTF_8));
+            StringBuilder nombre = new StringBuilder();
+            for (int i = 0; i < 16; i++) {
+                nombre.append(String.format("%02x", resumen[i]));
+            }
+            return nombre.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.example.View;
+
+import com.example.Controller.Controller;
+import com.example.Controller.Geometria;
+import com.example.Controller.Motor;
+import com.example.Simulacion.TipoMotor;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Label;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.stage.Stage;
+
+/**
+ * Panel para vigilar muchas partidas de autojuego a la vez, todas dibujadas en un
+ * único {@link Canvas}.
+ *
+ * <p>Cada partida es un {@link Controller} que mueve un hilo trabajador. Los
+ * trabajadores no tocan la escena: copian cada jugada a un array atómico compartido
+ * y marcan el tablero como sucio. Una vez por fotograma, un {@link AnimationTimer}
+ * recoge las marcas y repinta solo esos tableros, así que el coste por fotograma
+ * depende de cuántos tableros cambiaron y no de cuántas jugadas se hicieron.
+ *
+ * <p>El fondo de cada tablero muestra cómo acabó su última partida (verde si ganó
+ * A, rojo si ganó B, gris si empataron) y arriba van los contadores totales.
+ *
+ * <p>Uso: {@code PanelPartidasFX --tableros 400 --a dificil --b aleatorio --lado 3
+ * --en-linea 3 --hilos 4 --pausa 1 --profundidad 2}
+ */
+public class PanelPartidasFX extends Application {
+    private static final int TAMANO_MAXIMO = 40;
+    private static final int SEPARACION = 4;
+    // Vueltas que se deja a la vista la posición final antes de empezar otra partida
+    private static final int ESPERA_FINAL = 40;
+    
+    private static final int SIN_RESULTADO = 0;
+    private static final int GANA_A = 1;
+    private static final int GANA_B = 2;
+    private static final int EMPATE = 3;
+    
+    private static final Color FONDO = Color.web("#1a2a6c");
+    private static final Color[] FONDO_RESULTADO = {
+        Color.rgb(255, 255, 255, 0.15), Color.rgb(76, 175, 80, 0.6),
+        Color.rgb(244, 67, 54, 0.6), Color.rgb(158, 158, 158, 0.5)
+    };
+    private static final Color COLOR_X = Color.web("#4CAF50");
+    private static final Color COLOR_O = Color.web("#F44336");
+    private static final Color COLOR_LINEA = Color.rgb(255, 255, 255, 0.3);
+    
+    private int numTableros = 400;
+    private int lado = 3;
+    private int enLinea = 3;
+    private TipoMotor motorA = TipoMotor.DIFICIL;
+    private TipoMotor motorB = TipoMotor.ALEATORIO;
+    private int hilos = Runtime.getRuntime().availableProcessors();
+    private long pausa = 1;
+    private int profundidad = 2;
+    
+    // Estado compartido con los trabajadores
+    private AtomicIntegerArray celdas;
+    private AtomicIntegerArray sucios;
+    private AtomicIntegerArray resultados;
+    private final LongAdder victoriasA = new LongAdder();
+    private final LongAdder victoriasB = new LongAdder();
+    private final LongAdder empates = new LongAdder();
+    private final LongAdder jugadas = new LongAdder();
+    private volatile boolean activo = true;
+    
+    private GraphicsContext gc;
+    private Label resumen;
+    private int columnas;
+    private int tamano;
+    private AnimationTimer animacion;
+    
+    @Override
+    public void start(@SuppressWarnings("exports") Stage stage) {
+        leerParametros(getParameters().getRaw());
+        int casillas = lado * lado;
+        celdas = new AtomicIntegerArray(numTableros * casillas);
+        sucios = new AtomicIntegerArray(numTableros);
+        resultados = new AtomicIntegerArray(numTableros);
+        
+        columnas = (int) Math.ceil(Math.sqrt(numTableros));
+        int filas = (numTableros + columnas - 1) / columnas;
+        tamano = Math.max(lado * 2, Math.min(TAMANO_MAXIMO, 800 / columnas - SEPARACION));
+        Canvas canvas = new Canvas(columnas * (tamano + SEPARACION) + SEPARACION,
+                                   filas * (tamano + SEPARACION) + SEPARACION);
+        gc = canvas.getGraphicsContext2D();
+        gc.setFill(FONDO);
+        gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        for (int t = 0; t < numTableros; t++) {
+            sucios.set(t, 1);
+        }
+        
+        resumen = new Label();
+        resumen.setFont(new Font(14));
+        resumen.setTextFill(Color.WHITE);
+        VBox root = new VBox(10, resumen, canvas);
+        root.setPadding(new Insets(10));
+        root.setStyle("-fx-background-color: #1a2a6c;");
+        
+        stage.setScene(new Scene(root));
+        stage.setTitle(String.format("Autojuego - %s contra %s en %dx%d", motorA, motorB, lado, lado));
+        stage.show();
+        
+        animacion = new AnimationTimer() {
+            private long inicioSegundo;
+            private long jugadasAntes;
+            private int fotogramas;
+            
+            @Override
+            public void handle(long ahora) {
+                pintarSucios();
+                fotogramas++;
+                if (ahora - inicioSegundo >= 1_000_000_000L) {
+                    long total = jugadas.sum();
+                    double segundos = (ahora - inicioSegundo) / 1e9;
+                    actualizarResumen(fotogramas / segundos, (total - jugadasAntes) / segundos);
+                    inicioSegundo = ahora;
+                    jugadasAntes = total;
+                    fotogramas = 0;
+                }
+            }
+        };
+        animacion.start();
+        arrancarTrabajadores();
+    }
+    
+    private void leerParametros(List<String> args) {
+        for (int i = 0; i + 1 < args.size(); i += 2) {
+            String valor = args.get(i + 1);
+            switch (args.get(i)) {
+                case "--tableros": numTableros = Math.max(1, Integer.parseInt(valor)); break;
+                case "--lado": lado = Integer.parseInt(valor); break;
+                case "--en-linea": enLinea = Integer.parseInt(valor); break;
+                case "--a": motorA = TipoMotor.porNombre(valor); break;
+                case "--b": motorB = TipoMotor.porNombre(valor); break;
+                case "--hilos": hilos = Math.max(1, Integer.parseInt(valor)); break;
+                case "--pausa": pausa = Long.parseLong(valor); break;
+                case "--profundidad": profundidad = Integer.parseInt(valor); break;
+                default: throw new IllegalArgumentException("Opción desconocida: " + args.get(i));
+            }
+        }
+        Geometria.de(lado, enLinea); // valida la variante
+        hilos = Math.min(hilos, numTableros);
+    }
+    
+    private void arrancarTrabajadores() {
+        for (int h = 0; h < hilos; h++) {
+            int primero = h;
+            Thread trabajador = new Thread(() -> jugar(primero), "panel-" + h);
+            trabajador.setDaemon(true);
+            trabajador.start();
+        }
+    }
+    
+    /**
+     * Bucle de un trabajador: una jugada por cada uno de sus tableros (los de
+     * índice {@code primero}, {@code primero + hilos}, ...) y una pausa por vuelta.
+     */
+    private void jugar(int primero) {
+        Motor a = motorA.crear(2 * primero, 0, profundidad);
+        Motor b = motorB.crear(2 * primero + 1, 0, profundidad);
+        int propios = (numTableros - primero + hilos - 1) / hilos;
+        Controller[] partidas = new Controller[propios];
+        int[] turnos = new int[propios];
+        int[] esperas = new int[propios];
+        boolean[] empiezaA = new boolean[propios];
+        for (int i = 0; i < propios; i++) {
+            partidas[i] = new Controller(lado, enLinea);
+            turnos[i] = Controller.HUMANO;
+            empiezaA[i] = (i & 1) == 0;
+        }
+        int casillas = lado * lado;
+        
+        while (activo) {
+            for (int i = 0; i < propios; i++) {
+                int tablero = primero + i * hilos;
+                int base = tablero * casillas;
+                Controller partida = partidas[i];
+                if (esperas[i] > 0) {
+                    if (--esperas[i] == 0) {
+                        partida.reiniciarJuego();
+                        for (int c = 0; c < casillas; c++) celdas.set(base + c, 0);
+                        resultados.set(tablero, SIN_RESULTADO);
+                        turnos[i] = Controller.HUMANO;
+                        empiezaA[i] = !empiezaA[i];
+                        sucios.set(tablero, 1);
+                    }
+                    continue;
+                }
+                
+                int turno = turnos[i];
+                Motor motor = (turno == Controller.HUMANO) == empiezaA[i] ? a : b;
+                int movimiento = motor.mejorMovimiento(partida.getPosicion(), turno);
+                if (turno == Controller.HUMANO) partida.hacerMovimientoHumano(movimiento);
+                else partida.hacerMovimientoIA(movimiento);
+                celdas.set(base + movimiento, turno);
+                jugadas.increment();
+                turnos[i] = Controller.HUMANO + Controller.IA - turno;
+                
+                int ganador = partida.verificarGanador();
+                if (ganador != 0) {
+                    resultados.set(tablero, registrar(ganador, empiezaA[i]));
+                    esperas[i] = ESPERA_FINAL;
+                }
+                sucios.set(tablero, 1);
+            }
+            if (pausa > 0) {
+                try {
+                    Thread.sleep(pausa);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+    
+    private int registrar(int ganador, boolean empiezaA) {
+        if (ganador == -1) {
+            empates.increment();
+            return EMPATE;
+        }
+        // A juega con HUMANO cuando empieza él
+        if ((ganador == Controller.HUMANO) == empiezaA) {
+            victoriasA.increment();
+            return GANA_A;
+        }
+        victoriasB.increment();
+        return GANA_B;
+    }
+    
+    private void pintarSucios() {
+        for (int t = 0; t < numTableros; t++) {
+            if (sucios.get(t) != 0 && sucios.getAndSet(t, 0) != 0) {
+                pintarTablero(t);
+            }
+        }
+    }
+    
+    private void pintarTablero(int t) {
+        double x = SEPARACION + (t % columnas) * (tamano + SEPARACION);
+        double y = SEPARACION + (t / columnas) * (tamano + SEPARACION);
+        gc.setFill(FONDO);
+        gc.fillRect(x, y, tamano, tamano);
+        gc.setFill(FONDO_RESULTADO[resultados.get(t)]);
+        gc.fillRect(x, y, tamano, tamano);
+        
+        double casilla = (double) tamano / lado;
+        gc.setStroke(COLOR_LINEA);
+        gc.setLineWidth(1);
+        for (int k = 1; k < lado; k++) {
+            gc.strokeLine(x + k * casilla, y, x + k * casilla, y + tamano);
+            gc.strokeLine(x, y + k * casilla, x + tamano, y + k * casilla);
+        }
+        
+        int base = t * lado * lado;
+        double margen = casilla * 0.2;
+        gc.setLineWidth(Math.max(1, casilla / 6));
+        for (int c = 0; c < lado * lado; c++) {
+            int valor = celdas.get(base + c);
+            if (valor == 0) continue;
+            double cx = x + (c % lado) * casilla + margen;
+            double cy = y + (c / lado) * casilla + margen;
+            double medida = casilla - 2 * margen;
+            if (valor == Controller.HUMANO) {
+                gc.setStroke(COLOR_X);
+                gc.strokeLine(cx, cy, cx + medida, cy + medida);
+                gc.strokeLine(cx + medida, cy, cx, cy + medida);
+            } else {
+                gc.setStroke(COLOR_O);
+                gc.strokeOval(cx, cy, medida, medida);
+            }
+        }
+    }
+    
+    private void actualizarResumen(double fps, double jugadasPorSegundo) {
+        long a = victoriasA.sum();
+        long b = victoriasB.sum();
+        long e = empates.sum();
+        resumen.setText(String.format("A (%s): %d   B (%s): %d   Empates: %d   Partidas: %d   %.0f jugadas/s   %.0f fps",
+            motorA, a, motorB, b, e, a + b + e, jugadasPorSegundo, fps));
+    }
+    
+    @Override
+    public void stop() {
+        activo = false;
+        if (animacion != null) animacion.stop();
+    }
+    
+    public static void main(String[] args) {
+        launch(args);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.View;
+
+import com.example.Controller.Controller;
+import com.example.Controller.ControllerDecorator;
+import java.util.Arrays;
+import javafx.scene.control.Button;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+
+/**
+ * Pinta el tablero sobre los botones de las casillas tocando solo las que han
+ * cambiado desde la última vez.
+ *
+ * <p>Cada casilla tiene sus gráficos de X y O creados de antemano y el aspecto va
+ * en las clases CSS de {@code tablero.css}, así que repintar no crea nodos ni
+ * estilos. El estado leído del tablero se copia en un array reutilizado.
+ */
+final class RenderizadorTablero {
+    static final String CLASE_CASILLA = "casilla";
+    private static final String CLASE_X = "x";
+    private static final String CLASE_O = "o";
+    
+    // Estado pintado de cada casilla: el valor (0, HUMANO o IA) más estos bits
+    private static final int BLOQUEADA = 4;
+    private static final int CON_IMAGEN = 8;
+    private static final int SIN_PINTAR = -1;
+    
+    private final Button[] casillas;
+    private final Image imagenX;
+    private final Image imagenO;
+    private final ImageView[] graficosX;
+    private final ImageView[] graficosO;
+    private final int[] celdas;
+    private final int[] pintado;
+    
+    RenderizadorTablero(Button[] casillas, Image imagenX, Image imagenO) {
+        this.casillas = casillas;
+        this.imagenX = imagenX;
+        this.imagenO = imagenO;
+        this.graficosX = new ImageView[casillas.length];
+        this.graficosO = new ImageView[casillas.length];
+        for (int i = 0; i < casillas.length; i++) {
+            graficosX[i] = crearGrafico(imagenX);
+            graficosO[i] = crearGrafico(imagenO);
+        }
+        this.celdas = new int[casillas.length];
+        this.pintado = new int[casillas.length];
+        Arrays.fill(pintado, SIN_PINTAR);
+    }
+    
+    private static ImageView crearGrafico(Image imagen) {
+        ImageView grafico = new ImageView(imagen);
+        grafico.setFitWidth(60);
+        grafico.setFitHeight(60);
+        return grafico;
+    }
+    
+    /**
+     * Repinta las casillas cuyo contenido, bloqueo o imagen han cambiado. Con
+     * {@code bloqueado} todas las casillas quedan deshabilitadas.
+     */
+    void actualizar(ControllerDecorator controller, boolean bloqueado) {
+        controller.copiarTablero(celdas);
+        int conImagenX = Imagenes.lista(imagenX) ? CON_IMAGEN : 0;
+        int conImagenO = Imagenes.lista(imagenO) ? CON_IMAGEN : 0;
+        for (int i = 0; i < casillas.length; i++) {
+            int valor = celdas[i];
+            int estado = valor;
+            if (valor != 0 || bloqueado) estado |= BLOQUEADA;
+            if (valor == Controller.HUMANO) estado |= conImagenX;
+            else if (valor == Controller.IA) estado |= conImagenO;
+            if (estado != pintado[i]) {
+                pintar(i, estado);
+                pintado[i] = estado;
+            }
+        }
+    }
+    
+    private void pintar(int i, int estado) {
+        Button casilla = casillas[i];
+        int valor = estado & 3;
+        boolean conImagen = (estado & CON_IMAGEN) != 0;
+        casilla.getStyleClass().remove(CLASE_X);
+        casilla.getStyleClass().remove(CLASE_O);
+        if (valor == Controller.HUMANO) {
+            casilla.getStyleClass().add(CLASE_X);
+            casilla.setGraphic(conImagen ? graficosX[i] : null);
+            casilla.setText(conImagen ? "" : "X");
+        } else if (valor == Controller.IA) {
+            casilla.getStyleClass().add(CLASE_O);
+            casilla.setGraphic(conImagen ? graficosO[i] : null);
+            casilla.setText(conImagen ? "" : "O");
+        } else {
+            casilla.setGraphic(null);
+            casilla.setText("");
+        }
+        casilla.setDisable((estado & BLOQUEADA) != 0);
+    }
+}
@@ -2,7 +2,10 @@ package com.example.View;
 
 import com.example.Controller.Controller;
 import com.example.Controller.ControllerDecorator;
+import com.example.Controller.Tablero;
+import com.example.Registro.EscritorRegistro;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -13,8 +16,13 @@ import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
-import java.net.URL;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * The TicTacToeFX class represents a graphical user interface (GUI) for a Tic Tac Toe game
@@ -43,10 +51,10 @@ import java.util.Arrays;
  *
  * <p>Dependencies:
  * - JavaFX library for GUI components.
- * - External image URLs for player symbols and winner graphics.
+ * - Bundled images for player symbols and winner graphics (see Imagenes).
  *
  * <p>Note:
- * - Ensure a stable internet connection to load external images.
+ * - No network is needed; images load in the background and text is shown until they are ready.
  * - The game logic is handled by the Controller and ControllerDecorator classes.
  *
  * <p>Author: [shinji585 ]
@@ -55,6 +63,7 @@ import java.util.Arrays;
 public class TicTacToeFX extends Application {
     private Button[][] buttons = new Button[3][3];
     private ControllerDecorator controller;
+    private RenderizadorTablero renderizador;
     
     private int victoriasHumanas = 0;
     private int victoriasIA = 0;
@@ -69,17 +78,39 @@ public class TicTacToeFX extends Application {
     private Label contadorHumano;
     private Label contadorIA;
     private Label contadorEmpates;
+    
+    // La IA piensa en su propio hilo; la interfaz nunca espera por ella
+    private final ExecutorService ejecutorIA = Executors.newSingleThreadExecutor(r -> {
+        Thread hilo = new Thread(r, "ia");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+    private Future<?> busquedaIA;
+    // Cambia en cada petición y al reiniciar, para descartar respuestas viejas
+    private long turnoIA;
+    private boolean pensando;
+    // Cada partida queda guardada; el disco se toca solo desde el hilo del registro
+    private EscritorRegistro registro;
 
     @Override
     public void start(@SuppressWarnings("exports") Stage primaryStage) {
+        long inicio = System.nanoTime();
         controller = new ControllerDecorator(new Controller());
+        registro = new EscritorRegistro(directorioRegistro());
+        controller.setRegistro(registro);
+        // Mientras el humano piensa, la IA va preparando sus respuestas
+        controller.setAnticipacion(true);
         cargarImagenes();
         BorderPane root = crearInterfazPrincipal();
+        // Las fichas se muestran como texto hasta que su imagen termina de cargar
+        imagenX.progressProperty().addListener((obs, antes, ahora) -> actualizarInterfaz());
+        imagenO.progressProperty().addListener((obs, antes, ahora) -> actualizarInterfaz());
         
         CheckBox cbModoFacil = new CheckBox("Modo Amigable");
         cbModoFacil.setTextFill(Color.WHITE);
         cbModoFacil.setStyle("-fx-font-weight: bold; -fx-font-size: 14;");
         cbModoFacil.setOnAction(e -> {
+            cancelarMovimientoIA(); // antes de cambiar el motor que podría estar usando
             controller.setModoFacil(cbModoFacil.isSelected());
             reiniciarJuegoCompleto();
         });
@@ -93,20 +124,27 @@ public class TicTacToeFX extends Application {
         btnReiniciar.setOnAction(e -> reiniciarJuegoCompleto());
         
         panelControles.getChildren().add(1, cbModoFacil);
+        // Nada de lo anterior espera por la red ni por las imágenes
+        primaryStage.setOnShown(e -> System.out.printf("Ventana visible en %d ms%n",
+            (System.nanoTime() - inicio) / 1_000_000));
         configurarEscena(primaryStage, root);
     }
 
-    @SuppressWarnings("deprecation")
+    /**
+     * {@code ~/.tictactoe/partidas}, o el que indique la propiedad {@code tictactoe.registro}.
+     */
+    private static Path directorioRegistro() {
+        String propiedad = System.getProperty("tictactoe.registro");
+        if (propiedad != null) return Paths.get(propiedad);
+        return Paths.get(System.getProperty("user.home"), ".tictactoe", "partidas");
+    }
+
     private void cargarImagenes() {
-        try {
-            imagenHumano = new Image(new URL("https://i.pinimg.com/736x/0f/76/1d/0f761da46823184724083f9d614bd5d9.jpg").openStream());
-            imagenIA = new Image(new URL("https://i.pinimg.com/736x/f1/22/0e/f1220e9f7a009e24ea1e1774ec5632ea.jpg").openStream());
-            imagenGanador = new Image(new URL("https://i.pinimg.com/736x/55/fe/05/55fe056a74e97db91e1f3b52237b6166.jpg").openStream());
-            imagenX = new Image(new URL("https://cdn-icons-png.flaticon.com/512/3063/3063187.png").openStream());
-            imagenO = new Image(new URL("https://cdn-icons-png.flaticon.com/512/3522/3522633.png").openStream());
-        } catch (Exception e) {
-            System.out.println("Error cargando imágenes: " + e.getMessage());
-        }
+        imagenHumano = Imagenes.cargar(Imagenes.HUMANO);
+        imagenIA = Imagenes.cargar(Imagenes.IA);
+        imagenGanador = Imagenes.cargar(Imagenes.GANADOR);
+        imagenX = Imagenes.cargar(Imagenes.X);
+        imagenO = Imagenes.cargar(Imagenes.O);
     }
 
     private BorderPane crearInterfazPrincipal() {
@@ -143,11 +181,18 @@ public class TicTacToeFX extends Application {
         imageView.setFitWidth(80);
         imageView.setFitHeight(80);
         
+        // Hueco del mismo tamaño mientras la imagen se carga
+        Region marcador = new Region();
+        marcador.setMinSize(80, 80);
+        marcador.setStyle("-fx-background-color: rgba(255,255,255,0.2); -fx-background-radius: 40;");
+        marcador.visibleProperty().bind(imagen.progressProperty().lessThan(1).or(imagen.errorProperty()));
+        StackPane marco = new StackPane(marcador, imageView);
+        
         Label contador = new Label(contadorInicial);
         contador.setFont(new Font(20));
         contador.setTextFill(Color.WHITE);
         
-        panel.getChildren().addAll(imageView, contador);
+        panel.getChildren().addAll(marco, contador);
         return panel;
     }
 
@@ -169,21 +214,23 @@ public class TicTacToeFX extends Application {
         grid.setHgap(15);
         grid.setVgap(15);
         
+        Button[] casillas = new Button[9];
         for (int i = 0; i < 3; i++) {
             for (int j = 0; j < 3; j++) {
                 Button btn = crearBotonCasilla(i, j);
                 buttons[i][j] = btn;
+                casillas[i * 3 + j] = btn;
                 grid.add(btn, j, i);
             }
         }
+        renderizador = new RenderizadorTablero(casillas, imagenX, imagenO);
         return grid;
     }
 
     private Button crearBotonCasilla(int fila, int col) {
         Button btn = new Button();
         btn.setMinSize(100, 100);
-        btn.setStyle("-fx-background-radius: 15; -fx-background-color: rgba(255,255,255,0.2); " +
-                    "-fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.3), 10, 0, 0, 2);");
+        btn.getStyleClass().add(RenderizadorTablero.CLASE_CASILLA);
         
         final int pos = fila * 3 + col;
         btn.setOnAction(e -> manejarClickCasilla(pos));
@@ -198,11 +245,24 @@ public class TicTacToeFX extends Application {
         
         VBox panelEmpates = crearPanelEmpates();
         Button btnReiniciar = crearBotonReinicio();
+        Button btnDeshacer = crearBotonHistorial("↶", "Deshacer jugada");
+        btnDeshacer.setOnAction(e -> deshacerJugada());
+        Button btnRehacer = crearBotonHistorial("↷", "Rehacer jugada");
+        btnRehacer.setOnAction(e -> rehacerJugada());
         
-        panel.getChildren().addAll(panelEmpates, btnReiniciar);
+        panel.getChildren().addAll(panelEmpates, btnReiniciar, btnDeshacer, btnRehacer);
         return panel;
     }
 
+    private Button crearBotonHistorial(String texto, String ayuda) {
+        Button btn = new Button(texto);
+        btn.setTooltip(new Tooltip(ayuda));
+        btn.setStyle("-fx-background-color: #3F51B5; -fx-text-fill: white; " +
+                    "-fx-font-weight: bold; -fx-font-size: 16; -fx-padding: 8 14; " +
+                    "-fx-background-radius: 20;");
+        return btn;
+    }
+
     private VBox crearPanelEmpates() {
         VBox panel = new VBox(10);
         panel.setAlignment(Pos.CENTER);
@@ -230,6 +290,7 @@ public class TicTacToeFX extends Application {
 
     private void configurarEscena(Stage stage, BorderPane root) {
         Scene scene = new Scene(root, 450, 650);
+        scene.getStylesheets().add(getClass().getResource("tablero.css").toExternalForm());
         stage.setScene(scene);
         stage.setTitle("Tic Tac Toe - Humano vs IA");
         stage.setResizable(false);
@@ -237,78 +298,94 @@ public class TicTacToeFX extends Application {
     }
 private void manejarClickCasilla(int pos) {
     // Movimiento humano
-    if (!controller.hacerMovimientoHumano(pos)) {
+    if (pensando || !controller.hacerMovimientoHumano(pos)) {
         return;
     }
     
     actualizarInterfaz();
-    
+
     if (controller.esFinal()) {
         verificarFinJuego();
         return;
     }
     
-    // Movimiento IA
-    int movimientoIA = controller.hacerMovimientoIA();
-    if (movimientoIA != -1) {
+    pedirMovimientoIA();
+}
+
+    /**
+     * Calcula la jugada de la IA en segundo plano sobre una copia del tablero y
+     * la aplica después en el hilo de JavaFX. Mientras tanto el tablero queda
+     * bloqueado.
+     */
+    private void pedirMovimientoIA() {
+        Tablero posicion = controller.copiarPosicion();
+        long turno = ++turnoIA;
+        pensando = true;
+        actualizarInterfaz();
+        
+        busquedaIA = ejecutorIA.submit(() -> {
+            int movimiento;
+            try {
+                movimiento = controller.calcularMovimientoIA(posicion);
+            } catch (RuntimeException e) {
+                System.out.println("Error calculando el movimiento de la IA: " + e.getMessage());
+                movimiento = -1;
+            }
+            int elegido = movimiento;
+            Platform.runLater(() -> aplicarMovimientoIA(turno, elegido));
+        });
+    }
+
+    private void aplicarMovimientoIA(long turno, int movimiento) {
+        if (turno != turnoIA) {
+            return; // la partida se reinició mientras la IA pensaba
+        }
+        pensando = false;
+        busquedaIA = null;
+        if (movimiento != -1) {
+            controller.aplicarMovimientoIA(movimiento);
+        }
         actualizarInterfaz();
         
         if (controller.esFinal()) {
             verificarFinJuego();
         }
     }
-}
 
-    private void actualizarInterfaz() {
-        int[] tablero = controller.getTablero();
-        
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                int pos = i * 3 + j;
-                Button btn = buttons[i][j];
-                int valor = tablero[pos];
-                
-                if (valor == Controller.HUMANO) {
-                    configurarBotonComoX(btn);
-                } else if (valor == Controller.IA) {
-                    configurarBotonComoO(btn);
-                } else {
-                    configurarBotonVacio(btn);
-                }
-                
-                btn.setDisable(valor != 0);
-            }
+    private void cancelarMovimientoIA() {
+        turnoIA++;
+        if (busquedaIA != null) {
+            busquedaIA.cancel(true);
+            controller.cancelarMovimientoIA();
+            busquedaIA = null;
         }
+        pensando = false;
     }
 
-    private void configurarBotonComoX(Button btn) {
-        if (imagenX != null) {
-            ImageView iv = new ImageView(imagenX);
-            iv.setFitWidth(60);
-            iv.setFitHeight(60);
-            btn.setGraphic(iv);
-        } else {
-            btn.setText("X");
-            btn.setStyle("-fx-font-size: 36; -fx-font-weight: bold; -fx-text-fill: #4CAF50;");
-        }
+    /**
+     * Vuelve al turno del humano anterior; si la IA estaba pensando, su respuesta se descarta.
+     */
+    private void deshacerJugada() {
+        cancelarMovimientoIA();
+        controller.deshacerJugada();
+        actualizarInterfaz();
     }
 
-    private void configurarBotonComoO(Button btn) {
-        if (imagenO != null) {
-            ImageView iv = new ImageView(imagenO);
-            iv.setFitWidth(60);
-            iv.setFitHeight(60);
-            btn.setGraphic(iv);
-        } else {
-            btn.setText("O");
-            btn.setStyle("-fx-font-size: 36; -fx-font-weight: bold; -fx-text-fill: #F44336;");
+    private void rehacerJugada() {
+        if (pensando || !controller.rehacerJugada()) {
+            return;
+        }
+        actualizarInterfaz();
+        
+        if (controller.esFinal()) {
+            verificarFinJuego();
+        } else if (controller.getUltimoJugador() == Controller.HUMANO) {
+            pedirMovimientoIA(); // la respuesta de la IA no llegó a jugarse
         }
     }
 
-    private void configurarBotonVacio(Button btn) {
-        btn.setGraphic(null);
-        btn.setText("");
-        btn.setStyle("-fx-background-color: rgba(255,255,255,0.2);");
+    private void actualizarInterfaz() {
+        renderizador.actualizar(controller, pensando);
     }
 
     private void verificarFinJuego() {
@@ -346,7 +423,7 @@ private void manejarClickCasilla(int pos) {
             alert.setContentText(mensaje);
         } else if (ganador == Controller.IA) {
             mensaje = "¡La IA ganó!";
-            if (imagenGanador != null) {
+            if (Imagenes.lista(imagenGanador)) {
                 ImageView ivGanador = new ImageView(imagenGanador);
                 ivGanador.setFitWidth(200);
                 ivGanador.setFitHeight(200);
@@ -362,6 +439,7 @@ private void manejarClickCasilla(int pos) {
     }
 
     private void reiniciarJuegoCompleto() {
+        cancelarMovimientoIA();
         controller.reiniciarJuego();
         victoriasHumanas = 0;
         victoriasIA = 0;
@@ -372,6 +450,20 @@ private void manejarClickCasilla(int pos) {
         actualizarInterfaz();
     }
 
+    @Override
+    public void stop() {
+        cancelarMovimientoIA();
+        controller.setAnticipacion(false);
+        ejecutorIA.shutdownNow();
+        // La partida a medias también se guarda
+        controller.reiniciarJuego();
+        try {
+            registro.close();
+        } catch (IOException e) {
+            System.out.println("Error guardando el registro de partidas: " + e.getMessage());
+        }
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -3,6 +3,7 @@ module com.example {
     requires javafx.fxml;
     requires javafx.graphics;
     requires javafx.base;
+    requires com.example.motor;
 
     // Solo se abre el paquete View a JavaFX para reflexión (FXML, Application)
     opens com.example.View to javafx.fxml, javafx.graphics;
@@ -0,0 +1,353 @@
+package com.example.Analisis;
+
+import com.example.Controller.BusquedaAlfaBeta;
+import com.example.Controller.Geometria;
+import com.example.Controller.Tablero;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Analiza en paralelo un flujo de posiciones con la búsqueda del modo difícil y
+ * escribe los resultados en el mismo orden que la entrada.
+ *
+ * <p>Las posiciones se leen por lotes de {@link #TAMANO_LOTE} que se reparten
+ * entre los hilos. Como mucho hay dos lotes por hilo en vuelo y se reutilizan al
+ * escribirlos, así que la memoria no depende del tamaño de la entrada. Cada hilo
+ * tiene su propia búsqueda, y su tabla de transposición se conserva de una
+ * posición a la siguiente.
+ *
+ * <p>Cada línea de la salida tiene, separados por tabuladores, el tablero, el
+ * jugador al que le toca, la mejor jugada, su valor desde el punto de vista de
+ * quien mueve, las jugadas hasta el final forzado (positivas si gana quien mueve,
+ * negativas si pierde, 0 si no hay final a la vista) y la profundidad completada.
+ * Una posición ya terminada da jugada -1, valor {@code -VICTORIA} (ganó el
+ * rival) o 0 (tablas) y profundidad 0. Las posiciones a las que no se llega
+ * jugando por turnos son un error de la entrada, con su línea o su número.
+ *
+ * <p>Uso: {@code AnalizadorPosiciones --entrada posiciones.txt --salida analisis.tsv
+ * --hilos 8 --tiempo 0 --profundidad 9 --en-linea 3}. Con {@code --entrada -} se
+ * lee la entrada estándar y sin {@code --salida} se escribe en la estándar. Con
+ * {@code --binario posiciones.pos} no se analiza nada: se convierte la entrada
+ * al formato binario, más compacto y rápido de leer.
+ */
+public class AnalizadorPosiciones {
+    public static final int TAMANO_LOTE = 4096;
+    private static final long PERIODO_PROGRESO_NS = 5_000_000_000L;
+    
+    private final int hilos;
+    private long tiempoMaximo;
+    private int profundidadMaxima = Integer.MAX_VALUE;
+    private int bitsTabla = 18;
+    private PrintStream progreso;
+    
+    public AnalizadorPosiciones(int hilos) {
+        if (hilos < 1) throw new IllegalArgumentException("Hilos: " + hilos);
+        this.hilos = hilos;
+    }
+    
+    /**
+     * Tiempo máximo de búsqueda por posición, en milisegundos (0 sin límite).
+     */
+    public void setTiempoMaximo(long milisegundos) {
+        this.tiempoMaximo = milisegundos;
+    }
+    
+    /**
+     * Profundidad máxima de la búsqueda, en jugadas.
+     */
+    public void setProfundidadMaxima(int profundidad) {
+        this.profundidadMaxima = profundidad;
+    }
+    
+    /**
+     * Tamaño de la tabla de transposición de cada hilo, en bits de índice.
+     */
+    public void setBitsTabla(int bits) {
+        this.bitsTabla = bits;
+    }
+    
+    /**
+     * Dónde informar del avance cada pocos segundos; {@code null} (por defecto) no informa.
+     */
+    public void setProgreso(PrintStream progreso) {
+        this.progreso = progreso;
+    }
+    
+    /**
+     * Analiza todas las posiciones de la entrada y escribe una línea por posición.
+     * No cierra ni la entrada ni la salida.
+     */
+    public Resumen analizar(LectorPosiciones entrada, Writer salida) throws IOException, InterruptedException {
+        long inicio = System.nanoTime();
+        Resumen resumen = new Resumen();
+        Geometria geometria = entrada.getGeometria();
+        if (geometria == null) return resumen;
+        
+        AtomicInteger numero = new AtomicInteger();
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos, r -> {
+            Thread hilo = new Thread(r, "analisis-" + numero.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        // Una búsqueda por hilo; viven lo que dura el análisis
+        ThreadLocal<Trabajo> trabajos = ThreadLocal.withInitial(() -> new Trabajo(geometria));
+        ArrayDeque<Future<Lote>> enVuelo = new ArrayDeque<>();
+        ArrayDeque<Lote> libres = new ArrayDeque<>();
+        StringBuilder texto = new StringBuilder();
+        long ultimoProgreso = inicio;
+        try {
+            while (true) {
+                Lote lote = libres.isEmpty() ? new Lote(geometria.getCasillas(), trabajos) : libres.poll();
+                if (!lote.llenar(entrada)) break;
+                enVuelo.add(ejecutor.submit(lote));
+                if (enVuelo.size() >= 2 * hilos) {
+                    libres.add(escribir(esperar(enVuelo.poll()), salida, texto, resumen));
+                }
+                if (progreso != null && System.nanoTime() - ultimoProgreso > PERIODO_PROGRESO_NS) {
+                    ultimoProgreso = System.nanoTime();
+                    resumen.nanos = ultimoProgreso - inicio;
+                    progreso.println(resumen);
+                }
+            }
+            while (!enVuelo.isEmpty()) {
+                escribir(esperar(enVuelo.poll()), salida, texto, resumen);
+            }
+            salida.flush();
+        } finally {
+            ejecutor.shutdownNow();
+        }
+        resumen.nanos = System.nanoTime() - inicio;
+        return resumen;
+    }
+    
+    private static Lote esperar(Future<Lote> futuro) throws InterruptedException {
+        try {
+            return futuro.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falló el análisis de un lote", e.getCause());
+        }
+    }
+    
+    private static Lote escribir(Lote lote, Writer salida, StringBuilder texto, Resumen resumen) throws IOException {
+        texto.setLength(0);
+        for (int i = 0; i < lote.numero; i++) {
+            int desde = i * lote.casillas;
+            for (int c = 0; c < lote.casillas; c++) {
+                texto.append(FormatoPosiciones.caracter(lote.celdas[desde + c]));
+            }
+            texto.append('\t').append(FormatoPosiciones.caracter(lote.turnos[i]))
+                .append('\t').append(lote.movimientos[i])
+                .append('\t').append(lote.valores[i])
+                .append('\t').append(BusquedaAlfaBeta.jugadasHastaFinal(lote.valores[i]))
+                .append('\t').append(lote.profundidades[i])
+                .append('\n');
+        }
+        salida.append(texto);
+        resumen.posiciones += lote.numero;
+        resumen.nodos += lote.nodos;
+        return lote;
+    }
+    
+    /**
+     * La búsqueda de un hilo y el tablero sobre el que monta cada posición.
+     */
+    private final class Trabajo {
+        final BusquedaAlfaBeta busqueda = new BusquedaAlfaBeta(bitsTabla);
+        final Tablero tablero;
+        
+        Trabajo(Geometria geometria) {
+            this.tablero = new Tablero(geometria);
+            busqueda.setTiempoMaximo(tiempoMaximo);
+            busqueda.setProfundidadMaxima(profundidadMaxima);
+        }
+    }
+    
+    /**
+     * Un lote de posiciones y, tras analizarlo, sus resultados; todo en arrays
+     * que se reutilizan de un lote al siguiente.
+     */
+    private static final class Lote implements Callable<Lote> {
+        final int casillas;
+        final ThreadLocal<Trabajo> trabajos;
+        final byte[] celdas;
+        final byte[] turnos = new byte[TAMANO_LOTE];
+        final int[] movimientos = new int[TAMANO_LOTE];
+        final int[] valores = new int[TAMANO_LOTE];
+        final int[] profundidades = new int[TAMANO_LOTE];
+        int numero;
+        long nodos;
+        
+        Lote(int casillas, ThreadLocal<Trabajo> trabajos) {
+            this.casillas = casillas;
+            this.trabajos = trabajos;
+            this.celdas = new byte[TAMANO_LOTE * casillas];
+        }
+        
+        /**
+         * Lee hasta un lote completo; falso si la entrada ya se había acabado.
+         */
+        boolean llenar(LectorPosiciones entrada) throws IOException {
+            numero = 0;
+            while (numero < TAMANO_LOTE) {
+                int turno = entrada.siguiente(celdas, numero * casillas);
+                if (turno == 0) break;
+                turnos[numero++] = (byte) turno;
+            }
+            return numero > 0;
+        }
+        
+        @Override
+        public Lote call() {
+            Trabajo trabajo = trabajos.get();
+            Tablero tablero = trabajo.tablero;
+            BusquedaAlfaBeta busqueda = trabajo.busqueda;
+            nodos = 0;
+            for (int i = 0; i < numero; i++) {
+                tablero.reiniciar();
+                int desde = i * casillas;
+                for (int c = 0; c < casillas; c++) {
+                    if (celdas[desde + c] != 0) tablero.mover(c, celdas[desde + c]);
+                }
+                int turno = turnos[i];
+                int resultado = tablero.resultado();
+                if (resultado != 0) {
+                    // El lector no deja pasar posiciones en las que haya ganado quien mueve
+                    movimientos[i] = -1;
+                    valores[i] = resultado == -1 ? 0 : -BusquedaAlfaBeta.VICTORIA;
+                    profundidades[i] = 0;
+                    continue;
+                }
+                movimientos[i] = busqueda.mejorMovimiento(tablero, turno);
+                valores[i] = busqueda.getUltimoValor();
+                profundidades[i] = busqueda.getProfundidadAlcanzada();
+                nodos += busqueda.getNodos();
+            }
+            return this;
+        }
+    }
+    
+    /**
+     * Cuántas posiciones se analizaron, con cuántos nodos y en cuánto tiempo.
+     */
+    public static final class Resumen {
+        private long posiciones;
+        private long nodos;
+        private long nanos;
+        
+        public long getPosiciones() {
+            return posiciones;
+        }
+        
+        public long getNodos() {
+            return nodos;
+        }
+        
+        public long getNanos() {
+            return nanos;
+        }
+        
+        public double getPosicionesPorSegundo() {
+            return nanos == 0 ? 0 : posiciones * 1e9 / nanos;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%d posiciones en %.2f s (%.0f posiciones/s, %.0f nodos por posición)",
+                posiciones, nanos / 1e9, getPosicionesPorSegundo(), posiciones == 0 ? 0 : (double) nodos / posiciones);
+        }
+    }
+    
+    /**
+     * Escribe las posiciones de la entrada en el formato binario. Devuelve cuántas.
+     */
+    public static long convertirABinario(LectorPosiciones entrada, Path destino) throws IOException {
+        Geometria geometria = entrada.getGeometria();
+        int casillas = geometria == null ? 0 : geometria.getCasillas();
+        byte[] celdas = new byte[Math.max(1, casillas)];
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+        long escritas = 0;
+        try (FileChannel canal = FileChannel.open(destino, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                  StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (geometria == null) return 0;
+            FormatoPosiciones.escribirCabecera(buffer, geometria.getLado(), geometria.getEnLinea());
+            int turno;
+            while ((turno = entrada.siguiente(celdas, 0)) != 0) {
+                if (buffer.remaining() < FormatoPosiciones.bytesRegistro(casillas)) vaciar(buffer, canal);
+                FormatoPosiciones.escribir(buffer, celdas, 0, casillas, turno);
+                escritas++;
+            }
+            vaciar(buffer, canal);
+        }
+        return escritas;
+    }
+    
+    private static void vaciar(ByteBuffer buffer, FileChannel canal) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+    
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String entrada = "-";
+        String salida = null;
+        String binario = null;
+        int hilos = Runtime.getRuntime().availableProcessors();
+        long tiempo = 0;
+        int profundidad = Integer.MAX_VALUE;
+        int enLinea = 0;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String valor = args[i + 1];
+            switch (args[i]) {
+                case "--entrada": entrada = valor; break;
+                case "--salida": salida = valor; break;
+                case "--binario": binario = valor; break;
+                case "--hilos": hilos = Integer.parseInt(valor); break;
+                case "--tiempo": tiempo = Long.parseLong(valor); break;
+                case "--profundidad": profundidad = Integer.parseInt(valor); break;
+                case "--en-linea": enLinea = Integer.parseInt(valor); break;
+                default: throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+        
+        try (LectorPosiciones lector = entrada.equals("-")
+                ? LectorPosiciones.deTexto(new InputStreamReader(System.in, StandardCharsets.UTF_8), enLinea)
+                : LectorPosiciones.abrir(Paths.get(entrada), enLinea)) {
+            if (binario != null) {
+                long inicio = System.nanoTime();
+                long escritas = convertirABinario(lector, Paths.get(binario));
+                System.err.printf("%d posiciones convertidas en %.2f s%n", escritas, (System.nanoTime() - inicio) / 1e9);
+                return;
+            }
+            AnalizadorPosiciones analizador = new AnalizadorPosiciones(hilos);
+            analizador.setTiempoMaximo(tiempo);
+            analizador.setProfundidadMaxima(profundidad);
+            // Los avances y el resumen van a la salida de errores para no mezclarse con los resultados
+            analizador.setProgreso(System.err);
+            try (Writer escritor = salida == null
+                    ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16)
+                    : Files.newBufferedWriter(Paths.get(salida), StandardCharsets.UTF_8)) {
+                System.err.println(analizador.analizar(lector, escritor));
+            }
+        }
+    }
+}
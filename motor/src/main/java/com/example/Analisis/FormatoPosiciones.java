@@ -0,0 +1,84 @@
+package com.example.Analisis;
+
+import com.example.Controller.Controller;
+import java.nio.ByteBuffer;
+
+/**
+ * Cómo se escriben las posiciones a analizar, en texto y en binario.
+ *
+ * <p>En texto, una posición por línea: las casillas fila a fila con {@code .}
+ * para las vacías, {@code X} para el humano y {@code O} para la IA (también valen
+ * {@code 0}, {@code 1} y {@code 2}), y detrás, opcionalmente, el jugador al que le
+ * toca. Si no se indica, mueve quien tenga menos fichas, y con las mismas, X. Las
+ * líneas vacías y las que empiezan por {@code #} se saltan.
+ *
+ * <pre>
+ *   X.O.X....
+ *   X.O.X...O X
+ * </pre>
+ *
+ * <p>En binario, una cabecera de 16 bytes (magia, versión, lado, fichas en línea
+ * y reservado) y detrás registros de tamaño fijo: un byte con el jugador al que
+ * le toca y las casillas a 2 bits cada una, cuatro por byte empezando por los
+ * bits bajos. Un 3x3 ocupa 4 bytes por posición.
+ *
+ * <p>En los dos formatos se rechazan las posiciones imposibles: fichas que no
+ * cuadran con el turno, dos ganadores o que le toque al que ya ha ganado.
+ */
+final class FormatoPosiciones {
+    static final int MAGIA = 0x5454504F; // "TTPO"
+    static final short VERSION = 1;
+    static final int CABECERA = 16;
+    
+    private FormatoPosiciones() {
+    }
+    
+    /**
+     * Ficha que representa el carácter, o -1 si no es una casilla válida.
+     */
+    static int ficha(char c) {
+        switch (c) {
+            case '.': case '-': case '0': return 0;
+            case 'X': case 'x': case '1': return Controller.HUMANO;
+            case 'O': case 'o': case '2': return Controller.IA;
+            default: return -1;
+        }
+    }
+    
+    static char caracter(int ficha) {
+        return ficha == Controller.HUMANO ? 'X' : ficha == Controller.IA ? 'O' : '.';
+    }
+    
+    static int bytesRegistro(int casillas) {
+        return 1 + (casillas + 3) / 4;
+    }
+    
+    static void escribirCabecera(ByteBuffer buffer, int lado, int enLinea) {
+        buffer.putInt(MAGIA).putShort(VERSION).put((byte) lado).put((byte) enLinea).putLong(0L);
+    }
+    
+    static void escribir(ByteBuffer buffer, byte[] celdas, int desde, int casillas, int turno) {
+        buffer.put((byte) turno);
+        for (int i = 0; i < casillas; i += 4) {
+            int empaquetado = 0;
+            for (int j = 0; j < 4 && i + j < casillas; j++) {
+                empaquetado |= celdas[desde + i + j] << (2 * j);
+            }
+            buffer.put((byte) empaquetado);
+        }
+    }
+    
+    /**
+     * Lee un registro en {@code celdas[desde..]} y devuelve el jugador al que le toca.
+     */
+    static int leer(ByteBuffer buffer, byte[] celdas, int desde, int casillas) {
+        int turno = buffer.get();
+        for (int i = 0; i < casillas; i += 4) {
+            int empaquetado = buffer.get();
+            for (int j = 0; j < 4 && i + j < casillas; j++) {
+                celdas[desde + i + j] = (byte) ((empaquetado >>> (2 * j)) & 3);
+            }
+        }
+        return turno;
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.Analisis;
+
+import com.example.Controller.Controller;
+import com.example.Controller.Geometria;
+import com.example.Controller.Tablero;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lee posiciones de un archivo de texto o binario ({@link FormatoPosiciones}) de
+ * una en una, sin cargarlo: solo hay en memoria un buffer de lectura. Todas las
+ * posiciones de un archivo son de la misma variante.
+ */
+public final class LectorPosiciones implements AutoCloseable {
+    private static final int TAMANO_BUFFER = 1 << 20;
+    
+    private final BufferedReader texto;
+    private final FileChannel canal;
+    private final ByteBuffer buffer;
+    private final int enLinea;
+    private Geometria geometria;
+    // Para contar las líneas de cada posición; se crea con la primera
+    private Tablero comprobacion;
+    // Línea ya leída para conocer el lado y aún no devuelta
+    private String pendiente;
+    private long linea;
+    private long leidas;
+    
+    private LectorPosiciones(BufferedReader texto, int enLinea) {
+        this.texto = texto;
+        this.canal = null;
+        this.buffer = null;
+        this.enLinea = enLinea;
+    }
+    
+    private LectorPosiciones(FileChannel canal, Geometria geometria) {
+        this.texto = null;
+        this.canal = canal;
+        this.buffer = ByteBuffer.allocateDirect(TAMANO_BUFFER);
+        this.geometria = geometria;
+        this.enLinea = geometria.getEnLinea();
+        buffer.flip();
+    }
+    
+    /**
+     * Abre el archivo; si empieza por la magia del formato binario se lee como
+     * binario y si no, como texto.
+     *
+     * @param enLinea fichas en línea de las posiciones en texto; 0 para tantas
+     *                como el lado (hasta {@link Geometria#EN_LINEA_MAXIMO}). El
+     *                binario lleva las suyas.
+     */
+    public static LectorPosiciones abrir(Path archivo, int enLinea) throws IOException {
+        byte[] inicio = new byte[4];
+        int leidos;
+        try (InputStream entrada = Files.newInputStream(archivo)) {
+            leidos = entrada.readNBytes(inicio, 0, 4);
+        }
+        if (leidos == 4 && ByteBuffer.wrap(inicio).getInt() == FormatoPosiciones.MAGIA) {
+            FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ);
+            try {
+                ByteBuffer cabecera = ByteBuffer.allocate(FormatoPosiciones.CABECERA);
+                while (cabecera.hasRemaining() && canal.read(cabecera) >= 0) {
+                    // hasta tener la cabecera completa
+                }
+                cabecera.flip();
+                if (cabecera.remaining() < FormatoPosiciones.CABECERA) {
+                    throw new IOException("Cabecera incompleta: " + archivo);
+                }
+                cabecera.getInt();
+                if (cabecera.getShort() != FormatoPosiciones.VERSION) {
+                    throw new IOException("Versión de posiciones no soportada: " + archivo);
+                }
+                Geometria geometria = Geometria.de(cabecera.get() & 0xFF, cabecera.get() & 0xFF);
+                return new LectorPosiciones(canal, geometria);
+            } catch (IOException | RuntimeException e) {
+                canal.close();
+                throw e;
+            }
+        }
+        return deTexto(Files.newBufferedReader(archivo, StandardCharsets.UTF_8), enLinea);
+    }
+    
+    /**
+     * Lector de posiciones en texto, por ejemplo de la entrada estándar.
+     */
+    public static LectorPosiciones deTexto(Reader entrada, int enLinea) {
+        BufferedReader lector = entrada instanceof BufferedReader
+            ? (BufferedReader) entrada : new BufferedReader(entrada, TAMANO_BUFFER);
+        return new LectorPosiciones(lector, enLinea);
+    }
+    
+    /**
+     * Variante de las posiciones, o {@code null} si no hay ninguna. En texto se
+     * deduce de la primera posición.
+     */
+    public Geometria getGeometria() throws IOException {
+        if (geometria == null && texto != null) {
+            pendiente = siguienteLinea();
+            if (pendiente != null) {
+                int casillas = tablero(pendiente.trim()).length();
+                int lado = (int) Math.round(Math.sqrt(casillas));
+                if (lado * lado != casillas) {
+                    throw new IOException("Línea " + linea + ": " + casillas + " casillas no forman un tablero cuadrado");
+                }
+                try {
+                    geometria = Geometria.de(lado, enLinea > 0 ? enLinea : Math.min(lado, Geometria.EN_LINEA_MAXIMO));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Línea " + linea + ": " + e.getMessage());
+                }
+            }
+        }
+        return geometria;
+    }
+    
+    /**
+     * Lee la siguiente posición: sus casillas (0, {@link Controller#HUMANO} o
+     * {@link Controller#IA}) en {@code celdas[desde..]}. Devuelve el jugador al
+     * que le toca, o 0 si no quedan.
+     */
+    public int siguiente(byte[] celdas, int desde) throws IOException {
+        if (getGeometria() == null) return 0;
+        int turno = texto != null ? siguienteTexto(celdas, desde) : siguienteBinario(celdas, desde);
+        if (turno != 0) leidas++;
+        return turno;
+    }
+    
+    private int siguienteTexto(byte[] celdas, int desde) throws IOException {
+        String actual = pendiente != null ? pendiente : siguienteLinea();
+        pendiente = null;
+        if (actual == null) return 0;
+        actual = actual.trim();
+        String tablero = tablero(actual);
+        int casillas = geometria.getCasillas();
+        if (tablero.length() != casillas) {
+            throw new IOException("Línea " + linea + ": se esperaban " + casillas + " casillas");
+        }
+        for (int i = 0; i < casillas; i++) {
+            int ficha = FormatoPosiciones.ficha(tablero.charAt(i));
+            if (ficha < 0) throw new IOException("Línea " + linea + ": casilla no válida '" + tablero.charAt(i) + "'");
+            celdas[desde + i] = (byte) ficha;
+        }
+        String resto = actual.substring(tablero.length()).trim();
+        if (resto.isEmpty()) return comprobar(celdas, desde, 0);
+        int turno = resto.length() == 1 ? FormatoPosiciones.ficha(resto.charAt(0)) : -1;
+        if (turno <= 0) throw new IOException("Línea " + linea + ": turno no válido '" + resto + "'");
+        return comprobar(celdas, desde, turno);
+    }
+    
+    /**
+     * Rechaza las posiciones a las que no se llega jugando por turnos: el que
+     * mueve tiene las mismas fichas que el rival o una menos, no hay dos
+     * ganadores y no le toca al que acaba de ganar. Con {@code turno} 0 mueve
+     * quien tenga menos fichas, y con las mismas, el humano. Devuelve el turno.
+     */
+    private int comprobar(byte[] celdas, int desde, int turno) throws IOException {
+        if (comprobacion == null) comprobacion = new Tablero(geometria);
+        comprobacion.reiniciar();
+        int humano = 0;
+        int ia = 0;
+        for (int i = 0; i < geometria.getCasillas(); i++) {
+            int ficha = celdas[desde + i];
+            if (ficha == 0) continue;
+            comprobacion.mover(i, ficha);
+            if (ficha == Controller.HUMANO) humano++;
+            else ia++;
+        }
+        if (turno == 0) turno = humano > ia ? Controller.IA : Controller.HUMANO;
+        int propias = turno == Controller.HUMANO ? humano : ia;
+        int rivales = humano + ia - propias;
+        if (propias != rivales && propias != rivales - 1) {
+            throw new IOException(donde() + ": no se llega a esa posición jugando por turnos");
+        }
+        if (comprobacion.getLineasCompletas(turno) > 0) {
+            int rival = Controller.HUMANO + Controller.IA - turno;
+            throw new IOException(donde() + (comprobacion.getLineasCompletas(rival) > 0
+                ? ": los dos jugadores tienen línea" : ": le toca al jugador que ya ha ganado"));
+        }
+        return turno;
+    }
+    
+    // Cómo se nombra en los errores la posición que se está leyendo
+    private String donde() {
+        return texto != null ? "Línea " + linea : "Posición " + (leidas + 1);
+    }
+    
+    // Salta las líneas vacías y los comentarios
+    private String siguienteLinea() throws IOException {
+        String actual;
+        do {
+            actual = texto.readLine();
+            linea++;
+        } while (actual != null && (actual.isBlank() || actual.trim().startsWith("#")));
+        return actual;
+    }
+    
+    // Lo que hay hasta el primer espacio de una línea sin espacios al principio
+    private static String tablero(String linea) {
+        int espacio = 0;
+        while (espacio < linea.length() && !Character.isWhitespace(linea.charAt(espacio))) espacio++;
+        return linea.substring(0, espacio);
+    }
+    
+    private int siguienteBinario(byte[] celdas, int desde) throws IOException {
+        int casillas = geometria.getCasillas();
+        int tamano = FormatoPosiciones.bytesRegistro(casillas);
+        if (buffer.remaining() < tamano) {
+            buffer.compact();
+            while (buffer.position() < tamano && canal.read(buffer) >= 0) {
+                // hasta tener el registro completo o llegar al final
+            }
+            while (buffer.hasRemaining() && canal.read(buffer) > 0) {
+                // y de paso llenar el buffer
+            }
+            buffer.flip();
+            if (buffer.remaining() == 0) return 0;
+            if (buffer.remaining() < tamano) {
+                throw new IOException("Posición " + (leidas + 1) + " incompleta al final del archivo");
+            }
+        }
+        int turno = FormatoPosiciones.leer(buffer, celdas, desde, casillas);
+        if (turno != Controller.HUMANO && turno != Controller.IA) {
+            throw new IOException("Posición " + (leidas + 1) + ": turno no válido " + turno);
+        }
+        for (int i = 0; i < casillas; i++) {
+            if (celdas[desde + i] > Controller.IA) {
+                throw new IOException("Posición " + (leidas + 1) + ": casilla no válida");
+            }
+        }
+        return comprobar(celdas, desde, turno);
+    }
+    
+    /**
+     * Posiciones devueltas hasta ahora.
+     */
+    public long getLeidas() {
+        return leidas;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (texto != null) texto.close();
+        if (canal != null) canal.close();
+    }
+}
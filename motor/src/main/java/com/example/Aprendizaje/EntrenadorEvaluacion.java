@@ -0,0 +1,521 @@
+package com.example.Aprendizaje;
+
+import com.example.Controller.BusquedaAlfaBeta;
+import com.example.Controller.Controller;
+import com.example.Controller.Geometria;
+import com.example.Controller.Tablero;
+import com.example.Registro.LectorRegistro;
+import com.example.Registro.PartidaRegistrada;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entrena fuera de línea un {@link EvaluadorRed} con partidas de autojuego o del
+ * registro de partidas.
+ *
+ * <p>En el autojuego cada hilo juega sus partidas con una búsqueda alfa-beta poco
+ * profunda y la evaluación de líneas; para ver posiciones variadas, las primeras
+ * jugadas y, de vez en cuando, alguna más se juegan al azar. Cada posición de cada
+ * partida es una muestra: sus entradas, vistas desde quien mueve, y como objetivo
+ * el resultado final para ese jugador (1, 0 o -1).
+ *
+ * <p>El entrenamiento minimiza el error cuadrático de la salida con Adam por
+ * minilotes, sobre entradas normalizadas con la media y la desviación de los
+ * datos. Al terminar, la normalización se pliega en la primera capa, así que el
+ * evaluador no la paga. Una décima parte de las muestras se aparta para validar.
+ *
+ * <p>Uso: {@code EntrenadorEvaluacion --lado 7 --en-linea 4 --partidas 20000
+ * --profundidad 2 --aperturas 4 --epsilon 0.1 --ocultas 16 --epocas 20 --hilos 8
+ * --semilla 42 --salida evaluador.ev}. Con {@code --registro partidas} se usan las
+ * partidas terminadas de esa variante que haya en el registro en lugar de jugarlas.
+ */
+public class EntrenadorEvaluacion {
+    private static final int PARTIDAS_POR_BLOQUE = 64;
+    private static final float BETA1 = 0.9f;
+    private static final float BETA2 = 0.999f;
+    
+    private final Geometria geometria;
+    private final int entradas;
+    private int hilos = Runtime.getRuntime().availableProcessors();
+    private int profundidad = 2;
+    private int jugadasApertura = 4;
+    private double epsilon = 0.1;
+    private int ocultas = 16;
+    private int epocas = 20;
+    private int tamanoLote = 256;
+    private float ritmo = 0.003f;
+    private PrintStream progreso;
+    
+    public EntrenadorEvaluacion(Geometria geometria) {
+        this.geometria = geometria;
+        this.entradas = EvaluadorRed.numEntradas(geometria);
+    }
+    
+    public void setHilos(int hilos) {
+        this.hilos = Math.max(1, hilos);
+    }
+    
+    /**
+     * Profundidad de la búsqueda que juega las partidas de autojuego.
+     */
+    public void setProfundidad(int profundidad) {
+        this.profundidad = profundidad;
+    }
+    
+    /**
+     * Jugadas al azar con las que empieza cada partida de autojuego.
+     */
+    public void setJugadasApertura(int jugadas) {
+        this.jugadasApertura = jugadas;
+    }
+    
+    /**
+     * Probabilidad de jugar al azar en cada jugada de autojuego tras la apertura.
+     */
+    public void setEpsilon(double epsilon) {
+        this.epsilon = epsilon;
+    }
+    
+    /**
+     * Neuronas de la capa oculta; 0 entrena un modelo lineal.
+     */
+    public void setOcultas(int ocultas) {
+        this.ocultas = ocultas;
+    }
+    
+    public void setEpocas(int epocas) {
+        this.epocas = epocas;
+    }
+    
+    public void setTamanoLote(int tamano) {
+        this.tamanoLote = tamano;
+    }
+    
+    public void setRitmo(float ritmo) {
+        this.ritmo = ritmo;
+    }
+    
+    /**
+     * Dónde informar del error de cada época; {@code null} (por defecto) no informa.
+     */
+    public void setProgreso(PrintStream progreso) {
+        this.progreso = progreso;
+    }
+    
+    /**
+     * Posiciones con su resultado final, en arrays planos que crecen al añadir.
+     */
+    public static final class Muestras {
+        private final int entradas;
+        private float[] valores;
+        private float[] objetivos;
+        private int numero;
+        
+        Muestras(int entradas) {
+            this.entradas = entradas;
+            this.valores = new float[1024 * entradas];
+            this.objetivos = new float[1024];
+        }
+        
+        void anadir(Tablero tablero, int jugador, float objetivo) {
+            if (numero == objetivos.length) {
+                objetivos = Arrays.copyOf(objetivos, 2 * numero);
+                valores = Arrays.copyOf(valores, 2 * numero * entradas);
+            }
+            for (int f = 0; f < entradas; f++) {
+                valores[numero * entradas + f] = EvaluadorRed.entrada(tablero, jugador, f);
+            }
+            objetivos[numero++] = objetivo;
+        }
+        
+        void anadir(Muestras otras) {
+            for (int i = 0; i < otras.numero; i++) {
+                if (numero == objetivos.length) {
+                    objetivos = Arrays.copyOf(objetivos, 2 * numero);
+                    valores = Arrays.copyOf(valores, 2 * numero * entradas);
+                }
+                System.arraycopy(otras.valores, i * entradas, valores, numero * entradas, entradas);
+                objetivos[numero++] = otras.objetivos[i];
+            }
+        }
+        
+        public int getNumero() {
+            return numero;
+        }
+    }
+    
+    /**
+     * Juega {@code partidas} partidas de autojuego repartidas entre los hilos. Como
+     * en el simulador, cada bloque de partidas tiene su semilla, así que el
+     * resultado no depende del número de hilos.
+     */
+    public Muestras autojuego(long partidas, long semilla) throws InterruptedException {
+        long bloques = (partidas + PARTIDAS_POR_BLOQUE - 1) / PARTIDAS_POR_BLOQUE;
+        Muestras[] porBloque = new Muestras[(int) bloques];
+        AtomicLong siguiente = new AtomicLong();
+        Thread[] trabajadores = new Thread[hilos];
+        for (int h = 0; h < hilos; h++) {
+            trabajadores[h] = new Thread(() -> {
+                BusquedaAlfaBeta busqueda = new BusquedaAlfaBeta(16);
+                busqueda.setProfundidadMaxima(profundidad);
+                long bloque;
+                while ((bloque = siguiente.getAndIncrement()) < bloques) {
+                    long primera = bloque * PARTIDAS_POR_BLOQUE;
+                    int numero = (int) Math.min(PARTIDAS_POR_BLOQUE, partidas - primera);
+                    SplittableRandom aleatorio = new SplittableRandom(semilla ^ (bloque * 0x9E3779B97F4A7C15L));
+                    Muestras muestras = new Muestras(entradas);
+                    for (int i = 0; i < numero; i++) {
+                        jugarPartida(busqueda, aleatorio, muestras);
+                    }
+                    porBloque[(int) bloque] = muestras;
+                }
+            }, "autojuego-" + h);
+            trabajadores[h].start();
+        }
+        for (Thread trabajador : trabajadores) {
+            trabajador.join();
+        }
+        // Se juntan en el orden de los bloques para que el resultado sea reproducible
+        Muestras todas = new Muestras(entradas);
+        for (Muestras bloque : porBloque) {
+            todas.anadir(bloque);
+        }
+        return todas;
+    }
+    
+    private void jugarPartida(BusquedaAlfaBeta busqueda, SplittableRandom aleatorio, Muestras muestras) {
+        Tablero tablero = new Tablero(geometria);
+        int[] jugadas = new int[tablero.getCasillas()];
+        int numJugadas = 0;
+        int turno = Controller.HUMANO;
+        while (tablero.resultado() == 0) {
+            int movimiento;
+            if (numJugadas < jugadasApertura || aleatorio.nextDouble() < epsilon) {
+                movimiento = casillaAleatoria(tablero, aleatorio);
+            } else {
+                movimiento = busqueda.mejorMovimiento(tablero, turno);
+            }
+            tablero.mover(movimiento, turno);
+            jugadas[numJugadas++] = movimiento;
+            turno = Controller.HUMANO + Controller.IA - turno;
+        }
+        anadirPartida(jugadas, numJugadas, Controller.HUMANO, tablero.resultado(), muestras);
+    }
+    
+    private static int casillaAleatoria(Tablero tablero, SplittableRandom aleatorio) {
+        int elegida = -1;
+        int vistas = 0;
+        for (int casilla = 0; casilla < tablero.getCasillas(); casilla++) {
+            // Una de las candidatas (cualquiera si está vacío), escogida de una pasada
+            boolean candidata = tablero.estaLibre(casilla)
+                && (tablero.getOcupadas() == 0 || tablero.esCandidata(casilla));
+            if (candidata && aleatorio.nextInt(++vistas) == 0) {
+                elegida = casilla;
+            }
+        }
+        return elegida;
+    }
+    
+    // Repite la partida y añade cada posición anterior a una jugada
+    private void anadirPartida(int[] jugadas, int numJugadas, int primero, int resultado, Muestras muestras) {
+        Tablero tablero = new Tablero(geometria);
+        int turno = primero;
+        for (int i = 0; i < numJugadas; i++) {
+            float objetivo = resultado == -1 ? 0 : resultado == turno ? 1 : -1;
+            muestras.anadir(tablero, turno, objetivo);
+            tablero.mover(jugadas[i], turno);
+            turno = Controller.HUMANO + Controller.IA - turno;
+        }
+    }
+    
+    /**
+     * Muestras de las partidas terminadas de esta variante que haya en el registro.
+     */
+    public Muestras leerRegistro(Path directorio) throws IOException {
+        Muestras muestras = new Muestras(entradas);
+        int[] jugadas = new int[geometria.getCasillas()];
+        try (LectorRegistro lector = LectorRegistro.abrir(directorio)) {
+            while (lector.siguiente()) {
+                if (lector.getLado() != geometria.getLado() || lector.getEnLinea() != geometria.getEnLinea()
+                    || lector.getGanador() == PartidaRegistrada.SIN_TERMINAR) {
+                    continue;
+                }
+                for (int i = 0; i < lector.getNumJugadas(); i++) {
+                    jugadas[i] = lector.getJugada(i);
+                }
+                anadirPartida(jugadas, lector.getNumJugadas(), lector.getPrimero(), lector.getGanador(), muestras);
+            }
+        }
+        return muestras;
+    }
+    
+    /**
+     * Entrena la red con las muestras y la devuelve lista para evaluar.
+     */
+    public EvaluadorRed entrenar(Muestras muestras, long semilla) {
+        SplittableRandom aleatorio = new SplittableRandom(semilla);
+        int n = muestras.numero;
+        int[] orden = new int[n];
+        for (int i = 0; i < n; i++) {
+            orden[i] = i;
+        }
+        barajar(orden, n, aleatorio);
+        int validacion = n / 10;
+        int entrenamiento = n - validacion;
+        
+        // Media y desviación de cada entrada, solo con las muestras de entrenamiento
+        float[] media = new float[entradas];
+        float[] desviacion = new float[entradas];
+        for (int i = 0; i < entrenamiento; i++) {
+            for (int f = 0; f < entradas; f++) {
+                media[f] += muestras.valores[orden[i] * entradas + f] / entrenamiento;
+            }
+        }
+        for (int i = 0; i < entrenamiento; i++) {
+            for (int f = 0; f < entradas; f++) {
+                float d = muestras.valores[orden[i] * entradas + f] - media[f];
+                desviacion[f] += d * d / entrenamiento;
+            }
+        }
+        for (int f = 0; f < entradas; f++) {
+            desviacion[f] = desviacion[f] > 1e-6f ? (float) Math.sqrt(desviacion[f]) : 1;
+        }
+        
+        Red red = new Red(entradas, ocultas, aleatorio);
+        float[] x = new float[entradas];
+        for (int epoca = 1; epoca <= epocas; epoca++) {
+            barajar(orden, entrenamiento, aleatorio);
+            double error = 0;
+            for (int inicio = 0; inicio < entrenamiento; inicio += tamanoLote) {
+                int fin = Math.min(entrenamiento, inicio + tamanoLote);
+                red.empezarLote();
+                for (int i = inicio; i < fin; i++) {
+                    normalizar(muestras, orden[i], media, desviacion, x);
+                    error += red.acumular(x, muestras.objetivos[orden[i]]);
+                }
+                red.aplicar(fin - inicio, ritmo);
+            }
+            if (progreso != null) {
+                progreso.printf("Época %d: error %.4f, validación %.4f%n", epoca, error / Math.max(1, entrenamiento),
+                    errorValidacion(red, muestras, orden, entrenamiento, media, desviacion, x));
+            }
+        }
+        return new EvaluadorRed(geometria, ocultas, red.plegar(media, desviacion));
+    }
+    
+    private double errorValidacion(Red red, Muestras muestras, int[] orden, int desde, float[] media,
+                                   float[] desviacion, float[] x) {
+        double error = 0;
+        for (int i = desde; i < muestras.numero; i++) {
+            normalizar(muestras, orden[i], media, desviacion, x);
+            float d = red.salida(x) - muestras.objetivos[orden[i]];
+            error += d * d;
+        }
+        return error / Math.max(1, muestras.numero - desde);
+    }
+    
+    private void normalizar(Muestras muestras, int muestra, float[] media, float[] desviacion, float[] x) {
+        for (int f = 0; f < entradas; f++) {
+            x[f] = (muestras.valores[muestra * entradas + f] - media[f]) / desviacion[f];
+        }
+    }
+    
+    private static void barajar(int[] orden, int n, SplittableRandom aleatorio) {
+        for (int i = n - 1; i > 0; i--) {
+            int j = aleatorio.nextInt(i + 1);
+            int t = orden[i];
+            orden[i] = orden[j];
+            orden[j] = t;
+        }
+    }
+    
+    /**
+     * La red durante el entrenamiento, con la misma disposición de pesos que
+     * {@link EvaluadorRed}, sus gradientes y los momentos de Adam.
+     */
+    private static final class Red {
+        final int entradas;
+        final int ocultas;
+        final float[] pesos;
+        final float[] gradiente;
+        final float[] momento;
+        final float[] varianza;
+        final float[] activaciones;
+        final int sesgosOcultos;
+        final int pesosSalida;
+        final int sesgoSalida;
+        int pasos;
+        
+        Red(int entradas, int ocultas, SplittableRandom aleatorio) {
+            this.entradas = entradas;
+            this.ocultas = ocultas;
+            int numPesos = ocultas == 0 ? entradas + 1 : ocultas * (entradas + 2) + 1;
+            this.pesos = new float[numPesos];
+            this.gradiente = new float[numPesos];
+            this.momento = new float[numPesos];
+            this.varianza = new float[numPesos];
+            this.activaciones = new float[ocultas];
+            this.sesgosOcultos = ocultas * entradas;
+            this.pesosSalida = sesgosOcultos + ocultas;
+            this.sesgoSalida = ocultas == 0 ? entradas : pesosSalida + ocultas;
+            // Inicialización de He para la capa ReLU; la salida empieza pequeña
+            for (int i = 0; i < sesgosOcultos; i++) {
+                pesos[i] = (float) (gaussiana(aleatorio) * Math.sqrt(2.0 / entradas));
+            }
+            for (int j = 0; j < ocultas; j++) {
+                pesos[pesosSalida + j] = (float) (gaussiana(aleatorio) * 0.1 / Math.sqrt(ocultas));
+            }
+        }
+        
+        private static double gaussiana(SplittableRandom aleatorio) {
+            double u = 1 - aleatorio.nextDouble();
+            return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * aleatorio.nextDouble());
+        }
+        
+        // Suma de la salida antes de tanh; deja las activaciones ocultas para el gradiente
+        private float preactivacion(float[] x) {
+            float z = pesos[sesgoSalida];
+            if (ocultas == 0) {
+                for (int f = 0; f < entradas; f++) {
+                    z += pesos[f] * x[f];
+                }
+                return z;
+            }
+            for (int j = 0; j < ocultas; j++) {
+                float a = pesos[sesgosOcultos + j];
+                for (int f = 0; f < entradas; f++) {
+                    a += pesos[j * entradas + f] * x[f];
+                }
+                activaciones[j] = Math.max(0, a);
+                z += pesos[pesosSalida + j] * activaciones[j];
+            }
+            return z;
+        }
+        
+        float salida(float[] x) {
+            return (float) Math.tanh(preactivacion(x));
+        }
+        
+        void empezarLote() {
+            Arrays.fill(gradiente, 0);
+        }
+        
+        /**
+         * Suma al gradiente el de una muestra y devuelve su error cuadrático.
+         */
+        float acumular(float[] x, float objetivo) {
+            float y = (float) Math.tanh(preactivacion(x));
+            float diferencia = y - objetivo;
+            float dz = 2 * diferencia * (1 - y * y);
+            gradiente[sesgoSalida] += dz;
+            if (ocultas == 0) {
+                for (int f = 0; f < entradas; f++) {
+                    gradiente[f] += dz * x[f];
+                }
+                return diferencia * diferencia;
+            }
+            for (int j = 0; j < ocultas; j++) {
+                if (activaciones[j] <= 0) continue;
+                gradiente[pesosSalida + j] += dz * activaciones[j];
+                float da = dz * pesos[pesosSalida + j];
+                gradiente[sesgosOcultos + j] += da;
+                for (int f = 0; f < entradas; f++) {
+                    gradiente[j * entradas + f] += da * x[f];
+                }
+            }
+            return diferencia * diferencia;
+        }
+        
+        void aplicar(int tamano, float ritmo) {
+            pasos++;
+            double correccion1 = 1 - Math.pow(BETA1, pasos);
+            double correccion2 = 1 - Math.pow(BETA2, pasos);
+            for (int i = 0; i < pesos.length; i++) {
+                float g = gradiente[i] / tamano;
+                momento[i] = BETA1 * momento[i] + (1 - BETA1) * g;
+                varianza[i] = BETA2 * varianza[i] + (1 - BETA2) * g * g;
+                pesos[i] -= (float) (ritmo * (momento[i] / correccion1) / (Math.sqrt(varianza[i] / correccion2) + 1e-8));
+            }
+        }
+        
+        /**
+         * Pesos para entradas sin normalizar: la normalización pasa a la primera capa.
+         */
+        float[] plegar(float[] media, float[] desviacion) {
+            float[] plegados = pesos.clone();
+            int filas = ocultas == 0 ? 1 : ocultas;
+            for (int j = 0; j < filas; j++) {
+                int fila = ocultas == 0 ? 0 : j * entradas;
+                int sesgo = ocultas == 0 ? sesgoSalida : sesgosOcultos + j;
+                for (int f = 0; f < entradas; f++) {
+                    plegados[fila + f] = pesos[fila + f] / desviacion[f];
+                    plegados[sesgo] -= pesos[fila + f] * media[f] / desviacion[f];
+                }
+            }
+            return plegados;
+        }
+    }
+    
+    public static void main(String[] args) throws InterruptedException, IOException {
+        int lado = 7;
+        int enLinea = 4;
+        long partidas = 20_000;
+        long semilla = 42;
+        String salida = "evaluador.ev";
+        String registro = null;
+        Integer hilos = null;
+        Integer profundidad = null;
+        Integer aperturas = null;
+        Double epsilon = null;
+        Integer ocultas = null;
+        Integer epocas = null;
+        Integer lote = null;
+        Float ritmo = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String valor = args[i + 1];
+            switch (args[i]) {
+                case "--lado": lado = Integer.parseInt(valor); break;
+                case "--en-linea": enLinea = Integer.parseInt(valor); break;
+                case "--partidas": partidas = Long.parseLong(valor); break;
+                case "--semilla": semilla = Long.parseLong(valor); break;
+                case "--salida": salida = valor; break;
+                case "--registro": registro = valor; break;
+                case "--hilos": hilos = Integer.parseInt(valor); break;
+                case "--profundidad": profundidad = Integer.parseInt(valor); break;
+                case "--aperturas": aperturas = Integer.parseInt(valor); break;
+                case "--epsilon": epsilon = Double.parseDouble(valor); break;
+                case "--ocultas": ocultas = Integer.parseInt(valor); break;
+                case "--epocas": epocas = Integer.parseInt(valor); break;
+                case "--lote": lote = Integer.parseInt(valor); break;
+                case "--ritmo": ritmo = Float.parseFloat(valor); break;
+                default: throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+        
+        EntrenadorEvaluacion entrenador = new EntrenadorEvaluacion(Geometria.de(lado, enLinea));
+        if (hilos != null) entrenador.setHilos(hilos);
+        if (profundidad != null) entrenador.setProfundidad(profundidad);
+        if (aperturas != null) entrenador.setJugadasApertura(aperturas);
+        if (epsilon != null) entrenador.setEpsilon(epsilon);
+        if (ocultas != null) entrenador.setOcultas(ocultas);
+        if (epocas != null) entrenador.setEpocas(epocas);
+        if (lote != null) entrenador.setTamanoLote(lote);
+        if (ritmo != null) entrenador.setRitmo(ritmo);
+        entrenador.setProgreso(System.out);
+        
+        long inicio = System.nanoTime();
+        Muestras muestras = registro != null
+            ? entrenador.leerRegistro(Paths.get(registro)) : entrenador.autojuego(partidas, semilla);
+        System.out.printf("%d posiciones en %.2f s%n", muestras.getNumero(), (System.nanoTime() - inicio) / 1e9);
+        inicio = System.nanoTime();
+        EvaluadorRed evaluador = entrenador.entrenar(muestras, semilla);
+        System.out.printf("Entrenado en %.2f s%n", (System.nanoTime() - inicio) / 1e9);
+        evaluador.guardar(Paths.get(salida));
+        System.out.println("Guardado en " + salida);
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.Aprendizaje;
+
+import com.example.Controller.TablaPerfecta;
+import com.example.Controller.TableroBits;
+import java.util.SplittableRandom;
+
+/**
+ * Entrena una {@link TablaQ} por autojuego con Q-learning de un paso.
+ *
+ * <p>Ambos jugadores comparten la tabla porque los estados se ven desde quien
+ * mueve: el objetivo de una jugada es 1 si gana, 0 si empata y, si la partida
+ * sigue, menos el mejor valor del rival en la posición resultante. Cada hilo
+ * juega sus propios episodios con su propio generador y todos actualizan la misma
+ * tabla sin bloqueos.
+ *
+ * <p>Uso: {@code EntrenadorQ --episodios 1000000 --hilos 8 --semilla 42}
+ */
+public class EntrenadorQ {
+    // Con esto basta para pasar del 99% de jugadas óptimas
+    public static final long EPISODIOS_POR_DEFECTO = 1_000_000;
+    
+    private float alfa = 0.3f;
+    private float epsilon = 0.2f;
+    private int hilos = Runtime.getRuntime().availableProcessors();
+    
+    private long episodios;
+    private long nanos;
+    
+    public void setAlfa(float alfa) {
+        this.alfa = alfa;
+    }
+    
+    /**
+     * Probabilidad de jugar una casilla al azar en lugar de la mejor conocida.
+     */
+    public void setEpsilon(float epsilon) {
+        this.epsilon = epsilon;
+    }
+    
+    public void setHilos(int hilos) {
+        this.hilos = Math.max(1, hilos);
+    }
+    
+    private static class Holder {
+        static final TablaQ TABLA = entrenarPorDefecto();
+    }
+    
+    /**
+     * Tabla entrenada una sola vez, al primer uso, con todos los núcleos.
+     */
+    public static TablaQ tablaPorDefecto() {
+        return Holder.TABLA;
+    }
+    
+    private static TablaQ entrenarPorDefecto() {
+        try {
+            return new EntrenadorQ().entrenar(EPISODIOS_POR_DEFECTO, 42);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Entrenamiento interrumpido", e);
+        }
+    }
+    
+    public TablaQ entrenar(long episodios, long semilla) throws InterruptedException {
+        TablaQ tabla = new TablaQ();
+        entrenar(tabla, episodios, semilla);
+        return tabla;
+    }
+    
+    public void entrenar(TablaQ tabla, long episodios, long semilla) throws InterruptedException {
+        SplittableRandom semillas = new SplittableRandom(semilla);
+        Thread[] trabajadores = new Thread[hilos];
+        long inicio = System.nanoTime();
+        for (int h = 0; h < hilos; h++) {
+            long cuota = episodios / hilos + (h < episodios % hilos ? 1 : 0);
+            SplittableRandom random = semillas.split();
+            trabajadores[h] = new Thread(() -> {
+                for (long e = 0; e < cuota; e++) {
+                    jugarEpisodio(tabla, random);
+                }
+            }, "entrenador-" + h);
+            trabajadores[h].start();
+        }
+        for (Thread trabajador : trabajadores) {
+            trabajador.join();
+        }
+        this.nanos = System.nanoTime() - inicio;
+        this.episodios = episodios;
+    }
+    
+    private void jugarEpisodio(TablaQ tabla, SplittableRandom random) {
+        int propia = 0;
+        int rival = 0;
+        while (true) {
+            int libres = TableroBits.libres(propia, rival);
+            int casilla = random.nextDouble() < epsilon
+                ? casillaAleatoria(libres, random)
+                : tabla.mejorMovimiento(propia, rival);
+            
+            int nueva = propia | TableroBits.bit(casilla);
+            boolean gana = TableroBits.tieneLinea(nueva);
+            boolean lleno = (nueva | rival) == TableroBits.LLENO;
+            float objetivo = gana ? 1f : lleno ? 0f : -tabla.mejorValor(rival, nueva);
+            
+            int clave = TableroBits.canonico(propia, rival);
+            tabla.actualizar(clave >>> 3, TableroBits.transformarCasilla(clave & 7, casilla), objetivo, alfa);
+            if (gana || lleno) return;
+            propia = rival;
+            rival = nueva;
+        }
+    }
+    
+    private static int casillaAleatoria(int libres, SplittableRandom random) {
+        int k = random.nextInt(Integer.bitCount(libres));
+        while (k-- > 0) {
+            libres &= libres - 1;
+        }
+        return Integer.numberOfTrailingZeros(libres);
+    }
+    
+    public double getEpisodiosPorSegundo() {
+        return nanos == 0 ? 0 : episodios * 1e9 / nanos;
+    }
+    
+    public long getNanos() {
+        return nanos;
+    }
+    
+    /**
+     * Fracción de las posiciones alcanzables (sin terminar) en las que la tabla
+     * elige una jugada óptima según {@link TablaPerfecta}.
+     */
+    public static double precision(TablaQ tabla) {
+        int[] cuenta = new int[2]; // {aciertos, posiciones}
+        recorrer(tabla, 0, 0, new boolean[TableroBits.POSICIONES], cuenta);
+        return (double) cuenta[0] / cuenta[1];
+    }
+    
+    private static void recorrer(TablaQ tabla, int propia, int rival, boolean[] vistas, int[] cuenta) {
+        int indice = TableroBits.indice(propia, rival);
+        if (vistas[indice] || TableroBits.tieneLinea(rival)) return;
+        vistas[indice] = true;
+        int libres = TableroBits.libres(propia, rival);
+        if (libres == 0) return;
+        
+        TablaPerfecta perfecta = TablaPerfecta.getInstancia();
+        int nueva = propia | TableroBits.bit(tabla.mejorMovimiento(propia, rival));
+        int obtenido = TableroBits.tieneLinea(nueva) ? TablaPerfecta.GANA : -perfecta.valor(rival, nueva);
+        if (obtenido == perfecta.valor(propia, rival)) cuenta[0]++;
+        cuenta[1]++;
+        
+        while (libres != 0) {
+            int casilla = Integer.numberOfTrailingZeros(libres);
+            libres &= libres - 1;
+            recorrer(tabla, rival, propia | TableroBits.bit(casilla), vistas, cuenta);
+        }
+    }
+    
+    public static void main(String[] args) throws InterruptedException {
+        long episodios = EPISODIOS_POR_DEFECTO;
+        long semilla = 42;
+        EntrenadorQ entrenador = new EntrenadorQ();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String valor = args[i + 1];
+            switch (args[i]) {
+                case "--episodios": episodios = Long.parseLong(valor); break;
+                case "--semilla": semilla = Long.parseLong(valor); break;
+                case "--hilos": entrenador.setHilos(Integer.parseInt(valor)); break;
+                case "--alfa": entrenador.setAlfa(Float.parseFloat(valor)); break;
+                case "--epsilon": entrenador.setEpsilon(Float.parseFloat(valor)); break;
+                default: throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+        TablaQ tabla = entrenador.entrenar(episodios, semilla);
+        System.out.printf("Episodios: %d en %.3f s (%.0f episodios/s, %d hilos)%n",
+            episodios, entrenador.getNanos() / 1e9, entrenador.getEpisodiosPorSegundo(), entrenador.hilos);
+        System.out.printf("Jugadas óptimas: %.2f%%%n", 100 * precision(tabla));
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.Aprendizaje;
+
+import com.example.Controller.Controller;
+import com.example.Controller.Evaluador;
+import com.example.Controller.Geometria;
+import com.example.Controller.Tablero;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+/**
+ * Evaluador aprendido por {@link EntrenadorEvaluacion}: una red con una capa
+ * oculta ReLU (o un modelo lineal, con 0 neuronas ocultas) sobre las líneas
+ * abiertas de cada jugador.
+ *
+ * <p>La entrada son, para {@code k} de 1 a K-1, las líneas abiertas con
+ * {@code k} fichas de quien mueve y después las del rival; el {@link Tablero}
+ * las lleva al día, así que leerlas no cuesta nada. La salida pasa por tanh y se
+ * escala a ±{@link #ESCALA}: es el resultado esperado para quien mueve.
+ *
+ * <p>Todos los pesos van en un único {@code float[]}: los de la capa oculta fila a
+ * fila, sus sesgos, los de la salida y el sesgo de la salida (en el lineal, los
+ * pesos y el sesgo). {@link #evaluar} no usa más memoria que esa y admite varios
+ * hilos; {@link #evaluarHijos} recorre los pesos de cada neurona una sola vez para
+ * todo el lote, con buffers propios de cada instancia ({@link #copia()} da otra
+ * que comparte los pesos).
+ *
+ * <p>En disco: cabecera de 16 bytes (magia, versión, lado, fichas en línea,
+ * neuronas ocultas y CRC32 de los pesos) y detrás los pesos, en big-endian.
+ */
+public final class EvaluadorRed implements Evaluador {
+    public static final int ESCALA = 10_000;
+    static final int MAGIA = 0x54544556; // "TTEV"
+    static final short VERSION = 1;
+    static final int CABECERA = 16;
+    
+    private final Geometria geometria;
+    private final int entradas;
+    private final int ocultas;
+    private final float[] pesos;
+    // Dónde empieza cada bloque de pesos
+    private final int sesgosOcultos;
+    private final int pesosSalida;
+    private final int sesgoSalida;
+    // Entradas de cada hijo del lote, una fila por hijo, y su suma en la salida
+    private float[] lote = new float[0];
+    private float[] salidas = new float[0];
+    
+    public EvaluadorRed(Geometria geometria, int ocultas, float[] pesos) {
+        if (ocultas < 0) throw new IllegalArgumentException("Neuronas ocultas: " + ocultas);
+        if (pesos.length != numPesos(geometria, ocultas)) {
+            throw new IllegalArgumentException("Se esperaban " + numPesos(geometria, ocultas) + " pesos y hay " + pesos.length);
+        }
+        this.geometria = geometria;
+        this.entradas = numEntradas(geometria);
+        this.ocultas = ocultas;
+        this.pesos = pesos;
+        this.sesgosOcultos = ocultas * entradas;
+        this.pesosSalida = sesgosOcultos + ocultas;
+        this.sesgoSalida = ocultas == 0 ? entradas : pesosSalida + ocultas;
+    }
+    
+    public static int numEntradas(Geometria geometria) {
+        return 2 * (geometria.getEnLinea() - 1);
+    }
+    
+    public static int numPesos(Geometria geometria, int ocultas) {
+        int entradas = numEntradas(geometria);
+        return ocultas == 0 ? entradas + 1 : ocultas * (entradas + 2) + 1;
+    }
+    
+    /**
+     * Otra instancia con los mismos pesos y sus propios buffers de lote.
+     */
+    public EvaluadorRed copia() {
+        return new EvaluadorRed(geometria, ocultas, pesos);
+    }
+    
+    /**
+     * Entrada {@code f} de la red para la posición vista desde {@code jugador}.
+     */
+    static int entrada(Tablero tablero, int jugador, int f) {
+        int mitad = tablero.getGeometria().getEnLinea() - 1;
+        return f < mitad ? tablero.getLineasAbiertas(jugador, f + 1)
+             : tablero.getLineasAbiertas(Controller.HUMANO + Controller.IA - jugador, f - mitad + 1);
+    }
+    
+    @Override
+    public int evaluar(Tablero tablero, int jugador) {
+        comprobarGeometria(tablero);
+        float salida = pesos[sesgoSalida];
+        if (ocultas == 0) {
+            for (int f = 0; f < entradas; f++) {
+                salida += pesos[f] * entrada(tablero, jugador, f);
+            }
+            return escalar(salida);
+        }
+        for (int j = 0; j < ocultas; j++) {
+            int fila = j * entradas;
+            float activacion = pesos[sesgosOcultos + j];
+            for (int f = 0; f < entradas; f++) {
+                activacion += pesos[fila + f] * entrada(tablero, jugador, f);
+            }
+            if (activacion > 0) salida += pesos[pesosSalida + j] * activacion;
+        }
+        return escalar(salida);
+    }
+    
+    @Override
+    public void evaluarHijos(Tablero tablero, int jugador, int[] casillas, int num, int[] valores) {
+        comprobarGeometria(tablero);
+        if (salidas.length < num) {
+            lote = new float[num * entradas];
+            salidas = new float[num];
+        }
+        // Cada hijo se ve desde el rival, que es quien mueve en él
+        int rival = Controller.HUMANO + Controller.IA - jugador;
+        for (int i = 0; i < num; i++) {
+            tablero.mover(casillas[i], jugador);
+            for (int f = 0; f < entradas; f++) {
+                lote[i * entradas + f] = entrada(tablero, rival, f);
+            }
+            tablero.deshacer(casillas[i]);
+            salidas[i] = pesos[sesgoSalida];
+        }
+        if (ocultas == 0) {
+            for (int i = 0; i < num; i++) {
+                for (int f = 0; f < entradas; f++) {
+                    salidas[i] += pesos[f] * lote[i * entradas + f];
+                }
+            }
+        }
+        for (int j = 0; j < ocultas; j++) {
+            int fila = j * entradas;
+            float sesgo = pesos[sesgosOcultos + j];
+            float peso = pesos[pesosSalida + j];
+            for (int i = 0; i < num; i++) {
+                float activacion = sesgo;
+                for (int f = 0; f < entradas; f++) {
+                    activacion += pesos[fila + f] * lote[i * entradas + f];
+                }
+                if (activacion > 0) salidas[i] += peso * activacion;
+            }
+        }
+        for (int i = 0; i < num; i++) {
+            valores[i] = -escalar(salidas[i]);
+        }
+    }
+    
+    private static int escalar(float salida) {
+        return (int) (ESCALA * Math.tanh(salida));
+    }
+    
+    private void comprobarGeometria(Tablero tablero) {
+        if (tablero.getGeometria() != geometria) {
+            throw new IllegalArgumentException("Evaluador entrenado para " + geometria.getLado() + "x"
+                + geometria.getLado() + " con " + geometria.getEnLinea() + " en línea");
+        }
+    }
+    
+    public Geometria getGeometria() {
+        return geometria;
+    }
+    
+    public int getOcultas() {
+        return ocultas;
+    }
+    
+    public void guardar(Path archivo) throws IOException {
+        ByteBuffer datos = ByteBuffer.allocate(CABECERA + 4 * pesos.length);
+        datos.position(CABECERA);
+        for (float peso : pesos) {
+            datos.putFloat(peso);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(datos.array(), CABECERA, 4 * pesos.length);
+        datos.putInt(0, MAGIA).putShort(4, VERSION).put(6, (byte) geometria.getLado())
+            .put(7, (byte) geometria.getEnLinea()).putInt(8, ocultas).putInt(12, (int) crc.getValue());
+        Files.write(archivo, datos.array());
+    }
+    
+    public static EvaluadorRed cargar(Path archivo) throws IOException {
+        ByteBuffer datos = ByteBuffer.wrap(Files.readAllBytes(archivo));
+        if (datos.remaining() < CABECERA || datos.getInt(0) != MAGIA) {
+            throw new IOException("No es un evaluador: " + archivo);
+        }
+        if (datos.getShort(4) != VERSION) {
+            throw new IOException("Versión de evaluador no soportada: " + archivo);
+        }
+        Geometria geometria;
+        try {
+            geometria = Geometria.de(datos.get(6) & 0xFF, datos.get(7) & 0xFF);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(archivo + ": " + e.getMessage());
+        }
+        int ocultas = datos.getInt(8);
+        int numPesos = ocultas < 0 ? -1 : numPesos(geometria, ocultas);
+        if (numPesos < 0 || datos.remaining() != CABECERA + 4L * numPesos) {
+            throw new IOException("Tamaño de evaluador incorrecto: " + archivo);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(datos.array(), CABECERA, 4 * numPesos);
+        if ((int) crc.getValue() != datos.getInt(12)) {
+            throw new IOException("Evaluador dañado (CRC): " + archivo);
+        }
+        float[] pesos = new float[numPesos];
+        datos.position(CABECERA);
+        for (int i = 0; i < numPesos; i++) {
+            pesos[i] = datos.getFloat();
+        }
+        return new EvaluadorRed(geometria, ocultas, pesos);
+    }
+}
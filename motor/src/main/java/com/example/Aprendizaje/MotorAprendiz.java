@@ -0,0 +1,35 @@
+package com.example.Aprendizaje;
+
+import com.example.Controller.Controller;
+import com.example.Controller.Geometria;
+import com.example.Controller.Motor;
+import com.example.Controller.OrigenJugada;
+import com.example.Controller.Tablero;
+
+/**
+ * Juega la casilla con mayor valor Q de una {@link TablaQ} ya entrenada. Solo
+ * para el 3x3; la tabla se puede compartir entre hilos.
+ */
+public class MotorAprendiz implements Motor {
+    private final TablaQ tabla;
+    
+    public MotorAprendiz(TablaQ tabla) {
+        this.tabla = tabla;
+    }
+    
+    @Override
+    public int mejorMovimiento(Tablero posicion, int jugador) {
+        Geometria geometria = posicion.getGeometria();
+        if (geometria.getLado() != 3 || geometria.getEnLinea() != 3) {
+            throw new IllegalArgumentException("El motor aprendiz solo juega al 3x3");
+        }
+        if (posicion.resultado() != 0) return -1;
+        int rival = Controller.HUMANO + Controller.IA - jugador;
+        return tabla.mejorMovimiento(posicion.getMascara(jugador), posicion.getMascara(rival));
+    }
+    
+    @Override
+    public OrigenJugada getOrigen() {
+        return OrigenJugada.APRENDIZ;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.Aprendizaje;
+
+import com.example.Controller.TableroBits;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Valores Q del 3x3 en un único array plano, indexado por posición canónica y casilla.
+ *
+ * <p>La posición se codifica desde el punto de vista de quien mueve (ver
+ * {@link TableroBits#canonico(int, int)}), así que la misma tabla sirve para los
+ * dos jugadores y las 8 simetrías comparten entrada. Los valores se guardan como
+ * bits de {@code float} en un {@code int[]} y se actualizan con compare-and-set,
+ * de modo que varios hilos pueden entrenar a la vez sin bloqueos.
+ */
+public class TablaQ {
+    private static final VarHandle CELDA = MethodHandles.arrayElementVarHandle(int[].class);
+    
+    private final int[] valores = new int[TableroBits.POSICIONES * TableroBits.CASILLAS];
+    
+    public float get(int indice, int casilla) {
+        return Float.intBitsToFloat((int) CELDA.getOpaque(valores, indice * TableroBits.CASILLAS + casilla));
+    }
+    
+    /**
+     * Acerca el valor Q hacia {@code objetivo} en una fracción {@code alfa}.
+     */
+    void actualizar(int indice, int casilla, float objetivo, float alfa) {
+        int i = indice * TableroBits.CASILLAS + casilla;
+        int actual;
+        int nuevo;
+        do {
+            actual = (int) CELDA.getVolatile(valores, i);
+            float q = Float.intBitsToFloat(actual);
+            nuevo = Float.floatToRawIntBits(q + alfa * (objetivo - q));
+        } while (!CELDA.compareAndSet(valores, i, actual, nuevo));
+    }
+    
+    /**
+     * Mejor casilla libre según la tabla para quien tiene la máscara {@code propia},
+     * o -1 si no quedan casillas libres.
+     */
+    public int mejorMovimiento(int propia, int rival) {
+        int clave = TableroBits.canonico(propia, rival);
+        int mejor = mejorCanonica(clave, TableroBits.libres(propia, rival));
+        return mejor < 0 ? -1 : TableroBits.destransformar(clave & 7, mejor);
+    }
+    
+    /**
+     * Valor Q de la mejor casilla libre, desde el punto de vista de quien mueve.
+     */
+    public float mejorValor(int propia, int rival) {
+        int clave = TableroBits.canonico(propia, rival);
+        int mejor = mejorCanonica(clave, TableroBits.libres(propia, rival));
+        return mejor < 0 ? 0f : get(clave >>> 3, mejor);
+    }
+    
+    // Mejor casilla en la orientación canónica; en empate, la de menor índice
+    private int mejorCanonica(int clave, int libres) {
+        int indice = clave >>> 3;
+        libres = TableroBits.transformar(clave & 7, libres);
+        int mejor = -1;
+        float mejorValor = Float.NEGATIVE_INFINITY;
+        while (libres != 0) {
+            int casilla = Integer.numberOfTrailingZeros(libres);
+            libres &= libres - 1;
+            float valor = get(indice, casilla);
+            if (valor > mejorValor) {
+                mejorValor = valor;
+                mejor = casilla;
+            }
+        }
+        return mejor;
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.Controller;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Piensa en un hilo propio la respuesta de la IA a cada jugada posible del
+ * humano mientras este decide. Si el humano juega una ya pensada, la IA responde
+ * al momento; si es justo la que se está pensando, se espera a que termine; si
+ * no, se abandona el resto y la IA busca como siempre.
+ *
+ * <p>Usa el mismo motor que la IA, así que el motor solo queda libre cuando
+ * vuelven {@link #respuesta(Tablero)} o {@link #esperar()}. Solo vale la última
+ * tarea: empezar otra o detener corta la búsqueda en curso y descarta lo que no
+ * haya terminado.
+ */
+final class Anticipador {
+    static final int SIN_RESPUESTA = -2;
+    
+    private final ExecutorService ejecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread hilo = new Thread(r, "anticipacion");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+    private Tarea tarea;
+    
+    /**
+     * Empieza a pensar con {@code motor} las respuestas a las jugadas del humano
+     * en {@code posicion}, que se copia. Cancela la tarea anterior.
+     */
+    synchronized void iniciar(Tablero posicion, Motor motor) {
+        detener();
+        tarea = new Tarea(posicion.copia(), motor, tarea);
+        ejecutor.execute(tarea);
+    }
+    
+    /**
+     * Cancela lo que se esté pensando sin esperar a que el hilo suelte el motor.
+     */
+    synchronized void detener() {
+        if (tarea != null) tarea.cancelar();
+    }
+    
+    /**
+     * Respuesta ya pensada para {@code posicion}, que debe ser la de
+     * {@link #iniciar} más una jugada del humano, o {@link #SIN_RESPUESTA}. Al
+     * volver, el hilo ya no usa el motor.
+     */
+    int respuesta(Tablero posicion) {
+        Tarea actual = quitarTarea();
+        if (actual == null) return SIN_RESPUESTA;
+        return actual.terminar(actual.jugadaHasta(posicion));
+    }
+    
+    /**
+     * Cancela lo que se esté pensando y espera a que el hilo suelte el motor.
+     */
+    void esperar() {
+        Tarea actual = quitarTarea();
+        if (actual != null) actual.terminar(-1);
+    }
+    
+    private synchronized Tarea quitarTarea() {
+        Tarea actual = tarea;
+        tarea = null;
+        return actual;
+    }
+    
+    private static final class Tarea implements Runnable {
+        private final Tablero base;
+        private final Motor motor;
+        private final int[] respuestas;
+        // La tarea anterior, hasta que esta empieza (y aquella ya ha terminado)
+        private Tarea previa;
+        private int enCurso = -1;
+        private boolean cancelada;
+        // Terminar al acabar la jugada en curso, sin cortarla
+        private boolean parar;
+        private boolean terminada;
+        
+        Tarea(Tablero base, Motor motor, Tarea previa) {
+            this.base = base;
+            this.motor = motor;
+            this.previa = previa;
+            this.respuestas = new int[base.getCasillas()];
+            Arrays.fill(respuestas, SIN_RESPUESTA);
+        }
+        
+        @Override
+        public void run() {
+            Tablero tablero = base.copia();
+            try {
+                synchronized (this) {
+                    previa = null;
+                }
+                // Primero las casillas preferidas, que son las que más se juegan
+                for (int pos : base.getGeometria().getOrden()) {
+                    if (!tablero.estaLibre(pos) || !tablero.esCandidata(pos)) continue;
+                    synchronized (this) {
+                        if (cancelada || parar) return;
+                        enCurso = pos;
+                    }
+                    tablero.mover(pos, Controller.HUMANO);
+                    int respuesta = motor.mejorMovimiento(tablero, Controller.IA);
+                    tablero.deshacer(pos);
+                    synchronized (this) {
+                        if (!cancelada) respuestas[pos] = respuesta;
+                        enCurso = -1;
+                        notifyAll();
+                    }
+                }
+            } finally {
+                synchronized (this) {
+                    enCurso = -1;
+                    terminada = true;
+                    notifyAll();
+                }
+            }
+        }
+        
+        synchronized void cancelar() {
+            cancelada = true;
+            motor.cancelar();
+        }
+        
+        /**
+         * Casilla que jugó el humano para pasar de la posición base a
+         * {@code posicion}, o -1 si no se llega así con una sola jugada.
+         */
+        int jugadaHasta(Tablero posicion) {
+            if (posicion.getGeometria() != base.getGeometria()
+                || posicion.getOcupadas() != base.getOcupadas() + 1) {
+                return -1;
+            }
+            Zobrist zobrist = base.getGeometria().getZobrist();
+            for (int casilla = 0; casilla < base.getCasillas(); casilla++) {
+                if (base.estaLibre(casilla) && posicion.getCasilla(casilla) == Controller.HUMANO) {
+                    long hash = base.getHash() ^ zobrist.clave(Controller.HUMANO, casilla);
+                    return hash == posicion.getHash() ? casilla : -1;
+                }
+            }
+            return -1;
+        }
+        
+        /**
+         * Deja de pensar y devuelve la respuesta a {@code jugada} si ya está o si
+         * era la que se estaba pensando; vuelve cuando el hilo ha soltado el motor.
+         */
+        int terminar(int jugada) {
+            boolean interrumpido = false;
+            int respuesta = SIN_RESPUESTA;
+            synchronized (this) {
+                parar = true;
+                try {
+                    while (jugada >= 0 && enCurso == jugada && !cancelada) {
+                        wait();
+                    }
+                    if (jugada >= 0 && !cancelada) respuesta = respuestas[jugada];
+                } catch (InterruptedException e) {
+                    interrumpido = true;
+                }
+            }
+            cancelar();
+            interrumpido |= esperarFin();
+            if (interrumpido) Thread.currentThread().interrupt();
+            return respuesta;
+        }
+        
+        // El motor deja su bandera de cancelación a falso al empezar cada búsqueda,
+        // así que se repite hasta que el hilo termina. Devuelve si hubo interrupción.
+        private boolean esperarFin() {
+            Tarea anterior;
+            synchronized (this) {
+                anterior = previa;
+            }
+            boolean interrumpido = anterior != null && anterior.esperarFin();
+            synchronized (this) {
+                while (!terminada) {
+                    motor.cancelar();
+                    try {
+                        wait(1);
+                    } catch (InterruptedException e) {
+                        interrumpido = true;
+                    }
+                }
+            }
+            return interrumpido;
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package com.example.Controller;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Negamax con poda alfa-beta, tabla de transposición y profundización iterativa
+ * sobre un {@link Tablero} de cualquier variante.
+ *
+ * <p>Los finales se detectan sobre la posición que se está buscando, nunca sobre
+ * el tablero vivo del {@link Controller}. Los movimientos se ordenan poniendo
+ * primero el de la tabla y después el orden de preferencia de la geometría. Cada
+ * iteración profundiza una jugada más hasta agotar el tablero, encontrar un final
+ * forzado o pasar el tiempo máximo; en ese caso se devuelve lo mejor encontrado.
+ *
+ * <p>Las entradas de la tabla solo cortan la búsqueda si se calcularon a la misma
+ * profundidad restante, de modo que el valor y el movimiento elegidos a una
+ * profundidad dada no dependen del contenido previo de la tabla ni del orden en
+ * que se exploren las ramas. {@link BusquedaParalela} se apoya en ello.
+ *
+ * <p>Las hojas las valora un {@link Evaluador}, por defecto {@link Evaluador#LINEAS}.
+ * Con otro evaluador, a una jugada del horizonte todos los hijos son hojas, así
+ * que se valoran en un solo lote con {@link Evaluador#evaluarHijos} en lugar de
+ * bajar a cada uno.
+ */
+public class BusquedaAlfaBeta implements Motor {
+    public static final int VICTORIA = 1_000_000_000;
+    static final int INFINITO = VICTORIA + 1;
+    // Por encima de este valor el resultado es una victoria forzada a cierta distancia
+    private static final int UMBRAL_VICTORIA = VICTORIA - 1000;
+    // Cada cuántos nodos se consulta el reloj
+    static final int MASCARA_RELOJ = 1023;
+    // La profundidad se guarda en 8 bits en la tabla de transposición
+    private static final int PROFUNDIDAD_TOPE = 255;
+    // Cuántas veces más cuesta, más o menos, cada iteración que la anterior
+    static final int CRECIMIENTO_ITERACION = 10;
+    
+    protected final TablaTransposicion tabla;
+    protected Evaluador evaluador = Evaluador.LINEAS;
+    private long tiempoMaximo;
+    private int profundidadMaxima = Integer.MAX_VALUE;
+    
+    protected long nodos;
+    protected long evaluaciones;
+    protected long limite;
+    protected volatile boolean abortada;
+    private int ultimoValor;
+    private int profundidadAlcanzada;
+    // Buffers del lote de hijos a una jugada del horizonte
+    private int[] hijos = new int[0];
+    private int[] valoresHijos = new int[0];
+    
+    public BusquedaAlfaBeta(int bitsTabla) {
+        this.tabla = new TablaTransposicion(bitsTabla);
+    }
+    
+    /**
+     * Tiempo máximo por movimiento en milisegundos; 0 significa sin límite.
+     */
+    public void setTiempoMaximo(long milisegundos) {
+        this.tiempoMaximo = milisegundos;
+    }
+    
+    public long getTiempoMaximo() {
+        return tiempoMaximo;
+    }
+    
+    public void setProfundidadMaxima(int profundidad) {
+        this.profundidadMaxima = profundidad;
+    }
+    
+    public int getProfundidadMaxima() {
+        return profundidadMaxima;
+    }
+    
+    /**
+     * Cambiar de evaluador vacía la tabla: sus valores son los del anterior.
+     */
+    public void setEvaluador(Evaluador evaluador) {
+        if (evaluador == this.evaluador) return;
+        this.evaluador = evaluador;
+        limpiarTabla();
+    }
+    
+    public Evaluador getEvaluador() {
+        return evaluador;
+    }
+    
+    /**
+     * Mejor movimiento para {@code jugador}, o -1 si la posición es final. La
+     * búsqueda trabaja sobre una copia, el tablero recibido no se modifica.
+     */
+    @Override
+    public int mejorMovimiento(Tablero posicion, int jugador) {
+        nodos = 0;
+        evaluaciones = 0;
+        // Un hilo ya interrumpido no llega a buscar
+        abortada = Thread.currentThread().isInterrupted();
+        profundidadAlcanzada = 0;
+        ultimoValor = 0;
+        limite = tiempoMaximo > 0 ? System.nanoTime() + tiempoMaximo * 1_000_000L : 0;
+        if (posicion.resultado() != 0) return -1;
+        
+        Tablero tablero = posicion.copia();
+        int restantes = tablero.getCasillas() - tablero.getOcupadas();
+        int maxima = Math.min(Math.min(profundidadMaxima, restantes), PROFUNDIDAD_TOPE);
+        int mejor = -1;
+        for (int profundidad = 1; profundidad <= maxima; profundidad++) {
+            int[] resultado = buscarRaiz(tablero, jugador, profundidad, mejor);
+            if (resultado[0] >= 0) {
+                mejor = resultado[0];
+                ultimoValor = resultado[1];
+            }
+            if (abortada) break;
+            profundidadAlcanzada = profundidad;
+            if (Math.abs(ultimoValor) > UMBRAL_VICTORIA) break;
+        }
+        if (mejor < 0) {
+            // Sin ninguna iteración completa: la primera casilla legal
+            for (int pos : tablero.getGeometria().getOrden()) {
+                if (tablero.estaLibre(pos) && tablero.esCandidata(pos)) return pos;
+            }
+        }
+        return mejor;
+    }
+    
+    /**
+     * Valor para {@code jugador} de cada jugada de {@code casillas[0..num)}, mirando
+     * {@code profundidad} jugadas contando la propia: lo que necesita quien no se
+     * queda siempre con la mejor. Las que quedan por debajo de
+     * {@code cota.applyAsInt(mejor)}, siendo {@code mejor} el mejor valor hasta
+     * entonces, solo se buscan hasta saber que no la alcanzan; su valor queda por
+     * debajo de la cota y por debajo del de la mejor, pero no es exacto. El resto
+     * son exactos. Profundiza de una en una jugada como {@link #mejorMovimiento},
+     * empezando cada vez por la mejor de la anterior.
+     *
+     * <p>En lugar de tiempo máximo hay un presupuesto de nodos: no se empieza otra
+     * iteración si, al coste de la anterior multiplicado por
+     * {@value #CRECIMIENTO_ITERACION}, se pasaría de {@code nodosMaximos} (0 sin
+     * límite). Así el resultado depende solo de la posición y los parámetros. Falso
+     * si se canceló antes de terminar; entonces los valores no sirven.
+     */
+    public boolean valorarJugadas(Tablero posicion, int jugador, int profundidad, int[] casillas, int num,
+                                  int[] valores, IntUnaryOperator cota, long nodosMaximos) {
+        nodos = 0;
+        evaluaciones = 0;
+        abortada = Thread.currentThread().isInterrupted();
+        limite = 0;
+        profundidadAlcanzada = 0;
+        Tablero tablero = posicion.copia();
+        int rival = Controller.HUMANO + Controller.IA - jugador;
+        int maxima = Math.min(Math.min(profundidad, tablero.getLibres()), PROFUNDIDAD_TOPE);
+        int primera = 0;
+        for (int p = 1; p <= maxima; p++) {
+            int mejor = -INFINITO;
+            int mejorIndice = primera;
+            for (int k = -1; k < num; k++) {
+                int i = k < 0 ? primera : k;
+                if (k == primera) continue;
+                int alfa = mejor == -INFINITO ? -INFINITO : Math.min(cota.applyAsInt(mejor), mejor);
+                tablero.mover(casillas[i], jugador);
+                int valor = -negamax(tablero, rival, p - 1, -INFINITO, -alfa, 1);
+                tablero.deshacer(casillas[i]);
+                if (abortada) return false;
+                // Solo es una cota superior: que no empate con la mejor
+                if (valor <= alfa && valor > -UMBRAL_VICTORIA) valor--;
+                valores[i] = valor;
+                if (valor > mejor) {
+                    mejor = valor;
+                    mejorIndice = i;
+                }
+            }
+            primera = mejorIndice;
+            profundidadAlcanzada = p;
+            if (Math.abs(mejor) > UMBRAL_VICTORIA) break;
+            if (nodosMaximos > 0 && nodos * CRECIMIENTO_ITERACION > nodosMaximos) break;
+        }
+        return true;
+    }
+    
+    /**
+     * Devuelve {mejor movimiento, valor}: el primero, en el orden de la raíz, de los
+     * que alcanzan el valor máximo. Si la iteración se aborta, solo cuentan los
+     * movimientos cuya búsqueda terminó; el primero es siempre el mejor de la
+     * iteración anterior.
+     */
+    protected int[] buscarRaiz(Tablero tablero, int jugador, int profundidad, int anterior) {
+        int rivalJugador = Controller.HUMANO + Controller.IA - jugador;
+        int[] orden = tablero.getGeometria().getOrden();
+        
+        int alfa = -INFINITO;
+        int mejorMovimiento = -1;
+        for (int i = -1; i < orden.length; i++) {
+            int pos = i < 0 ? anterior : orden[i];
+            if (!esLegal(tablero, pos) || (i >= 0 && pos == anterior)) continue;
+            
+            tablero.mover(pos, jugador);
+            int valor = -negamax(tablero, rivalJugador, profundidad - 1, -INFINITO, -alfa, 1);
+            tablero.deshacer(pos);
+            if (abortada) break;
+            if (valor > alfa) {
+                alfa = valor;
+                mejorMovimiento = pos;
+            }
+        }
+        if (!abortada && mejorMovimiento >= 0) {
+            tabla.guardar(hashNodo(tablero, jugador), alfa, profundidad, TablaTransposicion.EXACTO, mejorMovimiento);
+        }
+        return new int[] {mejorMovimiento, alfa};
+    }
+    
+    private int negamax(Tablero tablero, int jugador, int profundidad, int alfa, int beta, int ply) {
+        nodos++;
+        if ((nodos & MASCARA_RELOJ) == 0 && limite != 0 && System.nanoTime() > limite) {
+            abortada = true;
+        }
+        if (abortada) return 0;
+        // Si hay ganador, lo ha hecho el rival con la jugada anterior
+        if (tablero.getGanador() != 0) return -VICTORIA + ply;
+        if (tablero.getOcupadas() == tablero.getCasillas()) return 0;
+        if (profundidad == 0) {
+            evaluaciones++;
+            return evaluador.evaluar(tablero, jugador);
+        }
+        
+        long hash = hashNodo(tablero, jugador);
+        int alfaOriginal = alfa;
+        int movimientoTabla = -1;
+        long entrada = tabla.buscar(hash);
+        if (entrada != 0) {
+            movimientoTabla = TablaTransposicion.movimiento(entrada);
+            if (TablaTransposicion.profundidad(entrada) == profundidad) {
+                int valor = desdeTabla(TablaTransposicion.valor(entrada), ply);
+                int tipo = TablaTransposicion.tipo(entrada);
+                if (tipo == TablaTransposicion.EXACTO) return valor;
+                if (tipo == TablaTransposicion.INFERIOR && valor > alfa) alfa = valor;
+                else if (tipo == TablaTransposicion.SUPERIOR && valor < beta) beta = valor;
+                if (alfa >= beta) return valor;
+            }
+        }
+        // La heurística de líneas es tan barata que compensa más podar hoja a hoja
+        if (profundidad == 1 && evaluador != Evaluador.LINEAS) {
+            return negamaxFrontera(tablero, jugador, movimientoTabla, hash, ply);
+        }
+        
+        int rivalJugador = Controller.HUMANO + Controller.IA - jugador;
+        int[] orden = tablero.getGeometria().getOrden();
+        int mejorValor = -INFINITO;
+        int mejorMovimiento = -1;
+        for (int i = -1; i < orden.length; i++) {
+            int pos = i < 0 ? movimientoTabla : orden[i];
+            if (!esLegal(tablero, pos) || (i >= 0 && pos == movimientoTabla)) continue;
+            
+            tablero.mover(pos, jugador);
+            int valor = -negamax(tablero, rivalJugador, profundidad - 1, -beta, -alfa, ply + 1);
+            tablero.deshacer(pos);
+            if (abortada) return 0;
+            if (valor > mejorValor) {
+                mejorValor = valor;
+                mejorMovimiento = pos;
+                if (valor > alfa) alfa = valor;
+                if (alfa >= beta) break;
+            }
+        }
+        
+        int tipo = mejorValor <= alfaOriginal ? TablaTransposicion.SUPERIOR
+                 : mejorValor >= beta ? TablaTransposicion.INFERIOR
+                 : TablaTransposicion.EXACTO;
+        tabla.guardar(hash, haciaTabla(mejorValor, ply), profundidad, tipo, mejorMovimiento);
+        return mejorValor;
+    }
+    
+    /**
+     * Nodo a una jugada del horizonte: sus hijos son hojas, así que se valoran
+     * todos en un lote y el valor es exacto. Da el mismo valor que bajar a cada
+     * hijo, y entre empatados elige el mismo movimiento.
+     */
+    private int negamaxFrontera(Tablero tablero, int jugador, int movimientoTabla, long hash, int ply) {
+        int mejorValor = -INFINITO;
+        int mejorMovimiento = tablero.casillaGanadora(jugador);
+        if (mejorMovimiento >= 0) {
+            nodos++;
+            mejorValor = VICTORIA - ply - 1;
+        } else {
+            if (hijos.length < tablero.getCasillas()) {
+                hijos = new int[tablero.getCasillas()];
+                valoresHijos = new int[tablero.getCasillas()];
+            }
+            int num = 0;
+            if (esLegal(tablero, movimientoTabla)) hijos[num++] = movimientoTabla;
+            for (int pos : tablero.getGeometria().getOrden()) {
+                if (pos != movimientoTabla && esLegal(tablero, pos)) hijos[num++] = pos;
+            }
+            nodos += num;
+            if (tablero.getOcupadas() + 1 == tablero.getCasillas()) {
+                // Solo queda una casilla y no gana: tablas
+                valoresHijos[0] = 0;
+            } else {
+                evaluador.evaluarHijos(tablero, jugador, hijos, num, valoresHijos);
+                evaluaciones += num;
+            }
+            for (int i = 0; i < num; i++) {
+                if (valoresHijos[i] > mejorValor) {
+                    mejorValor = valoresHijos[i];
+                    mejorMovimiento = hijos[i];
+                }
+            }
+        }
+        tabla.guardar(hash, haciaTabla(mejorValor, ply), 1, TablaTransposicion.EXACTO, mejorMovimiento);
+        return mejorValor;
+    }
+    
+    static boolean esLegal(Tablero tablero, int pos) {
+        return pos >= 0 && pos < tablero.getCasillas()
+            && tablero.estaLibre(pos) && tablero.esCandidata(pos);
+    }
+    
+    static long hashNodo(Tablero tablero, int jugador) {
+        return tablero.getClave(jugador);
+    }
+    
+    // Las victorias se guardan relativas al nodo para que la entrada sirva a cualquier ply
+    static int haciaTabla(int valor, int ply) {
+        if (valor > UMBRAL_VICTORIA) return valor + ply;
+        if (valor < -UMBRAL_VICTORIA) return valor - ply;
+        return valor;
+    }
+    
+    static int desdeTabla(int valor, int ply) {
+        if (valor > UMBRAL_VICTORIA) return valor - ply;
+        if (valor < -UMBRAL_VICTORIA) return valor + ply;
+        return valor;
+    }
+    
+    @Override
+    public void cancelar() {
+        abortada = true;
+    }
+    
+    public void limpiarTabla() {
+        tabla.limpiar();
+    }
+    
+    @Override
+    public long getNodos() {
+        return nodos;
+    }
+    
+    @Override
+    public OrigenJugada getOrigen() {
+        return OrigenJugada.BUSQUEDA;
+    }
+    
+    public int getUltimoValor() {
+        return ultimoValor;
+    }
+    
+    /**
+     * Jugadas hasta el final forzado que indica un valor de la búsqueda: positivo
+     * si gana quien mueve, negativo si pierde y 0 si el valor no es un final.
+     */
+    public static int jugadasHastaFinal(int valor) {
+        if (valor > UMBRAL_VICTORIA) return VICTORIA - valor;
+        if (valor < -UMBRAL_VICTORIA) return -(VICTORIA + valor);
+        return 0;
+    }
+    
+    /**
+     * Última profundidad completada por la profundización iterativa.
+     */
+    @Override
+    public int getProfundidadAlcanzada() {
+        return profundidadAlcanzada;
+    }
+    
+    /**
+     * Posiciones valoradas por el evaluador en la última llamada.
+     */
+    @Override
+    public long getEvaluaciones() {
+        return evaluaciones;
+    }
+    
+    public TablaTransposicion getTabla() {
+        return tabla;
+    }
+}
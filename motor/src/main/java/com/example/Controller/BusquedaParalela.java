@@ -0,0 +1,285 @@
+package com.example.Controller;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Versión paralela de {@link BusquedaAlfaBeta} sobre un {@link ForkJoinPool}.
+ *
+ * <p>En la raíz se busca primero el mejor movimiento de la iteración anterior y
+ * después el resto en paralelo, todos contra un alfa compartido que sube en cuanto
+ * un trabajador encuentra algo mejor. En los nodos interiores con suficiente
+ * profundidad restante se hace lo mismo (el primer hijo en secuencia y los
+ * hermanos repartidos). Todos los trabajadores comparten la tabla de transposición.
+ *
+ * <p>Sin tiempo máximo, el movimiento y el valor devueltos son los mismos que los
+ * de la búsqueda secuencial: el valor no depende del orden de exploración y, entre
+ * movimientos empatados, se comprueba cuál es el primero en el orden de la raíz.
+ *
+ * <p>Las hojas se valoran de una en una con {@link Evaluador#evaluar}, que admite
+ * varios hilos; el lote de {@link Evaluador#evaluarHijos} no.
+ */
+public class BusquedaParalela extends BusquedaAlfaBeta {
+    // Solo se reparte un nodo interior si le quedan al menos estas jugadas por buscar
+    private static final int PROFUNDIDAD_DIVISION = 4;
+    
+    private final ForkJoinPool pool;
+    
+    public BusquedaParalela(int bitsTabla, int paralelismo) {
+        super(bitsTabla);
+        this.pool = new ForkJoinPool(paralelismo);
+    }
+    
+    public int getParalelismo() {
+        return pool.getParallelism();
+    }
+    
+    public void cerrar() {
+        pool.shutdownNow();
+    }
+    
+    @Override
+    protected int[] buscarRaiz(Tablero tablero, int jugador, int profundidad, int anterior) {
+        int[] movimientos = movimientosOrdenados(tablero, anterior, -1);
+        if (movimientos.length == 0) return new int[] {-1, -INFINITO};
+        
+        Division raiz = new Division(-INFINITO);
+        Hijo primero = new Hijo(tablero, movimientos[0], jugador, profundidad - 1, INFINITO, 1, raiz);
+        pool.invoke(primero);
+        nodos += primero.nodos;
+        evaluaciones += primero.evaluaciones;
+        if (abortada) return new int[] {-1, -INFINITO};
+        
+        List<Hijo> resto = new ArrayList<>();
+        for (int i = 1; i < movimientos.length; i++) {
+            resto.add(new Hijo(tablero, movimientos[i], jugador, profundidad - 1, INFINITO, 1, raiz));
+        }
+        pool.invoke(new Todos(resto));
+        
+        int mejorValor = primero.valor;
+        for (Hijo hijo : resto) {
+            nodos += hijo.nodos;
+            evaluaciones += hijo.evaluaciones;
+            if (hijo.terminado && hijo.esExacto() && hijo.valor > mejorValor) mejorValor = hijo.valor;
+        }
+        if (abortada) {
+            return new int[] {primeroConValor(primero, resto, mejorValor, false), mejorValor};
+        }
+        int mejorMovimiento = primeroConValor(primero, resto, mejorValor, true);
+        tabla.guardar(hashNodo(tablero, jugador), mejorValor, profundidad, TablaTransposicion.EXACTO, mejorMovimiento);
+        return new int[] {mejorMovimiento, mejorValor};
+    }
+    
+    /**
+     * Primer movimiento, en el orden de la raíz, cuyo valor es {@code valor}. Un hijo
+     * que falló por debajo de ese mismo alfa podría empatar, así que se comprueba
+     * con una ventana nula antes de descartarlo.
+     */
+    private int primeroConValor(Hijo primero, List<Hijo> resto, int valor, boolean comprobarEmpates) {
+        if (primero.valor == valor) return primero.movimiento;
+        for (Hijo hijo : resto) {
+            if (!hijo.terminado) continue;
+            if (hijo.esExacto()) {
+                if (hijo.valor == valor) return hijo.movimiento;
+            } else if (comprobarEmpates && hijo.alfaUsado >= valor) {
+                Hijo prueba = new Hijo(hijo.tablero, -1, hijo.jugador, hijo.profundidad, valor, hijo.ply,
+                                       new Division(valor - 1));
+                pool.invoke(prueba);
+                nodos += prueba.nodos;
+                evaluaciones += prueba.evaluaciones;
+                if (prueba.terminado && prueba.valor >= valor) return hijo.movimiento;
+            }
+        }
+        return primero.movimiento;
+    }
+    
+    private static int[] movimientosOrdenados(Tablero tablero, int primero, int excluido) {
+        int[] orden = tablero.getGeometria().getOrden();
+        int[] movimientos = new int[orden.length];
+        int n = 0;
+        if (esLegal(tablero, primero) && primero != excluido) movimientos[n++] = primero;
+        for (int pos : orden) {
+            if (pos != primero && pos != excluido && esLegal(tablero, pos)) movimientos[n++] = pos;
+        }
+        return Arrays.copyOf(movimientos, n);
+    }
+    
+    /**
+     * Estado compartido entre los hermanos repartidos de un mismo nodo.
+     */
+    private static final class Division {
+        final AtomicInteger alfa;
+        volatile boolean cortada;
+        
+        Division(int alfa) {
+            this.alfa = new AtomicInteger(alfa);
+        }
+        
+        void subirAlfa(int valor) {
+            int actual = alfa.get();
+            while (valor > actual && !alfa.compareAndSet(actual, valor)) {
+                actual = alfa.get();
+            }
+        }
+    }
+    
+    private static final class Todos extends RecursiveTask<Void> {
+        private final List<Hijo> hijos;
+        
+        Todos(List<Hijo> hijos) {
+            this.hijos = hijos;
+        }
+        
+        @Override
+        protected Void compute() {
+            invokeAll(hijos);
+            return null;
+        }
+    }
+    
+    /**
+     * Búsqueda de un hijo desde el punto de vista del padre, sobre su propia copia
+     * del tablero y con sus propios contadores de nodos y evaluaciones.
+     */
+    private final class Hijo extends RecursiveTask<Void> {
+        final Tablero tablero;
+        final int movimiento;
+        final int jugador;
+        final int profundidad;
+        final int beta;
+        final int ply;
+        final Division division;
+        
+        long nodos;
+        long evaluaciones;
+        int valor = -INFINITO;
+        int alfaUsado;
+        boolean terminado;
+        
+        /**
+         * Si {@code movimiento} es -1 el tablero ya tiene la jugada hecha y se usa tal cual.
+         */
+        Hijo(Tablero padre, int movimiento, int jugadorPadre, int profundidad, int beta, int ply, Division division) {
+            this.tablero = movimiento < 0 ? padre : padre.copia();
+            if (movimiento >= 0) tablero.mover(movimiento, jugadorPadre);
+            this.movimiento = movimiento;
+            this.jugador = movimiento < 0 ? jugadorPadre : Controller.HUMANO + Controller.IA - jugadorPadre;
+            this.profundidad = profundidad;
+            this.beta = beta;
+            this.ply = ply;
+            this.division = division;
+        }
+        
+        boolean esExacto() {
+            return valor > alfaUsado;
+        }
+        
+        @Override
+        protected Void compute() {
+            if (division.cortada) return null;
+            alfaUsado = division.alfa.get();
+            int resultado = -negamax(tablero, jugador, profundidad, -beta, -alfaUsado, ply);
+            if (abortada) return null;
+            valor = resultado;
+            terminado = true;
+            division.subirAlfa(valor);
+            if (valor >= beta) division.cortada = true;
+            return null;
+        }
+        
+        private int negamax(Tablero tablero, int jugador, int profundidad, int alfa, int beta, int ply) {
+            nodos++;
+            if ((nodos & MASCARA_RELOJ) == 0 && limite != 0 && System.nanoTime() > limite) {
+                abortada = true;
+            }
+            if (abortada) return 0;
+            if (tablero.getGanador() != 0) return -VICTORIA + ply;
+            if (tablero.getOcupadas() == tablero.getCasillas()) return 0;
+            if (profundidad == 0) {
+                evaluaciones++;
+                return evaluador.evaluar(tablero, jugador);
+            }
+            
+            long hash = hashNodo(tablero, jugador);
+            int alfaOriginal = alfa;
+            int movimientoTabla = -1;
+            long entrada = tabla.buscar(hash);
+            if (entrada != 0) {
+                movimientoTabla = TablaTransposicion.movimiento(entrada);
+                if (TablaTransposicion.profundidad(entrada) == profundidad) {
+                    int valor = desdeTabla(TablaTransposicion.valor(entrada), ply);
+                    int tipo = TablaTransposicion.tipo(entrada);
+                    if (tipo == TablaTransposicion.EXACTO) return valor;
+                    if (tipo == TablaTransposicion.INFERIOR && valor > alfa) alfa = valor;
+                    else if (tipo == TablaTransposicion.SUPERIOR && valor < beta) beta = valor;
+                    if (alfa >= beta) return valor;
+                }
+            }
+            
+            int rivalJugador = Controller.HUMANO + Controller.IA - jugador;
+            int[] orden = tablero.getGeometria().getOrden();
+            int mejorValor = -INFINITO;
+            int mejorMovimiento = -1;
+            for (int i = -1; i < orden.length; i++) {
+                int pos = i < 0 ? movimientoTabla : orden[i];
+                if (!esLegal(tablero, pos) || (i >= 0 && pos == movimientoTabla)) continue;
+                
+                tablero.mover(pos, jugador);
+                int valor = -negamax(tablero, rivalJugador, profundidad - 1, -beta, -alfa, ply + 1);
+                tablero.deshacer(pos);
+                if (abortada) return 0;
+                if (valor > mejorValor) {
+                    mejorValor = valor;
+                    mejorMovimiento = pos;
+                    if (valor > alfa) alfa = valor;
+                    if (alfa >= beta) break;
+                }
+                // Con el primer hijo ya buscado, el resto de hermanos se reparten
+                if (profundidad >= PROFUNDIDAD_DIVISION) {
+                    int[] hermanos = movimientosOrdenados(tablero, movimientoTabla, pos);
+                    int[] repartido = repartir(tablero, jugador, profundidad, alfa, beta, ply, hermanos);
+                    if (abortada) return 0;
+                    if (repartido[0] > mejorValor) {
+                        mejorValor = repartido[0];
+                        mejorMovimiento = repartido[1];
+                    }
+                    break;
+                }
+            }
+            
+            int tipo = mejorValor <= alfaOriginal ? TablaTransposicion.SUPERIOR
+                     : mejorValor >= beta ? TablaTransposicion.INFERIOR
+                     : TablaTransposicion.EXACTO;
+            tabla.guardar(hash, haciaTabla(mejorValor, ply), profundidad, tipo, mejorMovimiento);
+            return mejorValor;
+        }
+        
+        /**
+         * Busca en paralelo los hermanos indicados. Devuelve {mejor valor, su movimiento}.
+         */
+        private int[] repartir(Tablero tablero, int jugador, int profundidad, int alfa, int beta, int ply,
+                               int[] hermanos) {
+            Division division = new Division(alfa);
+            List<Hijo> tareas = new ArrayList<>(hermanos.length);
+            for (int pos : hermanos) {
+                tareas.add(new Hijo(tablero, pos, jugador, profundidad - 1, beta, ply + 1, division));
+            }
+            invokeAll(tareas);
+            int mejorValor = -INFINITO;
+            int mejorMovimiento = -1;
+            for (Hijo tarea : tareas) {
+                nodos += tarea.nodos;
+                evaluaciones += tarea.evaluaciones;
+                if (tarea.terminado && tarea.valor > mejorValor) {
+                    mejorValor = tarea.valor;
+                    mejorMovimiento = tarea.movimiento;
+                }
+            }
+            return new int[] {mejorValor, mejorMovimiento};
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.Controller;
+
+public class Controller {
+    protected final Tablero tablero;
+    public static final int HUMANO = 1;
+    public static final int IA = 2;
+    
+    // Jugadas en orden con su autor; las que quedan a partir de numJugadas se pueden rehacer
+    private final int[] jugadas;
+    private final int[] autores;
+    private int numJugadas;
+    private int maxJugadas;
+    
+    public Controller() {
+        this(3, 3);
+    }
+    
+    /**
+     * Partida en un tablero de {@code lado}×{@code lado} donde gana quien alinea
+     * {@code enLinea} fichas.
+     */
+    public Controller(int lado, int enLinea) {
+        tablero = new Tablero(Geometria.de(lado, enLinea));
+        jugadas = new int[tablero.getCasillas()];
+        autores = new int[tablero.getCasillas()];
+    }
+    
+    public void reiniciarJuego() {
+        tablero.reiniciar();
+        numJugadas = 0;
+        maxJugadas = 0;
+    }
+    
+    public boolean hacerMovimientoHumano(int posicion) {
+        return mover(HUMANO, posicion);
+    }
+    
+    public boolean hacerMovimientoIA(int posicion) {
+        return mover(IA, posicion);
+    }
+    
+    private boolean mover(int jugador, int posicion) {
+        if (posicion < 0 || posicion >= tablero.getCasillas() || !tablero.estaLibre(posicion)) {
+            return false;
+        }
+        tablero.mover(posicion, jugador);
+        jugadas[numJugadas] = posicion;
+        autores[numJugadas] = jugador;
+        numJugadas++;
+        // Una jugada nueva descarta lo que se podía rehacer
+        maxJugadas = numJugadas;
+        return true;
+    }
+    
+    /**
+     * Retira la ficha de la casilla indicada, sea del jugador que sea. Si es la
+     * última jugada equivale a {@link #deshacer()}.
+     */
+    public void deshacerMovimiento(int posicion) {
+        if (numJugadas > 0 && jugadas[numJugadas - 1] == posicion) {
+            deshacer();
+            return;
+        }
+        tablero.deshacer(posicion);
+        for (int i = numJugadas - 2; i >= 0; i--) {
+            if (jugadas[i] == posicion) {
+                System.arraycopy(jugadas, i + 1, jugadas, i, numJugadas - i - 1);
+                System.arraycopy(autores, i + 1, autores, i, numJugadas - i - 1);
+                numJugadas--;
+                maxJugadas = numJugadas;
+                break;
+            }
+        }
+    }
+    
+    /**
+     * Deshace la última jugada, que queda para {@link #rehacer()}; falso si no hay ninguna.
+     */
+    public boolean deshacer() {
+        if (numJugadas == 0) return false;
+        numJugadas--;
+        tablero.deshacer(jugadas[numJugadas]);
+        return true;
+    }
+    
+    /**
+     * Vuelve a hacer la última jugada deshecha; falso si no hay ninguna.
+     */
+    public boolean rehacer() {
+        if (numJugadas == maxJugadas) return false;
+        tablero.mover(jugadas[numJugadas], autores[numJugadas]);
+        numJugadas++;
+        return true;
+    }
+    
+    /**
+     * Casilla de la última jugada, o -1 si no hay ninguna.
+     */
+    public int getUltimaJugada() {
+        return numJugadas == 0 ? -1 : jugadas[numJugadas - 1];
+    }
+    
+    /**
+     * Jugador que hizo la última jugada, o 0 si no hay ninguna.
+     */
+    public int getUltimoJugador() {
+        return numJugadas == 0 ? 0 : autores[numJugadas - 1];
+    }
+    
+    /**
+     * Jugador de la jugada que haría {@link #rehacer()}, o 0 si no hay ninguna.
+     */
+    public int getJugadorRehacer() {
+        return numJugadas == maxJugadas ? 0 : autores[numJugadas];
+    }
+    
+    public int getNumJugadas() {
+        return numJugadas;
+    }
+    
+    /**
+     * Casilla de la jugada {@code i}, contando desde 0.
+     */
+    public int getJugada(int i) {
+        return jugadas[i];
+    }
+    
+    /**
+     * Copia las jugadas hechas, en orden, al principio de {@code destino}.
+     */
+    public void copiarJugadas(int[] destino) {
+        System.arraycopy(jugadas, 0, destino, 0, numJugadas);
+    }
+    
+    public int verificarGanador() {
+        return tablero.resultado();
+    }
+    
+    public boolean esFinal() {
+        return verificarGanador() != 0;
+    }
+    
+    public boolean estaLibre(int posicion) {
+        return tablero.estaLibre(posicion);
+    }
+    
+    public int getCasilla(int posicion) {
+        return tablero.getCasilla(posicion);
+    }
+    
+    public int getMascara(int jugador) {
+        return tablero.getMascara(jugador);
+    }
+    
+    /**
+     * Estado vivo de la partida. Los motores deben trabajar sobre {@link Tablero#copia()}.
+     */
+    public Tablero getPosicion() {
+        return tablero;
+    }
+    
+    public int getLado() {
+        return tablero.getGeometria().getLado();
+    }
+    
+    public int getEnLinea() {
+        return tablero.getGeometria().getEnLinea();
+    }
+    
+    public int[] getTablero() {
+        int[] copia = new int[tablero.getCasillas()];
+        tablero.copiarCeldas(copia);
+        return copia;
+    }
+}
@@ -0,0 +1,576 @@
+package com.example.Controller;
+
+import com.example.Aprendizaje.EntrenadorQ;
+import com.example.Aprendizaje.MotorAprendiz;
+import com.example.Libro.LibroAperturas;
+import com.example.Libro.MotorLibro;
+import com.example.Metricas.EventoMovimientoIA;
+import com.example.Metricas.MetricasMotor;
+import com.example.Montecarlo.MotorMontecarlo;
+import com.example.Registro.EscritorRegistro;
+import com.example.Registro.PartidaRegistrada;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ControllerDecorator {
+    // Modo que juega, con su índice en las métricas, su nombre en JFR y su código
+    // en el registro de partidas
+    private enum Modo {
+        FACIL(MetricasMotor.FACIL, "facil", PartidaRegistrada.MODO_FACIL),
+        DIFICIL(MetricasMotor.DIFICIL, "dificil", PartidaRegistrada.MODO_DIFICIL),
+        APRENDIZ(MetricasMotor.APRENDIZ, "aprendiz", PartidaRegistrada.MODO_APRENDIZ),
+        MONTECARLO(MetricasMotor.MONTECARLO, "montecarlo", PartidaRegistrada.MODO_MONTECARLO),
+        NIVEL(MetricasMotor.NIVEL, "nivel", PartidaRegistrada.MODO_NIVEL);
+        
+        final int metrica;
+        final String nombre;
+        final int registro;
+        
+        Modo(int metrica, String nombre, int registro) {
+            this.metrica = metrica;
+            this.nombre = nombre;
+            this.registro = registro;
+        }
+    }
+     
+     private Controller controller;
+    private boolean modoFacil = false;
+    private boolean modoAprendiz = false;
+    private boolean modoMontecarlo = false;
+    // Semilla de los motores con azar, para poder repetir una partida
+    private long semilla = new SplittableRandom().nextLong();
+    private MotorFacil motorFacil = new MotorFacil(new SplittableRandom(semilla));
+    private MotorNivel motorNivel;
+    private MotorDificil motorDificil = new MotorDificil();
+    private MotorAprendiz motorAprendiz;
+    private MotorLibro motorLibro;
+    private MotorMontecarlo motorMontecarlo;
+    private long tiempoMaximo = 1000;
+    private int hilos = 1;
+    // Se crea al activar la anticipación y se queda para esperar a su hilo
+    private Anticipador anticipador;
+    private boolean anticipacion;
+    // La última jugada calculada salió de la anticipación
+    private boolean anticipada;
+    // Lo tiene calcularMovimientoIA mientras usa un motor, que puede ser el de la
+    // anticipación: esta no empieza hasta que se suelta
+    private final ReentrantLock calculo = new ReentrantLock();
+    private long nodosVisitados;
+    private long evaluaciones;
+    private EscritorRegistro registro;
+    // La partida en curso ya se mandó al registro
+    private boolean registrada;
+    
+    public ControllerDecorator(Controller controller) {
+        this.controller = controller;
+        if (MotorDificil.esClasico(controller.getPosicion())) {
+            TablaPerfecta.getInstancia(); // se resuelve al arrancar, no en la primera jugada
+        }
+    }
+    
+    public void setModoFacil(boolean activado) {
+        cambiarMotores(() -> {
+            this.modoFacil = activado;
+        });
+    }
+    
+    /**
+     * Juega con la fuerza de un nivel de {@link NivelDificultad#MINIMO} a
+     * {@link NivelDificultad#MAXIMO}, en lugar del modo fácil o el difícil; 0 vuelve
+     * a ellos. Los modos aprendiz y Monte Carlo tienen prioridad.
+     */
+    public void setNivel(int nivel) {
+        cambiarMotores(() -> {
+            motorNivel = nivel == 0 ? null : new MotorNivel(NivelDificultad.de(nivel), new SplittableRandom(semilla));
+        });
+    }
+    
+    /**
+     * Nivel de dificultad activo, o 0 si no hay.
+     */
+    public int getNivel() {
+        return motorNivel == null ? 0 : motorNivel.getNivel().getNivel();
+    }
+    
+    /**
+     * Vuelve a sembrar los motores con azar (el fácil, el de niveles y el de Monte
+     * Carlo). Con la misma semilla y las mismas jugadas del humano, la IA repite
+     * exactamente sus jugadas, también con la anticipación activada, que en estos
+     * modos no piensa nada; en Monte Carlo, con un solo hilo y las iteraciones
+     * como único límite.
+     */
+    public void setSemilla(long semilla) {
+        cambiarMotores(() -> {
+            this.semilla = semilla;
+            motorFacil = new MotorFacil(new SplittableRandom(semilla));
+            if (motorNivel != null) motorNivel = new MotorNivel(motorNivel.getNivel(), new SplittableRandom(semilla));
+            if (motorMontecarlo != null) {
+                int iteraciones = motorMontecarlo.getIteraciones();
+                motorMontecarlo.cerrar();
+                motorMontecarlo = null;
+                motorMontecarlo().setIteraciones(iteraciones);
+            }
+        });
+    }
+    
+    public long getSemilla() {
+        return semilla;
+    }
+    
+    /**
+     * Tercer modo, solo en el 3x3: juega la política aprendida por autojuego. La
+     * primera vez que se activa se entrena la tabla (alrededor de un segundo).
+     * Tiene prioridad sobre el modo fácil.
+     */
+    public void setModoAprendiz(boolean activado) {
+        cambiarMotores(() -> {
+            if (activado && motorAprendiz == null) {
+                if (!MotorDificil.esClasico(controller.getPosicion())) {
+                    throw new IllegalStateException("El modo aprendiz solo está disponible en el 3x3");
+                }
+                motorAprendiz = new MotorAprendiz(EntrenadorQ.tablaPorDefecto());
+            }
+            this.modoAprendiz = activado;
+        });
+    }
+    
+    /**
+     * Alternativa al modo difícil para tableros donde alfa-beta no ve el final:
+     * búsqueda Monte Carlo con el mismo tiempo máximo por jugada. Con pocas
+     * iteraciones es un rival que se puede batir pero no regala partidas como el
+     * modo fácil. Tiene prioridad sobre el modo fácil.
+     */
+    public void setModoMontecarlo(boolean activado) {
+        cambiarMotores(() -> {
+            if (activado) motorMontecarlo();
+            this.modoMontecarlo = activado;
+        });
+    }
+    
+    /**
+     * Simulaciones por jugada en modo Monte Carlo (0 sin límite, entonces solo
+     * cuenta el tiempo máximo).
+     */
+    public void setIteracionesMontecarlo(int iteraciones) {
+        cambiarMotores(() -> {
+            motorMontecarlo().setIteraciones(iteraciones);
+        });
+    }
+    
+    // Se crea al primer uso: su árbol ocupa varios MiB
+    private MotorMontecarlo motorMontecarlo() {
+        if (motorMontecarlo == null) {
+            motorMontecarlo = new MotorMontecarlo(new SplittableRandom(semilla));
+            motorMontecarlo.setTiempoMaximo(tiempoMaximo);
+            if (hilos > 1) motorMontecarlo.setParalelismo(hilos);
+        }
+        return motorMontecarlo;
+    }
+    
+    /**
+     * En modo difícil sobre el 3x3, consultar la tabla resuelta (por defecto) o
+     * buscar con alfa-beta. El resto de variantes siempre buscan.
+     */
+    public void setUsarTablaPerfecta(boolean activado) {
+        cambiarMotores(() -> {
+            motorDificil.setUsarTablaPerfecta(activado);
+        });
+    }
+    
+    /**
+     * Cómo valora la búsqueda del modo difícil las posiciones a las que no llega
+     * el final; por defecto, {@link Evaluador#LINEAS}.
+     */
+    public void setEvaluador(Evaluador evaluador) {
+        cambiarMotores(() -> {
+            motorDificil.setEvaluador(evaluador);
+        });
+    }
+    
+    /**
+     * En modo difícil, juega desde el libro mientras la posición esté en él. El
+     * archivo se proyecta en memoria, no se carga; {@code null} deja de usarlo.
+     */
+    public void cargarLibro(Path archivo) throws IOException {
+        setLibro(archivo == null ? null : LibroAperturas.abrir(archivo));
+    }
+    
+    /**
+     * Como {@link #cargarLibro(Path)} con un libro ya abierto, que puede compartirse
+     * entre muchas partidas porque solo se lee.
+     */
+    public void setLibro(LibroAperturas libro) {
+        if (libro != null && !libro.admite(controller.getPosicion().getGeometria())) {
+            throw new IllegalArgumentException("El libro es de otra variante: " + libro.getLado() + "x"
+                + libro.getLado() + ", " + libro.getEnLinea() + " en línea");
+        }
+        cambiarMotores(() -> {
+            motorLibro = libro == null ? null : new MotorLibro(libro, motorDificil);
+        });
+    }
+    
+    /**
+     * Manda cada partida terminada al registro, y también las que se reinician a
+     * medias; {@code null} deja de registrar. Al deshacer desde el final, la
+     * partida que sigue se registra otra vez cuando termine o se reinicie. El
+     * registro nunca hace esperar.
+     */
+    public void setRegistro(EscritorRegistro registro) {
+        this.registro = registro;
+    }
+    
+    /**
+     * Tiempo máximo de búsqueda por movimiento en modo difícil y Monte Carlo, en
+     * milisegundos.
+     */
+    public void setTiempoMaximo(long milisegundos) {
+        cambiarMotores(() -> {
+            this.tiempoMaximo = milisegundos;
+            motorDificil.setTiempoMaximo(milisegundos);
+            if (motorMontecarlo != null) motorMontecarlo.setTiempoMaximo(milisegundos);
+        });
+    }
+    
+    /**
+     * Número de hilos para la búsqueda del modo difícil y la de Monte Carlo; con 1
+     * se busca en el hilo que llama. En el modo difícil el resultado es el mismo,
+     * solo cambia el tiempo que tarda.
+     */
+    public void setParalelismo(int hilos) {
+        cambiarMotores(() -> {
+            this.hilos = hilos;
+            motorDificil.setParalelismo(hilos);
+            if (motorMontecarlo != null) motorMontecarlo.setParalelismo(hilos);
+        });
+    }
+    
+    /**
+     * Mientras el humano decide, piensa en otro hilo la respuesta a cada una de
+     * sus jugadas posibles (en tableros grandes, a las vecinas de las fichas ya
+     * puestas). Si juega una ya pensada, la IA contesta al momento. Se vuelve a
+     * empezar tras cada jugada de la IA, al reiniciar, deshacer o rehacer y al
+     * cambiar de modo. Gasta un núcleo mientras el humano piensa, así que está
+     * apagada salvo que se pida. Los modos con azar (fácil, niveles y Monte Carlo)
+     * no anticipan.
+     */
+    public void setAnticipacion(boolean activada) {
+        if (activada && anticipador == null) anticipador = new Anticipador();
+        pararAnticipacion();
+        this.anticipacion = activada;
+        anticipar();
+    }
+    
+    /**
+     * Si la última jugada calculada de la IA ya estaba pensada de antemano.
+     */
+    public boolean isJugadaAnticipada() {
+        return anticipada;
+    }
+    
+    // Empieza a pensar las respuestas si le toca al humano
+    private void anticipar() {
+        if (!anticipacion) return;
+        // Con azar no se anticipa: gastaría números del generador según lo que
+        // tarde el humano y la partida dejaría de poder repetirse. Monte Carlo saca
+        // uno por búsqueda para sembrar sus simulaciones
+        Motor motor = motorDe(modoActivo());
+        if (controller.esFinal() || controller.getUltimoJugador() == Controller.HUMANO
+            || motor == motorFacil || motor == motorNivel || motor == motorMontecarlo) {
+            anticipador.detener();
+            return;
+        }
+        calculo.lock();
+        try {
+            anticipador.iniciar(controller.getPosicion(), motor);
+        } finally {
+            calculo.unlock();
+        }
+    }
+    
+    /**
+     * Hace {@code cambio} sin que ningún hilo esté usando los motores: espera a
+     * que termine el cálculo en curso y para la anticipación, que después se
+     * reanuda con los motores nuevos.
+     */
+    private void cambiarMotores(Runnable cambio) {
+        calculo.lock();
+        try {
+            pararAnticipacion();
+            cambio.run();
+        } finally {
+            calculo.unlock();
+        }
+        anticipar();
+    }
+    
+    // Antes de tocar los motores: el hilo de la anticipación podría estar usándolos
+    private void pararAnticipacion() {
+        if (anticipador != null) anticipador.esperar();
+    }
+    
+    /**
+     * Nodos visitados por la búsqueda en el último movimiento de la IA (0 si no hubo búsqueda).
+     */
+    public long getNodosVisitados() {
+        return nodosVisitados;
+    }
+    
+    public int hacerMovimientoIA() {
+        int movimiento = calcularMovimientoIA(controller.getPosicion());
+        
+        if (movimiento != -1) {
+            controller.hacerMovimientoIA(movimiento);
+            registrarSiTermino();
+            anticipar();
+        }
+        
+        return movimiento;
+    }
+    
+    /**
+     * Copia de la posición actual, para calcular la jugada de la IA en otro hilo
+     * mientras la partida sigue en el de la interfaz.
+     */
+    public Tablero copiarPosicion() {
+        return controller.getPosicion().copia();
+    }
+    
+    /**
+     * Jugada de la IA en {@code posicion}, sin hacerla. Puede llamarse desde otro
+     * hilo sobre una copia, pero no dos a la vez. Mientras dura, la anticipación
+     * no vuelve a empezar ni cambian los motores: quien la reanude o cambie de
+     * modo espera a que termine o a que {@link #cancelarMovimientoIA()} la corte.
+     */
+    public int calcularMovimientoIA(Tablero posicion) {
+        calculo.lock();
+        try {
+            // Las métricas se apuntan al modo cuyo motor juega
+            Modo modo = modoActivo();
+            Motor motor = motorDe(modo);
+            EventoMovimientoIA evento = new EventoMovimientoIA();
+            MetricasMotor metricas = MetricasMotor.activa();
+            if (metricas == null && !evento.isEnabled()) {
+                return elegirMovimiento(motor, posicion);
+            }
+            return medirMovimientoIA(modo, motor, posicion, metricas, evento);
+        } finally {
+            calculo.unlock();
+        }
+    }
+    
+    // El único sitio que decide qué modo juega
+    private Modo modoActivo() {
+        return modoAprendiz ? Modo.APRENDIZ : modoMontecarlo ? Modo.MONTECARLO
+             : motorNivel != null ? Modo.NIVEL : modoFacil ? Modo.FACIL : Modo.DIFICIL;
+    }
+    
+    private Motor motorDe(Modo modo) {
+        // Ambos modos ganan o bloquean primero; después el difícil juega perfecto
+        // (tabla o búsqueda) y el fácil mezcla preferencia y azar
+        switch (modo) {
+            case APRENDIZ:
+                return motorAprendiz;
+            case MONTECARLO:
+                return motorMontecarlo;
+            case NIVEL:
+                return motorNivel;
+            case FACIL:
+                return motorFacil;
+            default:
+                return motorLibro != null ? motorLibro : motorDificil;
+        }
+    }
+    
+    // La respuesta pensada mientras el humano decidía o, si no la hay, la del motor
+    private int elegirMovimiento(Motor motor, Tablero posicion) {
+        if (anticipador != null) {
+            int respuesta = anticipador.respuesta(posicion);
+            anticipada = respuesta != Anticipador.SIN_RESPUESTA;
+            if (anticipada) {
+                nodosVisitados = 0;
+                evaluaciones = 0;
+                return respuesta;
+            }
+        }
+        int movimiento = motor.mejorMovimiento(posicion, Controller.IA);
+        nodosVisitados = motor.getNodos();
+        evaluaciones = motor.getEvaluaciones();
+        return movimiento;
+    }
+    
+    /**
+     * Como la rama sin medir de {@link #calcularMovimientoIA(Tablero)}, pero
+     * registrando la jugada en las métricas y en JFR, lo que esté activo.
+     */
+    private int medirMovimientoIA(Modo modo, Motor motor, Tablero posicion, MetricasMotor metricas,
+                                  EventoMovimientoIA evento) {
+        evento.begin();
+        long inicio = System.nanoTime();
+        int movimiento = elegirMovimiento(motor, posicion);
+        long duracion = System.nanoTime() - inicio;
+        evento.end();
+        
+        OrigenJugada origen = anticipada ? OrigenJugada.ANTICIPADA : motor.getOrigen();
+        // Solo el modo difícil busca, directamente o cuando el libro no tiene la posición
+        boolean busco = origen == OrigenJugada.BUSQUEDA && (motor == motorDificil || motor == motorLibro);
+        long consultas = busco ? motorDificil.getConsultasTabla() : 0;
+        long aciertos = busco ? motorDificil.getAciertosTabla() : 0;
+        if (metricas != null) {
+            metricas.registrar(modo.metrica, origen, nodosVisitados, evaluaciones, duracion, consultas, aciertos,
+                               motor == motorLibro && !anticipada);
+        }
+        if (evento.shouldCommit()) {
+            Geometria geometria = posicion.getGeometria();
+            evento.modo = modo.nombre;
+            evento.origen = origen.getNombre();
+            evento.lado = geometria.getLado();
+            evento.enLinea = geometria.getEnLinea();
+            evento.nodos = nodosVisitados;
+            evento.evaluaciones = evaluaciones;
+            evento.profundidad = anticipada ? 0 : motor.getProfundidadAlcanzada();
+            evento.movimiento = movimiento;
+            evento.consultasTabla = consultas;
+            evento.aciertosTabla = aciertos;
+            evento.commit();
+        }
+        return movimiento;
+    }
+    
+    public boolean aplicarMovimientoIA(int movimiento) {
+        boolean valido = controller.hacerMovimientoIA(movimiento);
+        if (valido) {
+            registrarSiTermino();
+            anticipar();
+        }
+        return valido;
+    }
+    
+    /**
+     * Corta la búsqueda del modo difícil, la de Monte Carlo o la del nivel si hay
+     * una en curso y vuelve cuando {@link #calcularMovimientoIA(Tablero)} ha
+     * soltado el motor; el resto de modos responden al momento. También deja de
+     * anticipar.
+     */
+    public void cancelarMovimientoIA() {
+        if (anticipador != null) anticipador.detener();
+        // Los motores dejan su bandera de cancelación a falso al empezar cada
+        // búsqueda, así que se repite hasta que el cálculo termina
+        boolean interrumpido = false;
+        while (true) {
+            motorDificil.cancelar();
+            if (motorMontecarlo != null) motorMontecarlo.cancelar();
+            if (motorNivel != null) motorNivel.cancelar();
+            try {
+                if (calculo.tryLock(1, TimeUnit.MILLISECONDS)) {
+                    calculo.unlock();
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrumpido = true;
+            }
+        }
+        if (interrumpido) Thread.currentThread().interrupt();
+    }
+    
+    private void registrarSiTermino() {
+        if (registro != null && !registrada && controller.esFinal()) {
+            registrarPartida(controller.verificarGanador());
+        }
+    }
+    
+    private void registrarPartida(int ganador) {
+        int numJugadas = controller.getNumJugadas();
+        int[] jugadas = new int[numJugadas];
+        controller.copiarJugadas(jugadas);
+        int primero = numJugadas == 0 ? Controller.HUMANO : controller.getCasilla(jugadas[0]);
+        registro.registrar(new PartidaRegistrada(System.currentTimeMillis(), controller.getLado(),
+            controller.getEnLinea(), modoActivo().registro, ganador, primero, jugadas, numJugadas));
+        registrada = true;
+    }
+    
+    /**
+     * Deshace la respuesta de la IA, si la hubo, y la última jugada del humano;
+     * falso si no había nada que deshacer.
+     */
+    public boolean deshacerJugada() {
+        boolean deshecha = false;
+        while (controller.getUltimoJugador() == Controller.IA) {
+            deshecha |= controller.deshacer();
+        }
+        if (controller.getUltimoJugador() == Controller.HUMANO) {
+            deshecha |= controller.deshacer();
+        }
+        // Si ya se había registrado, lo que se juegue desde aquí es otra partida
+        if (deshecha && !controller.esFinal()) registrada = false;
+        anticipar();
+        return deshecha;
+    }
+    
+    /**
+     * Rehace la siguiente jugada deshecha y las de la IA que la seguían; falso si
+     * no había nada que rehacer.
+     */
+    public boolean rehacerJugada() {
+        if (!controller.rehacer()) return false;
+        while (controller.getJugadorRehacer() == Controller.IA) {
+            controller.rehacer();
+        }
+        registrarSiTermino();
+        anticipar();
+        return true;
+    }
+    
+    public int getUltimaJugada() {
+        return controller.getUltimaJugada();
+    }
+    
+    public int getUltimoJugador() {
+        return controller.getUltimoJugador();
+    }
+    
+    public int getNumJugadas() {
+        return controller.getNumJugadas();
+    }
+    
+    // Métodos delegados
+    public void reiniciarJuego() {
+        if (registro != null && !registrada && controller.getNumJugadas() > 0) {
+            registrarPartida(PartidaRegistrada.SIN_TERMINAR);
+        }
+        registrada = false;
+        controller.reiniciarJuego();
+        anticipar();
+    }
+    
+    public boolean hacerMovimientoHumano(int posicion) {
+        boolean valido = controller.hacerMovimientoHumano(posicion);
+        if (valido) {
+            registrarSiTermino();
+            // Si la partida sigue, lo pensado se recoge al pedir la jugada de la IA
+            if (anticipador != null && controller.esFinal()) anticipador.detener();
+        }
+        return valido;
+    }
+    
+    public int verificarGanador() {
+        return controller.verificarGanador();
+    }
+    
+    public boolean esFinal() {
+        return controller.esFinal();
+    }
+    
+    public int[] getTablero() {
+        return controller.getTablero();
+    }
+    
+    /**
+     * Como {@link #getTablero()} pero sobre un array del llamador, sin crear uno nuevo.
+     */
+    public void copiarTablero(int[] destino) {
+        controller.getPosicion().copiarCeldas(destino);
+    }
+}
\ No newline at end of file
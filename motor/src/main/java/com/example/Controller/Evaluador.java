@@ -0,0 +1,43 @@
+package com.example.Controller;
+
+/**
+ * Cómo valora la búsqueda las posiciones en las que se le acaba la profundidad.
+ *
+ * <p>Los valores van desde el punto de vista del jugador indicado y deben quedar
+ * muy por debajo de {@link BusquedaAlfaBeta#VICTORIA}, que se reserva para los
+ * finales. Ninguno de los dos métodos debe reservar memoria: se llaman millones
+ * de veces por jugada.
+ */
+public interface Evaluador {
+    /**
+     * La evaluación heurística que el {@link Tablero} lleva al día: cada línea
+     * abierta suma según las fichas que tiene.
+     */
+    Evaluador LINEAS = (tablero, jugador) ->
+        jugador == Controller.IA ? tablero.getEvaluacion() : -tablero.getEvaluacion();
+    
+    /**
+     * Valor de la posición para {@code jugador}, al que le toca mover. Puede
+     * llamarse desde varios hilos a la vez.
+     */
+    int evaluar(Tablero tablero, int jugador);
+    
+    /**
+     * Valora de una vez las posiciones que resultan de cada jugada de
+     * {@code jugador} en {@code casillas[0..num)}, todas libres y ninguna ganadora:
+     * deja en {@code valores[i]} el valor para {@code jugador} tras jugar
+     * {@code casillas[i]}. Devuelve el tablero como estaba.
+     *
+     * <p>Un evaluador puede aprovechar el lote para leer sus parámetros una sola
+     * vez; a cambio, puede usar buffers propios, así que una misma instancia no
+     * debe llamar a este método desde dos hilos a la vez.
+     */
+    default void evaluarHijos(Tablero tablero, int jugador, int[] casillas, int num, int[] valores) {
+        int rival = Controller.HUMANO + Controller.IA - jugador;
+        for (int i = 0; i < num; i++) {
+            tablero.mover(casillas[i], jugador);
+            valores[i] = -evaluar(tablero, rival);
+            tablero.deshacer(casillas[i]);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.Controller;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Datos precalculados e inmutables de una variante N×N con K en línea.
+ *
+ * <p>Enumera todas las ventanas de K casillas (filas, columnas y diagonales), las
+ * ventanas que pasan por cada casilla, el orden de preferencia de los movimientos
+ * y las claves de Zobrist. Se comparte entre todos los tableros de la misma variante.
+ */
+public final class Geometria {
+    public static final int LADO_MINIMO = 3;
+    public static final int LADO_MAXIMO = 19;
+    public static final int EN_LINEA_MAXIMO = 8;
+    // A partir de este tamaño solo se buscan casillas vecinas a fichas ya colocadas
+    private static final int CASILLAS_VECINDAD = 25;
+    
+    private static final Map<Integer, Geometria> CACHE = new ConcurrentHashMap<>();
+    
+    private final int lado;
+    private final int enLinea;
+    private final int casillas;
+    private final int[] casillasLinea;
+    private final int[][] lineasCasilla;
+    private final int[][] vecinas;
+    private final int[] orden;
+    private final int[] pesos;
+    private final Zobrist zobrist;
+    
+    public static Geometria de(int lado, int enLinea) {
+        if (lado < LADO_MINIMO || lado > LADO_MAXIMO) {
+            throw new IllegalArgumentException("Lado fuera de rango: " + lado);
+        }
+        if (enLinea < 3 || enLinea > Math.min(lado, EN_LINEA_MAXIMO)) {
+            throw new IllegalArgumentException("Fichas en línea fuera de rango: " + enLinea);
+        }
+        return CACHE.computeIfAbsent(lado * 32 + enLinea, k -> new Geometria(lado, enLinea));
+    }
+    
+    private Geometria(int lado, int enLinea) {
+        this.lado = lado;
+        this.enLinea = enLinea;
+        this.casillas = lado * lado;
+        
+        // Direcciones: horizontal, vertical, diagonal y antidiagonal
+        int[][] direcciones = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+        int[] lineas = new int[4 * casillas * enLinea];
+        int[] porCasilla = new int[casillas];
+        int numLineas = 0;
+        for (int[] d : direcciones) {
+            for (int fila = 0; fila < lado; fila++) {
+                for (int col = 0; col < lado; col++) {
+                    int filaFin = fila + d[0] * (enLinea - 1);
+                    int colFin = col + d[1] * (enLinea - 1);
+                    if (filaFin >= lado || colFin < 0 || colFin >= lado) continue;
+                    for (int k = 0; k < enLinea; k++) {
+                        int casilla = (fila + d[0] * k) * lado + col + d[1] * k;
+                        lineas[numLineas * enLinea + k] = casilla;
+                        porCasilla[casilla]++;
+                    }
+                    numLineas++;
+                }
+            }
+        }
+        this.casillasLinea = Arrays.copyOf(lineas, numLineas * enLinea);
+        
+        this.lineasCasilla = new int[casillas][];
+        for (int c = 0; c < casillas; c++) {
+            lineasCasilla[c] = new int[porCasilla[c]];
+            porCasilla[c] = 0;
+        }
+        for (int linea = 0; linea < numLineas; linea++) {
+            for (int k = 0; k < enLinea; k++) {
+                int casilla = casillasLinea[linea * enLinea + k];
+                lineasCasilla[casilla][porCasilla[casilla]++] = linea;
+            }
+        }
+        
+        // Primero las casillas por las que pasan más líneas; en el 3x3 da centro, esquinas, bordes
+        Integer[] porPreferencia = new Integer[casillas];
+        for (int c = 0; c < casillas; c++) porPreferencia[c] = c;
+        double centro = (lado - 1) / 2.0;
+        Arrays.sort(porPreferencia, Comparator
+            .comparingInt((Integer c) -> -lineasCasilla[c].length)
+            .thenComparingDouble(c -> Math.abs(c / lado - centro) + Math.abs(c % lado - centro))
+            .thenComparingInt(c -> c));
+        this.orden = new int[casillas];
+        for (int i = 0; i < casillas; i++) orden[i] = porPreferencia[i];
+        
+        if (casillas > CASILLAS_VECINDAD) {
+            this.vecinas = new int[casillas][];
+            for (int c = 0; c < casillas; c++) {
+                int[] lista = new int[8];
+                int n = 0;
+                for (int df = -1; df <= 1; df++) {
+                    for (int dc = -1; dc <= 1; dc++) {
+                        int f = c / lado + df;
+                        int col = c % lado + dc;
+                        if ((df != 0 || dc != 0) && f >= 0 && f < lado && col >= 0 && col < lado) {
+                            lista[n++] = f * lado + col;
+                        }
+                    }
+                }
+                vecinas[c] = Arrays.copyOf(lista, n);
+            }
+        } else {
+            this.vecinas = null;
+        }
+        
+        // Peso de una línea con n fichas de un solo jugador: 8^(n-1)
+        this.pesos = new int[enLinea + 1];
+        for (int n = 1; n <= enLinea; n++) {
+            pesos[n] = 1 << (3 * (n - 1));
+        }
+        
+        this.zobrist = new Zobrist(casillas, 0x5EED_7AB1EL ^ (lado * 32L + enLinea));
+    }
+    
+    public int getLado() {
+        return lado;
+    }
+    
+    public int getEnLinea() {
+        return enLinea;
+    }
+    
+    public int getCasillas() {
+        return casillas;
+    }
+    
+    public int getNumLineas() {
+        return casillasLinea.length / enLinea;
+    }
+    
+    /**
+     * Casilla {@code k}-ésima (0..K-1) de la línea indicada.
+     */
+    public int casillaDeLinea(int linea, int k) {
+        return casillasLinea[linea * enLinea + k];
+    }
+    
+    int[] lineasDe(int casilla) {
+        return lineasCasilla[casilla];
+    }
+    
+    int[] vecinasDe(int casilla) {
+        return vecinas[casilla];
+    }
+    
+    public boolean usaVecindad() {
+        return vecinas != null;
+    }
+    
+    /**
+     * Casillas de la más a la menos prometedora. No debe modificarse.
+     */
+    public int[] getOrden() {
+        return orden;
+    }
+    
+    int peso(int fichas) {
+        return pesos[fichas];
+    }
+    
+    public Zobrist getZobrist() {
+        return zobrist;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.Controller;
+
+/**
+ * Estrategia que elige la jugada de un jugador en una posición.
+ *
+ * <p>Una instancia puede guardar estado propio (generador aleatorio, tabla de
+ * transposición), así que no debe compartirse entre hilos.
+ */
+public interface Motor {
+    /**
+     * Casilla elegida para {@code jugador}, o -1 si la posición es final. No
+     * modifica el tablero recibido.
+     */
+    int mejorMovimiento(Tablero posicion, int jugador);
+    
+    /**
+     * Nodos examinados en la última llamada, en los motores que buscan.
+     */
+    default long getNodos() {
+        return 0;
+    }
+    
+    /**
+     * Posiciones valoradas con un {@link Evaluador} en la última llamada, en los
+     * motores que buscan con uno.
+     */
+    default long getEvaluaciones() {
+        return 0;
+    }
+    
+    /**
+     * De dónde salió la jugada devuelta por la última llamada.
+     */
+    OrigenJugada getOrigen();
+    
+    /**
+     * Profundidad completada en la última llamada, en los motores que buscan.
+     */
+    default int getProfundidadAlcanzada() {
+        return 0;
+    }
+    
+    /**
+     * Pide desde otro hilo que la búsqueda en curso termine cuanto antes; devolverá
+     * lo mejor que haya encontrado. Los motores que no buscan no hacen nada.
+     */
+    default void cancelar() {
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.Controller;
+
+import java.util.SplittableRandom;
+
+/**
+ * Juega una casilla libre cualquiera.
+ */
+public class MotorAleatorio implements Motor {
+    private final SplittableRandom random;
+    
+    public MotorAleatorio(SplittableRandom random) {
+        this.random = random;
+    }
+    
+    @Override
+    public int mejorMovimiento(Tablero posicion, int jugador) {
+        if (posicion.resultado() != 0) return -1;
+        return casillaAleatoria(posicion, random);
+    }
+    
+    /**
+     * Una casilla libre al azar, todas con la misma probabilidad, o -1 si no queda
+     * ninguna. No reserva memoria.
+     */
+    public static int casillaAleatoria(Tablero posicion, SplittableRandom random) {
+        int libres = posicion.getLibres();
+        return libres == 0 ? -1 : posicion.casillaLibre(random.nextInt(libres));
+    }
+    
+    @Override
+    public OrigenJugada getOrigen() {
+        return OrigenJugada.AZAR;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.Controller;
+
+/**
+ * El modo difícil: gana o bloquea si puede; si no, consulta la tabla resuelta en
+ * el 3x3 y busca con alfa-beta y tiempo máximo en el resto de variantes.
+ */
+public class MotorDificil implements Motor {
+    private boolean usarTablaPerfecta = true;
+    private long tiempoMaximo = 1000;
+    private int profundidadMaxima = Integer.MAX_VALUE;
+    private int hilos = 1;
+    // Se crea al primer uso: en el 3x3 con la tabla resuelta nunca hace falta
+    private volatile BusquedaAlfaBeta busqueda;
+    private Evaluador evaluador = Evaluador.LINEAS;
+    private long nodos;
+    private long evaluaciones;
+    private int profundidad;
+    private long consultasTabla;
+    private long aciertosTabla;
+    private OrigenJugada origen = OrigenJugada.NINGUNA;
+    
+    @Override
+    public int mejorMovimiento(Tablero posicion, int jugador) {
+        nodos = 0;
+        evaluaciones = 0;
+        profundidad = 0;
+        consultasTabla = 0;
+        aciertosTabla = 0;
+        origen = OrigenJugada.NINGUNA;
+        if (posicion.resultado() != 0) return -1;
+        int movimiento = posicion.movimientoForzado(jugador);
+        if (movimiento != -1) {
+            origen = OrigenJugada.FORZADA;
+            return movimiento;
+        }
+        
+        if (usarTablaPerfecta && esClasico(posicion)) {
+            origen = OrigenJugada.TABLA;
+            int rival = Controller.HUMANO + Controller.IA - jugador;
+            return TablaPerfecta.getInstancia().mejorMovimiento(
+                posicion.getMascara(jugador), posicion.getMascara(rival));
+        }
+        origen = OrigenJugada.BUSQUEDA;
+        BusquedaAlfaBeta activa = busqueda();
+        TablaTransposicion tabla = activa.getTabla();
+        long consultas = tabla.getConsultas();
+        long aciertos = tabla.getAciertos();
+        movimiento = activa.mejorMovimiento(posicion, jugador);
+        nodos = activa.getNodos();
+        evaluaciones = activa.getEvaluaciones();
+        profundidad = activa.getProfundidadAlcanzada();
+        consultasTabla = tabla.getConsultas() - consultas;
+        aciertosTabla = tabla.getAciertos() - aciertos;
+        return movimiento;
+    }
+    
+    private BusquedaAlfaBeta busqueda() {
+        if (busqueda == null) {
+            BusquedaAlfaBeta nueva = hilos > 1 ? new BusquedaParalela(16, hilos) : new BusquedaAlfaBeta(16);
+            nueva.setTiempoMaximo(tiempoMaximo);
+            nueva.setProfundidadMaxima(profundidadMaxima);
+            nueva.setEvaluador(evaluador);
+            busqueda = nueva;
+        }
+        return busqueda;
+    }
+    
+    static boolean esClasico(Tablero posicion) {
+        Geometria geometria = posicion.getGeometria();
+        return geometria.getLado() == 3 && geometria.getEnLinea() == 3;
+    }
+    
+    /**
+     * En el 3x3, consultar la tabla resuelta (por defecto) o buscar con alfa-beta.
+     */
+    public void setUsarTablaPerfecta(boolean activado) {
+        this.usarTablaPerfecta = activado;
+    }
+    
+    /**
+     * Tiempo máximo de búsqueda por movimiento, en milisegundos (0 sin límite).
+     */
+    public void setTiempoMaximo(long milisegundos) {
+        this.tiempoMaximo = milisegundos;
+        if (busqueda != null) busqueda.setTiempoMaximo(milisegundos);
+    }
+    
+    /**
+     * Profundidad máxima de la búsqueda, en jugadas.
+     */
+    public void setProfundidadMaxima(int profundidad) {
+        this.profundidadMaxima = profundidad;
+        if (busqueda != null) busqueda.setProfundidadMaxima(profundidad);
+    }
+    
+    /**
+     * Cómo valora la búsqueda las posiciones a las que no llega el final; por
+     * defecto, {@link Evaluador#LINEAS}. Si cambia, se vacía la tabla de
+     * transposición.
+     */
+    public void setEvaluador(Evaluador evaluador) {
+        this.evaluador = evaluador;
+        if (busqueda != null) busqueda.setEvaluador(evaluador);
+    }
+    
+    /**
+     * Número de hilos de la búsqueda; con 1 se busca en el hilo que llama. El
+     * resultado es el mismo, solo cambia el tiempo que tarda.
+     */
+    public void setParalelismo(int hilos) {
+        if (busqueda instanceof BusquedaParalela) {
+            ((BusquedaParalela) busqueda).cerrar();
+        }
+        this.hilos = hilos;
+        busqueda = null;
+    }
+    
+    @Override
+    public void cancelar() {
+        BusquedaAlfaBeta actual = busqueda;
+        if (actual != null) actual.cancelar();
+    }
+    
+    @Override
+    public long getNodos() {
+        return nodos;
+    }
+    
+    @Override
+    public long getEvaluaciones() {
+        return evaluaciones;
+    }
+    
+    @Override
+    public OrigenJugada getOrigen() {
+        return origen;
+    }
+    
+    @Override
+    public int getProfundidadAlcanzada() {
+        return profundidad;
+    }
+    
+    /**
+     * Consultas a la tabla de transposición en la última búsqueda (0 si no buscó).
+     */
+    public long getConsultasTabla() {
+        return consultasTabla;
+    }
+    
+    /**
+     * Consultas de la última búsqueda que encontraron la posición en la tabla.
+     */
+    public long getAciertosTabla() {
+        return aciertosTabla;
+    }
+}
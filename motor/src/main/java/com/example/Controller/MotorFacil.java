@@ -0,0 +1,50 @@
+package com.example.Controller;
+
+import java.util.SplittableRandom;
+
+/**
+ * El "modo amigable": gana o bloquea si puede y, si no, la mitad de las veces
+ * juega la casilla libre preferida y la otra mitad una al azar.
+ */
+public class MotorFacil implements Motor {
+    private final SplittableRandom random;
+    private OrigenJugada origen = OrigenJugada.NINGUNA;
+    
+    /**
+     * @param random generador propio de este motor; con la misma semilla juega
+     *               siempre las mismas jugadas
+     */
+    public MotorFacil(SplittableRandom random) {
+        this.random = random;
+    }
+    
+    @Override
+    public int mejorMovimiento(Tablero posicion, int jugador) {
+        origen = OrigenJugada.NINGUNA;
+        if (posicion.resultado() != 0) return -1;
+        int movimiento = posicion.movimientoForzado(jugador);
+        if (movimiento != -1) {
+            origen = OrigenJugada.FORZADA;
+            return movimiento;
+        }
+        
+        // 50% de probabilidad de elegir un movimiento estratégico
+        if (random.nextDouble() < 0.5) {
+            for (int pos : posicion.getGeometria().getOrden()) {
+                if (posicion.estaLibre(pos)) {
+                    origen = OrigenJugada.PREFERENCIA;
+                    return pos;
+                }
+            }
+        }
+        
+        // 50% de movimiento completamente aleatorio
+        origen = OrigenJugada.AZAR;
+        return MotorAleatorio.casillaAleatoria(posicion, random);
+    }
+    
+    @Override
+    public OrigenJugada getOrigen() {
+        return origen;
+    }
+}
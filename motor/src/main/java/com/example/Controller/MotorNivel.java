@@ -0,0 +1,143 @@
+package com.example.Controller;
+
+import java.util.SplittableRandom;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Rival de fuerza graduable, del 1 al 10 (ver {@link NivelDificultad}). En cada
+ * jugada, con la probabilidad de error del nivel juega una casilla libre al azar;
+ * si no, valora todas las jugadas a la profundidad del nivel y sortea entre ellas
+ * con probabilidades softmax de sus valores a la temperatura del nivel.
+ *
+ * <p>El azar sale de un generador propio, así que muchas partidas pueden jugarse
+ * a la vez sin compartir nada, y con la misma semilla el motor repite exactamente
+ * las mismas jugadas: la búsqueda no tiene tiempo máximo sino un presupuesto de
+ * nodos, con el que en tableros grandes los niveles altos miran menos jugadas de
+ * las de su nivel. Elegir la jugada no reserva memoria.
+ */
+public class MotorNivel implements Motor {
+    // Alrededor de un segundo por jugada
+    static final long NODOS_MAXIMOS = 3_000_000;
+    
+    private final NivelDificultad nivel;
+    private final SplittableRandom random;
+    private final BusquedaAlfaBeta busqueda = new BusquedaAlfaBeta(16);
+    private int[] casillas = new int[0];
+    private int[] valores = new int[0];
+    private final IntUnaryOperator cota = this::cota;
+    private int escala;
+    private long nodos;
+    private int profundidad;
+    private OrigenJugada origen = OrigenJugada.NINGUNA;
+    
+    /**
+     * @param random generador propio de este motor
+     */
+    public MotorNivel(NivelDificultad nivel, SplittableRandom random) {
+        this.nivel = nivel;
+        this.random = random;
+    }
+    
+    @Override
+    public int mejorMovimiento(Tablero posicion, int jugador) {
+        nodos = 0;
+        profundidad = 0;
+        origen = OrigenJugada.NINGUNA;
+        if (posicion.resultado() != 0) return -1;
+        if (random.nextDouble() < nivel.getProbabilidadError()) {
+            origen = OrigenJugada.AZAR;
+            return MotorAleatorio.casillaAleatoria(posicion, random);
+        }
+        
+        if (casillas.length < posicion.getCasillas()) {
+            casillas = new int[posicion.getCasillas()];
+            valores = new int[posicion.getCasillas()];
+        }
+        int num = 0;
+        for (int pos : posicion.getGeometria().getOrden()) {
+            if (BusquedaAlfaBeta.esLegal(posicion, pos)) casillas[num++] = pos;
+        }
+        origen = OrigenJugada.BUSQUEDA;
+        Geometria geometria = posicion.getGeometria();
+        escala = geometria.peso(geometria.getEnLinea() - 1);
+        boolean completa = busqueda.valorarJugadas(posicion, jugador, nivel.getProfundidad(), casillas, num,
+                                                   valores, cota, NODOS_MAXIMOS);
+        nodos = busqueda.getNodos();
+        profundidad = busqueda.getProfundidadAlcanzada();
+        return completa ? sortear(num) : casillas[0];
+    }
+    
+    /**
+     * Valor por debajo del cual una jugada tiene, frente a la mejor, una
+     * probabilidad menor que e^-8 y da igual cuánto vale exactamente.
+     */
+    private int cota(int mejor) {
+        double temperatura = nivel.getTemperatura();
+        if (temperatura == 0) return mejor;
+        double p = puntuacion(mejor, escala) - 8 * temperatura;
+        if (p <= -1) return -BusquedaAlfaBeta.VICTORIA;
+        // Inversa de la puntuación de la heurística
+        return (int) Math.floor(p >= 0 ? p * escala / (1 - p) : p * escala / (1 + p));
+    }
+    
+    // Softmax en dos pasadas, sin guardar las probabilidades
+    private int sortear(int num) {
+        int mejor = 0;
+        double maximo = puntuacion(valores[0], escala);
+        for (int i = 1; i < num; i++) {
+            double p = puntuacion(valores[i], escala);
+            if (p > maximo) {
+                maximo = p;
+                mejor = i;
+            }
+        }
+        double temperatura = nivel.getTemperatura();
+        if (temperatura == 0) return casillas[mejor];
+        
+        double suma = 0;
+        for (int i = 0; i < num; i++) {
+            suma += Math.exp((puntuacion(valores[i], escala) - maximo) / temperatura);
+        }
+        double umbral = random.nextDouble() * suma;
+        for (int i = 0; i < num; i++) {
+            umbral -= Math.exp((puntuacion(valores[i], escala) - maximo) / temperatura);
+            if (umbral < 0) return casillas[i];
+        }
+        return casillas[mejor];
+    }
+    
+    /**
+     * Lleva un valor de la búsqueda a (-1, 1): los finales forzados a los extremos
+     * y la heurística de líneas, que crece sin límite, a una escala en la que una
+     * línea a punto de completarse vale la mitad.
+     */
+    static double puntuacion(int valor, int escala) {
+        int jugadas = BusquedaAlfaBeta.jugadasHastaFinal(valor);
+        if (jugadas != 0) return jugadas > 0 ? 1 : -1;
+        return (double) valor / (Math.abs(valor) + escala);
+    }
+    
+    public NivelDificultad getNivel() {
+        return nivel;
+    }
+    
+    @Override
+    public void cancelar() {
+        busqueda.cancelar();
+    }
+    
+    @Override
+    public long getNodos() {
+        return nodos;
+    }
+    
+    @Override
+    public OrigenJugada getOrigen() {
+        return origen;
+    }
+    
+    @Override
+    public int getProfundidadAlcanzada() {
+        return profundidad;
+    }
+}
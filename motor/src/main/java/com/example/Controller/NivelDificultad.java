@@ -0,0 +1,73 @@
+package com.example.Controller;
+
+/**
+ * Uno de los diez niveles de {@link MotorNivel}: cuántas jugadas mira, con qué
+ * probabilidad juega al azar sin mirar nada y cuánto se aparta de la mejor
+ * jugada al elegir entre las que valoró.
+ *
+ * <p>La temperatura se aplica a puntuaciones entre -1 (derrota forzada) y 1
+ * (victoria forzada): con 0 juega siempre la mejor y con 1 una jugada que pierde
+ * sigue teniendo una probabilidad apreciable. El nivel 10 no se equivoca nunca y
+ * en el 3x3 mira hasta el final.
+ */
+public final class NivelDificultad {
+    public static final int MINIMO = 1;
+    public static final int MAXIMO = 10;
+    
+    private static final int[] PROFUNDIDADES = {1, 1, 2, 2, 3, 4, 5, 6, 7, 9};
+    private static final double[] ERRORES = {0.5, 0.35, 0.25, 0.15, 0.1, 0.06, 0.03, 0.01, 0, 0};
+    private static final double[] TEMPERATURAS = {1, 0.5, 0.3, 0.2, 0.1, 0.05, 0.02, 0.01, 0.005, 0};
+    private static final NivelDificultad[] NIVELES = new NivelDificultad[MAXIMO];
+    
+    static {
+        for (int n = 0; n < MAXIMO; n++) {
+            NIVELES[n] = new NivelDificultad(n + 1, PROFUNDIDADES[n], ERRORES[n], TEMPERATURAS[n]);
+        }
+    }
+    
+    private final int nivel;
+    private final int profundidad;
+    private final double probabilidadError;
+    private final double temperatura;
+    
+    private NivelDificultad(int nivel, int profundidad, double probabilidadError, double temperatura) {
+        this.nivel = nivel;
+        this.profundidad = profundidad;
+        this.probabilidadError = probabilidadError;
+        this.temperatura = temperatura;
+    }
+    
+    public static NivelDificultad de(int nivel) {
+        if (nivel < MINIMO || nivel > MAXIMO) {
+            throw new IllegalArgumentException("Nivel fuera de rango: " + nivel);
+        }
+        return NIVELES[nivel - 1];
+    }
+    
+    public int getNivel() {
+        return nivel;
+    }
+    
+    /**
+     * Jugadas que mira la búsqueda, contando la propia.
+     */
+    public int getProfundidad() {
+        return profundidad;
+    }
+    
+    /**
+     * Probabilidad de jugar una casilla libre al azar en vez de buscar.
+     */
+    public double getProbabilidadError() {
+        return probabilidadError;
+    }
+    
+    public double getTemperatura() {
+        return temperatura;
+    }
+    
+    @Override
+    public String toString() {
+        return "nivel " + nivel;
+    }
+}
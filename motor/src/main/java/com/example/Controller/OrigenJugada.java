@@ -0,0 +1,32 @@
+package com.example.Controller;
+
+/**
+ * De dónde salió la última jugada de un {@link Motor}; sirve para medir cuánto
+ * se resuelve sin buscar.
+ */
+public enum OrigenJugada {
+    /** La posición era final y no hubo jugada. */
+    NINGUNA,
+    /** Ganar o bloquear en una jugada, sin buscar. */
+    FORZADA,
+    /** La tabla resuelta del 3x3. */
+    TABLA,
+    /** El libro de aperturas. */
+    LIBRO,
+    /** Búsqueda alfa-beta. */
+    BUSQUEDA,
+    /** Búsqueda de árbol Monte Carlo. */
+    MONTECARLO,
+    /** Pensada mientras el humano decidía su jugada. */
+    ANTICIPADA,
+    /** La política aprendida por autojuego. */
+    APRENDIZ,
+    /** La casilla libre preferida del orden de la geometría. */
+    PREFERENCIA,
+    /** Una casilla libre al azar. */
+    AZAR;
+    
+    public String getNombre() {
+        return name().toLowerCase();
+    }
+}
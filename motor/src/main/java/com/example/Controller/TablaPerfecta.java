@@ -0,0 +1,137 @@
+package com.example.Controller;
+
+import java.util.Arrays;
+
+/**
+ * Tabla de juego perfecto para el 3x3, resuelta una sola vez al primer uso.
+ *
+ * <p>Las posiciones se guardan desde el punto de vista de quien mueve (máscara
+ * propia y rival) y se pliegan por las 8 simetrías del tablero, así que solo se
+ * resuelve y almacena una posición por clase de equivalencia. Consultar el mejor
+ * movimiento es O(1): canonizar, leer la ranura y deshacer la simetría.
+ */
+public final class TablaPerfecta {
+    public static final int GANA = 1;
+    public static final int EMPATA = 0;
+    public static final int PIERDE = -1;
+    
+    // Orden de desempate entre movimientos de igual valor
+    private static final int[] PRIORIDAD = {4, 0, 2, 6, 8, 1, 3, 5, 7};
+    
+    private final short[] ranuras = new short[TableroBits.POSICIONES];
+    private byte[] movimientos = new byte[1024];
+    private byte[] valores = new byte[1024];
+    private byte[] distancias = new byte[1024];
+    private int tamano;
+    
+    private static class Holder {
+        static final TablaPerfecta INSTANCIA = new TablaPerfecta();
+    }
+    
+    public static TablaPerfecta getInstancia() {
+        return Holder.INSTANCIA;
+    }
+    
+    private TablaPerfecta() {
+        Arrays.fill(ranuras, (short) -1);
+        resolver(0, 0);
+        movimientos = Arrays.copyOf(movimientos, tamano);
+        valores = Arrays.copyOf(valores, tamano);
+        distancias = Arrays.copyOf(distancias, tamano);
+    }
+    
+    /**
+     * Resuelve la posición y devuelve su ranura en la tabla.
+     */
+    private int resolver(int propia, int rival) {
+        int clave = TableroBits.canonico(propia, rival);
+        int indice = clave >>> 3;
+        if (ranuras[indice] >= 0) {
+            return ranuras[indice];
+        }
+        int simetria = clave & 7;
+        propia = TableroBits.transformar(simetria, propia);
+        rival = TableroBits.transformar(simetria, rival);
+        
+        int mejorMovimiento = -1;
+        int mejorValor = EMPATA;
+        int mejorDistancia = 0;
+        
+        if (TableroBits.tieneLinea(rival)) {
+            mejorValor = PIERDE;
+        } else {
+            int libres = TableroBits.libres(propia, rival);
+            for (int pos : PRIORIDAD) {
+                if ((libres & TableroBits.bit(pos)) == 0) continue;
+                int hijo = resolver(rival, propia | TableroBits.bit(pos));
+                int valor = -valores[hijo];
+                int distancia = distancias[hijo] + 1;
+                if (mejorMovimiento == -1 || esMejor(valor, distancia, mejorValor, mejorDistancia)) {
+                    mejorMovimiento = pos;
+                    mejorValor = valor;
+                    mejorDistancia = distancia;
+                }
+            }
+        }
+        return guardar(indice, mejorMovimiento, mejorValor, mejorDistancia);
+    }
+    
+    // Ganar cuanto antes, perder cuanto más tarde
+    private static boolean esMejor(int valor, int distancia, int mejorValor, int mejorDistancia) {
+        if (valor != mejorValor) return valor > mejorValor;
+        if (valor == GANA) return distancia < mejorDistancia;
+        if (valor == PIERDE) return distancia > mejorDistancia;
+        return false;
+    }
+    
+    private int guardar(int indice, int movimiento, int valor, int distancia) {
+        if (tamano == movimientos.length) {
+            int capacidad = tamano * 2;
+            movimientos = Arrays.copyOf(movimientos, capacidad);
+            valores = Arrays.copyOf(valores, capacidad);
+            distancias = Arrays.copyOf(distancias, capacidad);
+        }
+        int ranura = tamano++;
+        movimientos[ranura] = (byte) movimiento;
+        valores[ranura] = (byte) valor;
+        distancias[ranura] = (byte) distancia;
+        ranuras[indice] = (short) ranura;
+        return ranura;
+    }
+    
+    /**
+     * Mejor movimiento para quien tiene la máscara {@code propia}, o -1 si la
+     * posición es final.
+     */
+    public int mejorMovimiento(int propia, int rival) {
+        int clave = TableroBits.canonico(propia, rival);
+        int movimiento = movimientos[ranura(clave)];
+        return movimiento < 0 ? -1 : TableroBits.destransformar(clave & 7, movimiento);
+    }
+    
+    /**
+     * Resultado con juego perfecto para quien mueve: GANA, EMPATA o PIERDE.
+     */
+    public int valor(int propia, int rival) {
+        return valores[ranura(TableroBits.canonico(propia, rival))];
+    }
+    
+    /**
+     * Jugadas que faltan hasta el final de la partida con juego perfecto.
+     */
+    public int distancia(int propia, int rival) {
+        return distancias[ranura(TableroBits.canonico(propia, rival))];
+    }
+    
+    private int ranura(int clave) {
+        int ranura = ranuras[clave >>> 3];
+        if (ranura < 0) {
+            throw new IllegalArgumentException("Posición inalcanzable: " + (clave >>> 3));
+        }
+        return ranura;
+    }
+    
+    public int getTamano() {
+        return tamano;
+    }
+}
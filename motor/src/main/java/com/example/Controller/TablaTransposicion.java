@@ -0,0 +1,107 @@
+package com.example.Controller;
+
+import java.util.Arrays;
+
+/**
+ * Tabla de transposición de tamaño fijo indexada por hash de Zobrist.
+ *
+ * <p>Cada entrada ocupa dos {@code long}: la clave completa y los datos empaquetados
+ * (valor, profundidad, tipo de cota y movimiento). Al llenarse se reemplaza la
+ * entrada si la nueva búsqueda es al menos igual de profunda o la clave es otra.
+ *
+ * <p>Puede compartirse entre hilos sin bloqueos: la clave se guarda mezclada con
+ * los datos mediante XOR, así que una entrada escrita a medias por dos hilos no
+ * coincide con ningún hash y se trata como ausente. Los contadores de consultas
+ * y aciertos son aproximados cuando hay varios hilos.
+ */
+public class TablaTransposicion {
+    public static final int EXACTO = 1;
+    public static final int INFERIOR = 2;
+    public static final int SUPERIOR = 3;
+    
+    private final long[] claves;
+    private final long[] datos;
+    private final int mascara;
+    
+    private long consultas;
+    private long aciertos;
+    
+    /**
+     * @param bits logaritmo en base 2 del número de entradas
+     */
+    public TablaTransposicion(int bits) {
+        if (bits < 1 || bits > 28) {
+            throw new IllegalArgumentException("Tamaño de tabla fuera de rango: 2^" + bits);
+        }
+        claves = new long[1 << bits];
+        datos = new long[1 << bits];
+        mascara = (1 << bits) - 1;
+    }
+    
+    /**
+     * Devuelve los datos empaquetados de la posición, o 0 si no está en la tabla.
+     */
+    public long buscar(long hash) {
+        consultas++;
+        int i = (int) hash & mascara;
+        long entrada = datos[i];
+        if (entrada == 0 || (claves[i] ^ entrada) != hash) {
+            return 0;
+        }
+        aciertos++;
+        return entrada;
+    }
+    
+    public void guardar(long hash, int valor, int profundidad, int tipo, int movimiento) {
+        int i = (int) hash & mascara;
+        long anterior = datos[i];
+        if ((claves[i] ^ anterior) == hash && profundidad < profundidad(anterior)) {
+            return;
+        }
+        long entrada = empaquetar(valor, profundidad, tipo, movimiento);
+        claves[i] = hash ^ entrada;
+        datos[i] = entrada;
+    }
+    
+    public void limpiar() {
+        Arrays.fill(claves, 0L);
+        Arrays.fill(datos, 0L);
+        consultas = 0;
+        aciertos = 0;
+    }
+    
+    static long empaquetar(int valor, int profundidad, int tipo, int movimiento) {
+        return (valor & 0xFFFFFFFFL)
+            | ((long) (profundidad & 0xFF) << 32)
+            | ((long) tipo << 40)
+            | ((long) (movimiento + 1) << 42);
+    }
+    
+    public static int valor(long datos) {
+        return (int) datos;
+    }
+    
+    public static int profundidad(long datos) {
+        return (int) (datos >>> 32) & 0xFF;
+    }
+    
+    public static int tipo(long datos) {
+        return (int) (datos >>> 40) & 0x3;
+    }
+    
+    public static int movimiento(long datos) {
+        return (int) (datos >>> 42) - 1;
+    }
+    
+    public long getConsultas() {
+        return consultas;
+    }
+    
+    public long getAciertos() {
+        return aciertos;
+    }
+    
+    public int getCapacidad() {
+        return claves.length;
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.Controller;
+
+import java.util.Arrays;
+
+/**
+ * Estado de una partida N×N con K en línea, actualizado de forma incremental.
+ *
+ * <p>Además de las casillas, lleva por cada línea cuántas fichas tiene cada
+ * jugador, una máscara de bits por jugador, el hash de Zobrist y una evaluación
+ * heurística (desde el punto de vista de la IA). Mover y deshacer solo tocan las
+ * líneas que pasan por la casilla, así que detectar ganador, empate o evaluar la
+ * posición cuesta lo mismo sea cual sea el tamaño del tablero. También lleva
+ * cuántas líneas abiertas (sin fichas del rival) tiene cada jugador con cada
+ * número de fichas: las que están a una de completarse dicen sin recorrer el
+ * tablero si hay jugada que gane o que bloquear, y todas juntas son la entrada de
+ * los evaluadores aprendidos.
+ */
+public class Tablero {
+    private final Geometria geometria;
+    private final int[] celdas;
+    private final long[][] bits;
+    // cuentas[2 * linea + jugador - 1] = fichas del jugador en esa línea
+    private final int[] cuentas;
+    // Líneas completas por jugador (índice 0 sin uso)
+    private final int[] completas = new int[3];
+    // abiertas[jugador][k] = líneas con k fichas del jugador y ninguna del rival
+    private final int[][] abiertas;
+    // Fichas colocadas en las casillas vecinas, solo en tableros grandes
+    private final int[] vecinos;
+    private int ocupadas;
+    private int evaluacion;
+    private long hash;
+    
+    public Tablero(Geometria geometria) {
+        this.geometria = geometria;
+        this.celdas = new int[geometria.getCasillas()];
+        this.bits = new long[3][(geometria.getCasillas() + 63) >>> 6];
+        this.cuentas = new int[2 * geometria.getNumLineas()];
+        this.abiertas = new int[3][geometria.getEnLinea() + 1];
+        this.vecinos = geometria.usaVecindad() ? new int[geometria.getCasillas()] : null;
+    }
+    
+    private Tablero(Tablero otro) {
+        this.geometria = otro.geometria;
+        this.celdas = otro.celdas.clone();
+        this.bits = new long[][] {otro.bits[0].clone(), otro.bits[1].clone(), otro.bits[2].clone()};
+        this.cuentas = otro.cuentas.clone();
+        this.completas[Controller.HUMANO] = otro.completas[Controller.HUMANO];
+        this.completas[Controller.IA] = otro.completas[Controller.IA];
+        this.abiertas = new int[][] {otro.abiertas[0].clone(), otro.abiertas[1].clone(), otro.abiertas[2].clone()};
+        this.vecinos = otro.vecinos == null ? null : otro.vecinos.clone();
+        this.ocupadas = otro.ocupadas;
+        this.evaluacion = otro.evaluacion;
+        this.hash = otro.hash;
+    }
+    
+    public Tablero copia() {
+        return new Tablero(this);
+    }
+    
+    public void reiniciar() {
+        Arrays.fill(celdas, 0);
+        for (long[] b : bits) Arrays.fill(b, 0L);
+        Arrays.fill(cuentas, 0);
+        Arrays.fill(completas, 0);
+        for (int[] a : abiertas) Arrays.fill(a, 0);
+        if (vecinos != null) Arrays.fill(vecinos, 0);
+        ocupadas = 0;
+        evaluacion = 0;
+        hash = 0L;
+    }
+    
+    /**
+     * Coloca la ficha sin validar; la casilla debe estar libre.
+     */
+    public void mover(int casilla, int jugador) {
+        celdas[casilla] = jugador;
+        bits[jugador][casilla >>> 6] |= 1L << casilla;
+        hash ^= geometria.getZobrist().clave(jugador, casilla);
+        ocupadas++;
+        int indice = jugador - 1;
+        for (int linea : geometria.lineasDe(casilla)) {
+            int base = 2 * linea;
+            evaluacion -= valorLinea(base);
+            contarAbierta(base, -1);
+            if (++cuentas[base + indice] == geometria.getEnLinea()) completas[jugador]++;
+            evaluacion += valorLinea(base);
+            contarAbierta(base, 1);
+        }
+        if (vecinos != null) {
+            for (int v : geometria.vecinasDe(casilla)) vecinos[v]++;
+        }
+    }
+    
+    /**
+     * Retira la ficha de la casilla, sea del jugador que sea. Si está libre no hace nada.
+     */
+    public void deshacer(int casilla) {
+        int jugador = celdas[casilla];
+        if (jugador == 0) return;
+        celdas[casilla] = 0;
+        bits[jugador][casilla >>> 6] &= ~(1L << casilla);
+        hash ^= geometria.getZobrist().clave(jugador, casilla);
+        ocupadas--;
+        int indice = jugador - 1;
+        for (int linea : geometria.lineasDe(casilla)) {
+            int base = 2 * linea;
+            evaluacion -= valorLinea(base);
+            contarAbierta(base, -1);
+            if (cuentas[base + indice]-- == geometria.getEnLinea()) completas[jugador]--;
+            evaluacion += valorLinea(base);
+            contarAbierta(base, 1);
+        }
+        if (vecinos != null) {
+            for (int v : geometria.vecinasDe(casilla)) vecinos[v]--;
+        }
+    }
+    
+    // Solo puntúan las líneas que aún puede completar un único jugador
+    private int valorLinea(int base) {
+        int humano = cuentas[base];
+        int ia = cuentas[base + 1];
+        if (humano > 0 && ia > 0) return 0;
+        return ia > 0 ? geometria.peso(ia) : -geometria.peso(humano);
+    }
+    
+    private void contarAbierta(int base, int signo) {
+        int humano = cuentas[base];
+        int ia = cuentas[base + 1];
+        if (ia == 0 && humano > 0) abiertas[Controller.HUMANO][humano] += signo;
+        else if (humano == 0 && ia > 0) abiertas[Controller.IA][ia] += signo;
+    }
+    
+    /**
+     * Jugador con alguna línea completa, o 0 si no hay.
+     */
+    public int getGanador() {
+        if (completas[Controller.HUMANO] > 0) return Controller.HUMANO;
+        if (completas[Controller.IA] > 0) return Controller.IA;
+        return 0;
+    }
+    
+    /**
+     * Líneas completas de {@code jugador}.
+     */
+    public int getLineasCompletas(int jugador) {
+        return completas[jugador];
+    }
+    
+    /**
+     * Mismo contrato que {@link Controller#verificarGanador()}.
+     */
+    public int resultado() {
+        int ganador = getGanador();
+        if (ganador != 0) return ganador;
+        return ocupadas == celdas.length ? -1 : 0;
+    }
+    
+    /**
+     * Primera casilla libre que completaría una línea de {@code jugador}, o -1.
+     */
+    public int casillaGanadora(int jugador) {
+        // Lo normal es que no haya ninguna y entonces no hace falta buscarla
+        if (abiertas[jugador][geometria.getEnLinea() - 1] == 0) return -1;
+        int enLinea = geometria.getEnLinea();
+        int propio = jugador - 1;
+        for (int linea = 0; linea < geometria.getNumLineas(); linea++) {
+            int base = 2 * linea;
+            if (cuentas[base + propio] == enLinea - 1 && cuentas[base + 1 - propio] == 0) {
+                for (int k = 0; k < enLinea; k++) {
+                    int casilla = geometria.casillaDeLinea(linea, k);
+                    if (celdas[casilla] == 0) return casilla;
+                }
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Casilla que gana ya para {@code jugador} o, si no la hay, la que bloquea la
+     * victoria inmediata del rival; -1 si ninguna.
+     */
+    public int movimientoForzado(int jugador) {
+        int casilla = casillaGanadora(jugador);
+        return casilla != -1 ? casilla : casillaGanadora(Controller.HUMANO + Controller.IA - jugador);
+    }
+    
+    /**
+     * Si merece la pena considerar la casilla en una búsqueda: en tableros grandes,
+     * solo las vecinas de fichas ya colocadas (o la preferida si está vacío).
+     */
+    public boolean esCandidata(int casilla) {
+        if (vecinos == null) return true;
+        if (ocupadas == 0) return casilla == geometria.getOrden()[0];
+        return vecinos[casilla] > 0;
+    }
+    
+    public boolean estaLibre(int casilla) {
+        return celdas[casilla] == 0;
+    }
+    
+    public int getCasilla(int casilla) {
+        return celdas[casilla];
+    }
+    
+    /**
+     * Máscara de bits del jugador; solo disponible en tableros de hasta 31 casillas.
+     */
+    public int getMascara(int jugador) {
+        if (celdas.length > 31) {
+            throw new IllegalStateException("Tablero demasiado grande para una máscara int");
+        }
+        return (int) bits[jugador][0];
+    }
+    
+    public void copiarCeldas(int[] destino) {
+        System.arraycopy(celdas, 0, destino, 0, celdas.length);
+    }
+    
+    /**
+     * Líneas con {@code fichas} fichas de {@code jugador} y ninguna del rival.
+     */
+    public int getLineasAbiertas(int jugador, int fichas) {
+        return abiertas[jugador][fichas];
+    }
+    
+    /**
+     * Evaluación heurística desde el punto de vista de la IA.
+     */
+    public int getEvaluacion() {
+        return evaluacion;
+    }
+    
+    public long getHash() {
+        return hash;
+    }
+    
+    /**
+     * Hash de la posición con {@code jugador} al turno; es la clave que usan la
+     * tabla de transposición y los libros de aperturas.
+     */
+    public long getClave(int jugador) {
+        return jugador == Controller.IA ? hash ^ geometria.getZobrist().getClaveTurno() : hash;
+    }
+    
+    public int getOcupadas() {
+        return ocupadas;
+    }
+    
+    public int getLibres() {
+        return celdas.length - ocupadas;
+    }
+    
+    /**
+     * La casilla libre número {@code k}, contando desde 0 en orden de casilla, o
+     * -1 si no hay tantas. Se busca palabra a palabra en las máscaras de bits, sin
+     * recorrer las celdas ni reservar memoria.
+     */
+    public int casillaLibre(int k) {
+        long[] humano = bits[Controller.HUMANO];
+        long[] ia = bits[Controller.IA];
+        for (int w = 0; w < humano.length; w++) {
+            long libres = ~(humano[w] | ia[w]);
+            int resto = celdas.length - (w << 6);
+            if (resto < 64) libres &= (1L << resto) - 1;
+            int cuenta = Long.bitCount(libres);
+            if (k < cuenta) {
+                for (; k > 0; k--) libres &= libres - 1;
+                return (w << 6) + Long.numberOfTrailingZeros(libres);
+            }
+            k -= cuenta;
+        }
+        return -1;
+    }
+    
+    public int getCasillas() {
+        return celdas.length;
+    }
+    
+    public Geometria getGeometria() {
+        return geometria;
+    }
+}
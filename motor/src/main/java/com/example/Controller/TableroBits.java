@@ -0,0 +1,164 @@
+package com.example.Controller;
+
+/**
+ * Utilidades de bitboard para el tablero 3x3.
+ *
+ * <p>Cada jugador se representa con una máscara de 9 bits donde el bit {@code i}
+ * corresponde a la casilla {@code i} (0..8, fila por fila). Las líneas ganadoras
+ * y las casillas que completan una línea se precalculan una sola vez, de modo que
+ * comprobar un ganador es una consulta a tabla sin reservar memoria.
+ */
+public final class TableroBits {
+    public static final int CASILLAS = 9;
+    public static final int LLENO = (1 << CASILLAS) - 1;
+    
+    private static final int[] LINEAS = {
+        0x007, 0x038, 0x1C0, // filas
+        0x049, 0x092, 0x124, // columnas
+        0x111, 0x054         // diagonales
+    };
+    
+    // GANADORA[m] indica si la máscara m contiene alguna línea completa
+    private static final boolean[] GANADORA = new boolean[1 << CASILLAS];
+    // COMPLETA[m] = casillas que, añadidas a m, cerrarían una línea
+    private static final int[] COMPLETA = new int[1 << CASILLAS];
+    
+    static {
+        for (int m = 0; m <= LLENO; m++) {
+            int completa = 0;
+            for (int linea : LINEAS) {
+                int comunes = m & linea;
+                if (comunes == linea) {
+                    GANADORA[m] = true;
+                } else if (Integer.bitCount(comunes) == 2) {
+                    completa |= linea & ~m;
+                }
+            }
+            COMPLETA[m] = completa;
+        }
+    }
+    
+    // Las 8 simetrías del cuadrado: PERMUTACION[t][i] = casilla destino de i
+    private static final int[][] PERMUTACION = {
+        {0, 1, 2, 3, 4, 5, 6, 7, 8}, // identidad
+        {2, 5, 8, 1, 4, 7, 0, 3, 6}, // giro 90
+        {8, 7, 6, 5, 4, 3, 2, 1, 0}, // giro 180
+        {6, 3, 0, 7, 4, 1, 8, 5, 2}, // giro 270
+        {2, 1, 0, 5, 4, 3, 8, 7, 6}, // espejo horizontal
+        {6, 7, 8, 3, 4, 5, 0, 1, 2}, // espejo vertical
+        {0, 3, 6, 1, 4, 7, 2, 5, 8}, // diagonal principal
+        {8, 5, 2, 7, 4, 1, 6, 3, 0}  // diagonal secundaria
+    };
+    public static final int SIMETRIAS = PERMUTACION.length;
+    public static final int POSICIONES = 19683; // 3^9
+    
+    // TRANSFORMADA[t][m] = máscara m tras aplicar la simetría t
+    private static final int[][] TRANSFORMADA = new int[SIMETRIAS][1 << CASILLAS];
+    // INVERSA[t][c] = casilla original que la simetría t lleva a c
+    private static final int[][] INVERSA = new int[SIMETRIAS][CASILLAS];
+    // BASE3[m] = suma de 3^i para cada bit i de m
+    private static final int[] BASE3 = new int[1 << CASILLAS];
+    
+    static {
+        for (int t = 0; t < SIMETRIAS; t++) {
+            for (int i = 0; i < CASILLAS; i++) {
+                INVERSA[t][PERMUTACION[t][i]] = i;
+            }
+            for (int m = 0; m <= LLENO; m++) {
+                int transformada = 0;
+                for (int i = 0; i < CASILLAS; i++) {
+                    if ((m & (1 << i)) != 0) transformada |= 1 << PERMUTACION[t][i];
+                }
+                TRANSFORMADA[t][m] = transformada;
+            }
+        }
+        for (int m = 0; m <= LLENO; m++) {
+            int valor = 0;
+            int potencia = 1;
+            for (int i = 0; i < CASILLAS; i++) {
+                if ((m & (1 << i)) != 0) valor += potencia;
+                potencia *= 3;
+            }
+            BASE3[m] = valor;
+        }
+    }
+    
+    private TableroBits() {
+    }
+    
+    /**
+     * Índice en base 3 de la posición (0 vacía, 1 propia, 2 rival), en el rango 0..3^9-1.
+     */
+    public static int indice(int propia, int rival) {
+        return BASE3[propia] + 2 * BASE3[rival];
+    }
+    
+    /**
+     * Índice mínimo entre las 8 simetrías de la posición. Devuelve
+     * {@code (indice << 3) | t}, donde {@code t} es la simetría que lo produce.
+     */
+    public static int canonico(int propia, int rival) {
+        int mejor = Integer.MAX_VALUE;
+        for (int t = 0; t < SIMETRIAS; t++) {
+            int indice = BASE3[TRANSFORMADA[t][propia]] + 2 * BASE3[TRANSFORMADA[t][rival]];
+            int clave = (indice << 3) | t;
+            if (clave < mejor) mejor = clave;
+        }
+        return mejor;
+    }
+    
+    public static int transformar(int simetria, int mascara) {
+        return TRANSFORMADA[simetria][mascara];
+    }
+    
+    /**
+     * Casilla a la que la simetría lleva {@code casilla}.
+     */
+    public static int transformarCasilla(int simetria, int casilla) {
+        return PERMUTACION[simetria][casilla];
+    }
+    
+    /**
+     * Devuelve la casilla del tablero original que la simetría lleva a {@code casilla}.
+     */
+    public static int destransformar(int simetria, int casilla) {
+        return INVERSA[simetria][casilla];
+    }
+    
+    public static int bit(int posicion) {
+        return 1 << posicion;
+    }
+    
+    public static boolean tieneLinea(int mascara) {
+        return GANADORA[mascara];
+    }
+    
+    /**
+     * Casillas libres que darían la victoria a quien tiene la máscara {@code propia}.
+     */
+    public static int casillasGanadoras(int propia, int ocupadas) {
+        return COMPLETA[propia] & ~ocupadas & LLENO;
+    }
+    
+    public static int libres(int humano, int ia) {
+        return ~(humano | ia) & LLENO;
+    }
+    
+    /**
+     * Mismo contrato que {@link Controller#verificarGanador()}: HUMANO, IA,
+     * -1 para empate y 0 si el juego continúa.
+     */
+    public static int ganador(int humano, int ia) {
+        if (GANADORA[humano]) return Controller.HUMANO;
+        if (GANADORA[ia]) return Controller.IA;
+        return (humano | ia) == LLENO ? -1 : 0;
+    }
+    
+    public static int lineas() {
+        return LINEAS.length;
+    }
+    
+    public static int linea(int indice) {
+        return LINEAS[indice];
+    }
+}
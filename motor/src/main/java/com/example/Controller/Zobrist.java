@@ -0,0 +1,33 @@
+package com.example.Controller;
+
+import java.util.SplittableRandom;
+
+/**
+ * Claves aleatorias de 64 bits por casilla y jugador para el hash de Zobrist.
+ *
+ * <p>El hash de una posición es el XOR de las claves de sus fichas y de la clave
+ * de turno cuando mueve la IA, así que hacer o deshacer un movimiento es un único XOR.
+ */
+public final class Zobrist {
+    private final long[] claves;
+    private final long claveTurno;
+    private final int casillas;
+    
+    public Zobrist(int casillas, long semilla) {
+        SplittableRandom random = new SplittableRandom(semilla);
+        this.casillas = casillas;
+        this.claves = new long[2 * casillas];
+        for (int i = 0; i < claves.length; i++) {
+            claves[i] = random.nextLong();
+        }
+        this.claveTurno = random.nextLong();
+    }
+    
+    public long clave(int jugador, int casilla) {
+        return claves[(jugador - 1) * casillas + casilla];
+    }
+    
+    public long getClaveTurno() {
+        return claveTurno;
+    }
+}
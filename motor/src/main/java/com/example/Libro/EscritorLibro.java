@@ -0,0 +1,122 @@
+package com.example.Libro;
+
+import com.example.Controller.Geometria;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reúne entradas en memoria y las escribe como archivo de libro.
+ *
+ * <p>La escritura va a un archivo temporal en el mismo directorio, se fuerza al
+ * disco y después se renombra sobre el destino, así que quien abra el libro ve
+ * el archivo anterior o el nuevo completo, nunca uno a medias.
+ */
+public class EscritorLibro {
+    private final Geometria geometria;
+    private long[] claves = new long[256];
+    private int[] movimientos = new int[256];
+    private int[] valores = new int[256];
+    private int[] visitas = new int[256];
+    private int tamano;
+    
+    public EscritorLibro(Geometria geometria) {
+        this.geometria = geometria;
+    }
+    
+    /**
+     * Añade una posición. Si la clave se repite, prevalece la última.
+     */
+    public void agregar(long clave, int movimiento, int valor, int visitas) {
+        if (movimiento < 0) {
+            throw new IllegalArgumentException("Movimiento no válido: " + movimiento);
+        }
+        if (tamano == claves.length) {
+            int nuevo = tamano * 2;
+            claves = Arrays.copyOf(claves, nuevo);
+            movimientos = Arrays.copyOf(movimientos, nuevo);
+            valores = Arrays.copyOf(valores, nuevo);
+            this.visitas = Arrays.copyOf(this.visitas, nuevo);
+        }
+        claves[tamano] = clave;
+        movimientos[tamano] = movimiento;
+        valores[tamano] = valor;
+        this.visitas[tamano] = visitas;
+        tamano++;
+    }
+    
+    public int getTamano() {
+        return tamano;
+    }
+    
+    public void escribir(Path destino) throws IOException {
+        // Ocupación máxima del 50% para que las búsquedas fallidas terminen pronto
+        int capacidad = Integer.highestOneBit(Math.max(2 * tamano, 8) - 1) << 1;
+        if (capacidad > FormatoLibro.CAPACIDAD_MAXIMA) {
+            throw new IOException("Demasiadas entradas para un libro: " + tamano);
+        }
+        Path absoluto = destino.toAbsolutePath();
+        Path temporal = Files.createTempFile(absoluto.getParent(), absoluto.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer datos = canal.map(FileChannel.MapMode.READ_WRITE, 0,
+                                                   FormatoLibro.desplazamiento(capacidad));
+                int entradas = rellenar(datos, capacidad);
+                escribirCabecera(datos, capacidad, entradas);
+                datos.force();
+            }
+            mover(temporal, absoluto);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporal);
+            throw e;
+        }
+    }
+    
+    private int rellenar(MappedByteBuffer datos, int capacidad) {
+        for (int i = 0; i < capacidad; i++) {
+            datos.putInt((int) FormatoLibro.desplazamiento(i) + FormatoLibro.DESP_MOVIMIENTO, -1);
+        }
+        int mascara = capacidad - 1;
+        int entradas = 0;
+        for (int e = 0; e < tamano; e++) {
+            int i = FormatoLibro.ranuraInicial(claves[e], capacidad);
+            int base = (int) FormatoLibro.desplazamiento(i);
+            while (datos.getInt(base + FormatoLibro.DESP_MOVIMIENTO) >= 0 && datos.getLong(base) != claves[e]) {
+                i = (i + 1) & mascara;
+                base = (int) FormatoLibro.desplazamiento(i);
+            }
+            if (datos.getInt(base + FormatoLibro.DESP_MOVIMIENTO) < 0) entradas++;
+            datos.putLong(base, claves[e]);
+            datos.putInt(base + FormatoLibro.DESP_MOVIMIENTO, movimientos[e]);
+            datos.putInt(base + FormatoLibro.DESP_VALOR, valores[e]);
+            datos.putInt(base + FormatoLibro.DESP_VISITAS, visitas[e]);
+        }
+        return entradas;
+    }
+    
+    private void escribirCabecera(MappedByteBuffer datos, int capacidad, int entradas) {
+        datos.putInt(0, FormatoLibro.MAGIA);
+        datos.putShort(FormatoLibro.POS_VERSION, FormatoLibro.VERSION);
+        datos.put(FormatoLibro.POS_LADO, (byte) geometria.getLado());
+        datos.put(FormatoLibro.POS_EN_LINEA, (byte) geometria.getEnLinea());
+        datos.putLong(FormatoLibro.POS_HUELLA, geometria.getZobrist().getClaveTurno());
+        datos.putInt(FormatoLibro.POS_ENTRADAS, entradas);
+        datos.putInt(FormatoLibro.POS_CAPACIDAD, capacidad);
+        datos.putInt(FormatoLibro.POS_CRC_DATOS, FormatoLibro.crc(datos, FormatoLibro.CABECERA, datos.capacity()));
+        datos.putInt(FormatoLibro.POS_CRC_CABECERA, FormatoLibro.crc(datos, 0, FormatoLibro.POS_CRC_CABECERA));
+    }
+    
+    private static void mover(Path temporal, Path destino) throws IOException {
+        try {
+            Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
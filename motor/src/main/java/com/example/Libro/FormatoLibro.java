@@ -0,0 +1,56 @@
+package com.example.Libro;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * Disposición binaria de los archivos de libro (versión 1).
+ *
+ * <p>Cabecera de 32 bytes: magia, versión, lado, fichas en línea, huella de las
+ * claves de Zobrist de la variante, número de entradas, capacidad (potencia de
+ * dos), CRC32 de las entradas y CRC32 de los 28 bytes anteriores. Detrás van
+ * {@code capacidad} entradas de 20 bytes formando una tabla hash con sondeo
+ * lineal: clave (long), movimiento (int, -1 si la ranura está vacía), valor (int)
+ * y visitas (int). Todo en big-endian.
+ */
+final class FormatoLibro {
+    static final int MAGIA = 0x54544C42; // "TTLB"
+    static final short VERSION = 1;
+    static final int CABECERA = 32;
+    static final int ENTRADA = 20;
+    
+    static final int POS_VERSION = 4;
+    static final int POS_LADO = 6;
+    static final int POS_EN_LINEA = 7;
+    static final int POS_HUELLA = 8;
+    static final int POS_ENTRADAS = 16;
+    static final int POS_CAPACIDAD = 20;
+    static final int POS_CRC_DATOS = 24;
+    static final int POS_CRC_CABECERA = 28;
+    
+    static final int DESP_MOVIMIENTO = 8;
+    static final int DESP_VALOR = 12;
+    static final int DESP_VISITAS = 16;
+    
+    // Una sola proyección de memoria no puede pasar de Integer.MAX_VALUE bytes
+    static final int CAPACIDAD_MAXIMA = 1 << 26;
+    
+    private FormatoLibro() {
+    }
+    
+    static long desplazamiento(int ranura) {
+        return CABECERA + (long) ranura * ENTRADA;
+    }
+    
+    static int ranuraInicial(long clave, int capacidad) {
+        return (int) clave & (capacidad - 1);
+    }
+    
+    static int crc(ByteBuffer buffer, int desde, int hasta) {
+        ByteBuffer vista = buffer.duplicate();
+        vista.limit(hasta).position(desde);
+        CRC32 crc = new CRC32();
+        crc.update(vista);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.Libro;
+
+import com.example.Aprendizaje.EntrenadorQ;
+import com.example.Aprendizaje.TablaQ;
+import com.example.Controller.BusquedaAlfaBeta;
+import com.example.Controller.Controller;
+import com.example.Controller.Geometria;
+import com.example.Controller.TablaPerfecta;
+import com.example.Controller.Tablero;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Genera un libro recorriendo todas las posiciones alcanzables hasta cierto número
+ * de jugadas y anotando en cada una el movimiento y el valor de una fuente:
+ *
+ * <ul>
+ * <li>{@code perfecta}: la {@link TablaPerfecta} (solo 3x3; valor -1, 0 o 1).</li>
+ * <li>{@code aprendiz}: la política aprendida por autojuego (solo 3x3; valor Q en milésimas).</li>
+ * <li>{@code busqueda}: alfa-beta con la profundidad y el tiempo indicados (valor de la búsqueda).</li>
+ * </ul>
+ *
+ * <p>Las visitas cuentan desde cuántas posiciones del libro se llega a cada una.
+ *
+ * <p>Uso: {@code GeneradorLibro --salida libro.bin --lado 3 --en-linea 3
+ * --fuente perfecta --jugadas 9 --profundidad 6 --tiempo 0}
+ */
+public class GeneradorLibro {
+    private final Geometria geometria;
+    private final String fuente;
+    private final Map<Long, int[]> posiciones = new HashMap<>();
+    private BusquedaAlfaBeta busqueda;
+    private TablaQ tablaQ;
+    
+    public GeneradorLibro(Geometria geometria, String fuente) {
+        boolean clasico = geometria.getLado() == 3 && geometria.getEnLinea() == 3;
+        switch (fuente) {
+            case "busqueda":
+                busqueda = new BusquedaAlfaBeta(20);
+                break;
+            case "aprendiz":
+                if (clasico) tablaQ = EntrenadorQ.tablaPorDefecto();
+                break;
+            case "perfecta":
+                break;
+            default:
+                throw new IllegalArgumentException("Fuente desconocida: " + fuente);
+        }
+        if (busqueda == null && !clasico) {
+            throw new IllegalArgumentException("La fuente " + fuente + " solo sirve para el 3x3");
+        }
+        this.geometria = geometria;
+        this.fuente = fuente;
+    }
+    
+    public void setProfundidadMaxima(int profundidad) {
+        if (busqueda != null) busqueda.setProfundidadMaxima(profundidad);
+    }
+    
+    public void setTiempoMaximo(long milisegundos) {
+        if (busqueda != null) busqueda.setTiempoMaximo(milisegundos);
+    }
+    
+    public EscritorLibro generar(int jugadas) {
+        posiciones.clear();
+        recorrer(new Tablero(geometria), Controller.HUMANO, jugadas);
+        EscritorLibro escritor = new EscritorLibro(geometria);
+        for (Map.Entry<Long, int[]> entrada : posiciones.entrySet()) {
+            int[] datos = entrada.getValue();
+            escritor.agregar(entrada.getKey(), datos[0], datos[1], datos[2]);
+        }
+        return escritor;
+    }
+    
+    private void recorrer(Tablero tablero, int jugador, int jugadas) {
+        if (jugadas == 0 || tablero.resultado() != 0) return;
+        long clave = tablero.getClave(jugador);
+        int[] datos = posiciones.get(clave);
+        if (datos != null) {
+            datos[2]++;
+            return;
+        }
+        posiciones.put(clave, evaluar(tablero, jugador));
+        
+        int rival = Controller.HUMANO + Controller.IA - jugador;
+        for (int casilla : geometria.getOrden()) {
+            if (!tablero.estaLibre(casilla) || !tablero.esCandidata(casilla)) continue;
+            tablero.mover(casilla, jugador);
+            recorrer(tablero, rival, jugadas - 1);
+            tablero.deshacer(casilla);
+        }
+    }
+    
+    // {movimiento, valor, visitas}
+    private int[] evaluar(Tablero tablero, int jugador) {
+        if (busqueda != null) {
+            int movimiento = busqueda.mejorMovimiento(tablero, jugador);
+            return new int[] {movimiento, busqueda.getUltimoValor(), 1};
+        }
+        int propia = tablero.getMascara(jugador);
+        int rival = tablero.getMascara(Controller.HUMANO + Controller.IA - jugador);
+        if (tablaQ != null) {
+            return new int[] {tablaQ.mejorMovimiento(propia, rival), Math.round(1000 * tablaQ.mejorValor(propia, rival)), 1};
+        }
+        TablaPerfecta perfecta = TablaPerfecta.getInstancia();
+        return new int[] {perfecta.mejorMovimiento(propia, rival), perfecta.valor(propia, rival), 1};
+    }
+    
+    public String getFuente() {
+        return fuente;
+    }
+    
+    public static void main(String[] args) throws IOException {
+        Path salida = Paths.get("libro.bin");
+        int lado = 3;
+        int enLinea = 3;
+        String fuente = null;
+        Integer jugadas = null;
+        int profundidad = 6;
+        long tiempo = 0;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String valor = args[i + 1];
+            switch (args[i]) {
+                case "--salida": salida = Paths.get(valor); break;
+                case "--lado": lado = Integer.parseInt(valor); break;
+                case "--en-linea": enLinea = Integer.parseInt(valor); break;
+                case "--fuente": fuente = valor; break;
+                case "--jugadas": jugadas = Integer.parseInt(valor); break;
+                case "--profundidad": profundidad = Integer.parseInt(valor); break;
+                case "--tiempo": tiempo = Long.parseLong(valor); break;
+                default: throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+        Geometria geometria = Geometria.de(lado, enLinea);
+        boolean clasico = lado == 3 && enLinea == 3;
+        GeneradorLibro generador = new GeneradorLibro(geometria, fuente != null ? fuente : clasico ? "perfecta" : "busqueda");
+        generador.setProfundidadMaxima(profundidad);
+        generador.setTiempoMaximo(tiempo);
+        
+        long inicio = System.nanoTime();
+        EscritorLibro escritor = generador.generar(jugadas != null ? jugadas : clasico ? geometria.getCasillas() : 2);
+        escritor.escribir(salida);
+        LibroAperturas libro = LibroAperturas.abrir(salida);
+        System.out.printf("%d posiciones (%s) en %s, %.3f s, suma %s%n", libro.getEntradas(), generador.getFuente(),
+            salida, (System.nanoTime() - inicio) / 1e9, libro.verificar() ? "correcta" : "INCORRECTA");
+    }
+}
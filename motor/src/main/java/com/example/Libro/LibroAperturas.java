@@ -0,0 +1,125 @@
+package com.example.Libro;
+
+import com.example.Controller.Geometria;
+import com.example.Controller.Tablero;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Libro de posiciones (movimiento, valor y visitas por clave de Zobrist) leído
+ * directamente de un archivo proyectado en memoria.
+ *
+ * <p>Abrir el libro solo lee y valida la cabecera; las entradas se quedan en el
+ * archivo y el sistema trae cada página la primera vez que una consulta cae en
+ * ella, así que el arranque y el uso de heap no dependen del tamaño del libro. La
+ * suma de comprobación de las entradas se verifica aparte con {@link #verificar()}
+ * porque obliga a leerlo entero. Las consultas solo leen y pueden hacerse desde
+ * varios hilos.
+ */
+public final class LibroAperturas {
+    private final MappedByteBuffer datos;
+    private final int lado;
+    private final int enLinea;
+    private final long huella;
+    private final int entradas;
+    private final int capacidad;
+    private final int crcDatos;
+    
+    private LibroAperturas(MappedByteBuffer datos) throws IOException {
+        this.datos = datos;
+        if (datos.capacity() < FormatoLibro.CABECERA || datos.getInt(0) != FormatoLibro.MAGIA) {
+            throw new IOException("No es un archivo de libro");
+        }
+        short version = datos.getShort(FormatoLibro.POS_VERSION);
+        if (version != FormatoLibro.VERSION) {
+            throw new IOException("Versión de libro no soportada: " + version);
+        }
+        if (FormatoLibro.crc(datos, 0, FormatoLibro.POS_CRC_CABECERA) != datos.getInt(FormatoLibro.POS_CRC_CABECERA)) {
+            throw new IOException("Cabecera de libro dañada");
+        }
+        this.lado = datos.get(FormatoLibro.POS_LADO);
+        this.enLinea = datos.get(FormatoLibro.POS_EN_LINEA);
+        this.huella = datos.getLong(FormatoLibro.POS_HUELLA);
+        this.entradas = datos.getInt(FormatoLibro.POS_ENTRADAS);
+        this.capacidad = datos.getInt(FormatoLibro.POS_CAPACIDAD);
+        this.crcDatos = datos.getInt(FormatoLibro.POS_CRC_DATOS);
+        if (Integer.bitCount(capacidad) != 1 || capacidad > FormatoLibro.CAPACIDAD_MAXIMA
+            || entradas < 0 || entradas >= capacidad
+            || datos.capacity() != FormatoLibro.desplazamiento(capacidad)) {
+            throw new IOException("Tamaño de libro incoherente");
+        }
+    }
+    
+    public static LibroAperturas abrir(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            // La proyección sigue siendo válida después de cerrar el canal
+            return new LibroAperturas(canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size()));
+        }
+    }
+    
+    /**
+     * Si el libro se generó para esta variante y con las mismas claves de Zobrist.
+     */
+    public boolean admite(Geometria geometria) {
+        return geometria.getLado() == lado && geometria.getEnLinea() == enLinea
+            && geometria.getZobrist().getClaveTurno() == huella;
+    }
+    
+    /**
+     * Ranura de la posición con {@code jugador} al turno, o -1 si no está en el libro.
+     */
+    public int buscar(Tablero posicion, int jugador) {
+        return buscar(posicion.getClave(jugador));
+    }
+    
+    public int buscar(long clave) {
+        int mascara = capacidad - 1;
+        for (int i = FormatoLibro.ranuraInicial(clave, capacidad); ; i = (i + 1) & mascara) {
+            int base = (int) FormatoLibro.desplazamiento(i);
+            if (datos.getInt(base + FormatoLibro.DESP_MOVIMIENTO) < 0) return -1;
+            if (datos.getLong(base) == clave) return i;
+        }
+    }
+    
+    public int movimiento(int ranura) {
+        return datos.getInt((int) FormatoLibro.desplazamiento(ranura) + FormatoLibro.DESP_MOVIMIENTO);
+    }
+    
+    /**
+     * Valor de la posición desde el punto de vista de quien mueve, en la escala de
+     * la fuente que generó el libro.
+     */
+    public int valor(int ranura) {
+        return datos.getInt((int) FormatoLibro.desplazamiento(ranura) + FormatoLibro.DESP_VALOR);
+    }
+    
+    public int visitas(int ranura) {
+        return datos.getInt((int) FormatoLibro.desplazamiento(ranura) + FormatoLibro.DESP_VISITAS);
+    }
+    
+    /**
+     * Comprueba la suma de las entradas. Lee el archivo completo.
+     */
+    public boolean verificar() {
+        return FormatoLibro.crc(datos, FormatoLibro.CABECERA, datos.capacity()) == crcDatos;
+    }
+    
+    public int getLado() {
+        return lado;
+    }
+    
+    public int getEnLinea() {
+        return enLinea;
+    }
+    
+    public int getEntradas() {
+        return entradas;
+    }
+    
+    public int getCapacidad() {
+        return capacidad;
+    }
+}
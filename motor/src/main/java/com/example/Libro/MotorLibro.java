@@ -0,0 +1,73 @@
+package com.example.Libro;
+
+import com.example.Controller.Motor;
+import com.example.Controller.OrigenJugada;
+import com.example.Controller.Tablero;
+
+/**
+ * Juega la jugada del libro mientras la posición esté en él y, fuera del libro,
+ * delega en otro motor.
+ */
+public class MotorLibro implements Motor {
+    private final LibroAperturas libro;
+    private final Motor respaldo;
+    private long nodos;
+    private long evaluaciones;
+    private boolean desdeLibro;
+    
+    public MotorLibro(LibroAperturas libro, Motor respaldo) {
+        this.libro = libro;
+        this.respaldo = respaldo;
+    }
+    
+    @Override
+    public int mejorMovimiento(Tablero posicion, int jugador) {
+        nodos = 0;
+        evaluaciones = 0;
+        desdeLibro = false;
+        if (posicion.resultado() != 0) return respaldo.mejorMovimiento(posicion, jugador);
+        if (libro.admite(posicion.getGeometria())) {
+            int ranura = libro.buscar(posicion, jugador);
+            if (ranura >= 0) {
+                int movimiento = libro.movimiento(ranura);
+                if (movimiento < posicion.getCasillas() && posicion.estaLibre(movimiento)) {
+                    desdeLibro = true;
+                    return movimiento;
+                }
+            }
+        }
+        int movimiento = respaldo.mejorMovimiento(posicion, jugador);
+        nodos = respaldo.getNodos();
+        evaluaciones = respaldo.getEvaluaciones();
+        return movimiento;
+    }
+    
+    @Override
+    public void cancelar() {
+        respaldo.cancelar();
+    }
+    
+    @Override
+    public OrigenJugada getOrigen() {
+        return desdeLibro ? OrigenJugada.LIBRO : respaldo.getOrigen();
+    }
+    
+    @Override
+    public int getProfundidadAlcanzada() {
+        return desdeLibro ? 0 : respaldo.getProfundidadAlcanzada();
+    }
+    
+    public LibroAperturas getLibro() {
+        return libro;
+    }
+    
+    @Override
+    public long getNodos() {
+        return nodos;
+    }
+    
+    @Override
+    public long getEvaluaciones() {
+        return evaluaciones;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.Metricas;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de JFR por cada jugada calculada por la IA. Solo cuesta algo mientras
+ * haya una grabación que lo tenga activado, por ejemplo con
+ * {@code -XX:StartFlightRecording:filename=ia.jfr}; la duración del evento es la
+ * del cálculo.
+ */
+@Name("com.example.MovimientoIA")
+@Label("Movimiento de la IA")
+@Category({"Tres en raya", "IA"})
+@Description("Jugada calculada por la IA: modo, origen, nodos, profundidad y casilla elegida")
+@StackTrace(false)
+public class EventoMovimientoIA extends Event {
+    @Label("Modo")
+    public String modo;
+    
+    @Label("Origen")
+    @Description("De dónde salió la jugada: forzada, tabla, libro, busqueda, aprendiz, preferencia o azar")
+    public String origen;
+    
+    @Label("Lado")
+    public int lado;
+    
+    @Label("En línea")
+    public int enLinea;
+    
+    @Label("Nodos")
+    public long nodos;
+    
+    @Label("Evaluaciones")
+    public long evaluaciones;
+    
+    @Label("Profundidad")
+    public int profundidad;
+    
+    @Label("Movimiento")
+    public int movimiento;
+    
+    @Label("Consultas a la tabla de transposición")
+    public long consultasTabla;
+    
+    @Label("Aciertos en la tabla de transposición")
+    public long aciertosTabla;
+}
@@ -0,0 +1,266 @@
+package com.example.Metricas;
+
+import com.example.Controller.OrigenJugada;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Contadores de la IA para todo el proceso: jugadas por modo y por origen, nodos,
+ * aciertos de la tabla de transposición y del libro, e histogramas de latencia por
+ * modo.
+ *
+ * <p>Están apagados salvo que se arranque con {@code -Dtictactoe.metricas=true};
+ * así {@link #activa()} es una constante falsa y el coste por jugada es nulo. Al
+ * encenderlos se registra el MBean {@code com.example:type=MetricasMotor}. Los
+ * contadores son {@link LongAdder} para que muchas partidas a la vez no compitan
+ * por la misma línea de caché.
+ *
+ * <p>Cada histograma tiene cubetas de potencias de dos en microsegundos: la
+ * cubeta {@code i} cuenta las jugadas de menos de {@code 2^i} µs, y la última,
+ * todas las demás. Los percentiles que se derivan de ellas son ese límite superior.
+ */
+public final class MetricasMotor implements MetricasMotorMXBean {
+    public static final int FACIL = 0;
+    public static final int DIFICIL = 1;
+    public static final int APRENDIZ = 2;
+    public static final int MONTECARLO = 3;
+    public static final int NIVEL = 4;
+    private static final String[] MODOS = {"facil", "dificil", "aprendiz", "montecarlo", "nivel"};
+    
+    static final int CUBETAS = 32;
+    private static final boolean HABILITADAS = Boolean.getBoolean("tictactoe.metricas");
+    private static final OrigenJugada[] ORIGENES = OrigenJugada.values();
+    
+    private volatile boolean activas = true;
+    private final LongAdder[] porModo = adders(MODOS.length);
+    private final LongAdder[] porOrigen = adders(ORIGENES.length);
+    private final LongAdder nodos = new LongAdder();
+    private final LongAdder evaluaciones = new LongAdder();
+    // Tiempo de las jugadas que evaluaron posiciones, para sacar el ritmo
+    private final LongAdder nanosEvaluando = new LongAdder();
+    private final LongAdder consultasTabla = new LongAdder();
+    private final LongAdder aciertosTabla = new LongAdder();
+    private final LongAdder consultasLibro = new LongAdder();
+    private final LongAdder aciertosLibro = new LongAdder();
+    private final LongAdder[][] histogramas = new LongAdder[MODOS.length][];
+    private final LongAccumulator[] maximos = new LongAccumulator[MODOS.length];
+    
+    private MetricasMotor() {
+        for (int m = 0; m < MODOS.length; m++) {
+            histogramas[m] = adders(CUBETAS);
+            maximos[m] = new LongAccumulator(Math::max, 0);
+        }
+    }
+    
+    private static final class Holder {
+        static final MetricasMotor INSTANCIA = registrar(new MetricasMotor());
+    }
+    
+    private static MetricasMotor registrar(MetricasMotor metricas) {
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                .registerMBean(metricas, new ObjectName("com.example:type=MetricasMotor"));
+        } catch (JMException e) {
+            // Sin JMX se sigue contando; los valores quedan accesibles desde el código
+            System.err.println("No se pudo registrar MetricasMotor en JMX: " + e.getMessage());
+        }
+        return metricas;
+    }
+    
+    /**
+     * Las métricas si están habilitadas y activas; si no, {@code null} y no hay
+     * nada que medir.
+     */
+    public static MetricasMotor activa() {
+        if (!HABILITADAS) return null;
+        MetricasMotor metricas = Holder.INSTANCIA;
+        return metricas.activas ? metricas : null;
+    }
+    
+    private static LongAdder[] adders(int n) {
+        LongAdder[] adders = new LongAdder[n];
+        for (int i = 0; i < n; i++) adders[i] = new LongAdder();
+        return adders;
+    }
+    
+    static int cubeta(long nanos) {
+        long micros = nanos / 1000;
+        return Math.min(CUBETAS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+    
+    /**
+     * Registra una jugada de la IA.
+     *
+     * @param modo {@link #FACIL}, {@link #DIFICIL}, {@link #APRENDIZ}, {@link #MONTECARLO} o {@link #NIVEL}
+     * @param evaluacionesJugada posiciones que valoró el evaluador de la búsqueda
+     * @param consultoLibro si el motor miró el libro antes de jugar
+     */
+    public void registrar(int modo, OrigenJugada origen, long nodosJugada, long evaluacionesJugada, long nanos,
+                          long consultas, long aciertos, boolean consultoLibro) {
+        porModo[modo].increment();
+        porOrigen[origen.ordinal()].increment();
+        if (nodosJugada != 0) nodos.add(nodosJugada);
+        if (evaluacionesJugada != 0) {
+            evaluaciones.add(evaluacionesJugada);
+            nanosEvaluando.add(nanos);
+        }
+        if (consultas != 0) {
+            consultasTabla.add(consultas);
+            aciertosTabla.add(aciertos);
+        }
+        if (consultoLibro) {
+            consultasLibro.increment();
+            if (origen == OrigenJugada.LIBRO) aciertosLibro.increment();
+        }
+        histogramas[modo][cubeta(nanos)].increment();
+        maximos[modo].accumulate(nanos);
+    }
+    
+    @Override
+    public boolean isActivas() {
+        return activas;
+    }
+    
+    @Override
+    public void setActivas(boolean activas) {
+        this.activas = activas;
+    }
+    
+    @Override
+    public long getMovimientos() {
+        long total = 0;
+        for (LongAdder adder : porModo) total += adder.sum();
+        return total;
+    }
+    
+    @Override
+    public long getNodos() {
+        return nodos.sum();
+    }
+    
+    @Override
+    public long getEvaluaciones() {
+        return evaluaciones.sum();
+    }
+    
+    @Override
+    public double getEvaluacionesPorSegundo() {
+        long nanos = nanosEvaluando.sum();
+        return nanos == 0 ? 0 : evaluaciones.sum() * 1e9 / nanos;
+    }
+    
+    @Override
+    public Map<String, Long> getMovimientosPorModo() {
+        Map<String, Long> mapa = new LinkedHashMap<>();
+        for (int m = 0; m < MODOS.length; m++) mapa.put(MODOS[m], porModo[m].sum());
+        return mapa;
+    }
+    
+    @Override
+    public Map<String, Long> getMovimientosPorOrigen() {
+        Map<String, Long> mapa = new LinkedHashMap<>();
+        for (OrigenJugada origen : ORIGENES) mapa.put(origen.getNombre(), porOrigen[origen.ordinal()].sum());
+        return mapa;
+    }
+    
+    @Override
+    public double getTasaForzadas() {
+        return tasa(porOrigen[OrigenJugada.FORZADA.ordinal()].sum(), getMovimientos());
+    }
+    
+    @Override
+    public double getTasaAciertosTransposicion() {
+        return tasa(aciertosTabla.sum(), consultasTabla.sum());
+    }
+    
+    @Override
+    public double getTasaAciertosLibro() {
+        return tasa(aciertosLibro.sum(), consultasLibro.sum());
+    }
+    
+    private static double tasa(long parte, long total) {
+        return total == 0 ? 0 : (double) parte / total;
+    }
+    
+    @Override
+    public long[] getLimitesHistogramaMicros() {
+        long[] limites = new long[CUBETAS];
+        for (int i = 0; i < CUBETAS - 1; i++) limites[i] = 1L << i;
+        limites[CUBETAS - 1] = Long.MAX_VALUE;
+        return limites;
+    }
+    
+    @Override
+    public Map<String, long[]> getHistogramasLatencia() {
+        Map<String, long[]> mapa = new LinkedHashMap<>();
+        for (int m = 0; m < MODOS.length; m++) mapa.put(MODOS[m], histograma(m));
+        return mapa;
+    }
+    
+    private long[] histograma(int modo) {
+        long[] cuentas = new long[CUBETAS];
+        for (int i = 0; i < CUBETAS; i++) cuentas[i] = histogramas[modo][i].sum();
+        return cuentas;
+    }
+    
+    @Override
+    public Map<String, Long> getLatenciaP50Micros() {
+        return percentiles(0.50);
+    }
+    
+    @Override
+    public Map<String, Long> getLatenciaP99Micros() {
+        return percentiles(0.99);
+    }
+    
+    @Override
+    public Map<String, Long> getLatenciaMaximaMicros() {
+        Map<String, Long> mapa = new LinkedHashMap<>();
+        for (int m = 0; m < MODOS.length; m++) mapa.put(MODOS[m], maximos[m].get() / 1000);
+        return mapa;
+    }
+    
+    private Map<String, Long> percentiles(double p) {
+        Map<String, Long> mapa = new LinkedHashMap<>();
+        long[] limites = getLimitesHistogramaMicros();
+        for (int m = 0; m < MODOS.length; m++) {
+            long[] cuentas = histograma(m);
+            long total = 0;
+            for (long cuenta : cuentas) total += cuenta;
+            long objetivo = (long) Math.ceil(p * total);
+            long acumulado = 0;
+            long valor = 0;
+            for (int i = 0; i < CUBETAS && total > 0; i++) {
+                acumulado += cuentas[i];
+                if (acumulado >= objetivo) {
+                    valor = i == CUBETAS - 1 ? maximos[m].get() / 1000 : limites[i];
+                    break;
+                }
+            }
+            mapa.put(MODOS[m], valor);
+        }
+        return mapa;
+    }
+    
+    @Override
+    public void reiniciar() {
+        for (LongAdder adder : porModo) adder.reset();
+        for (LongAdder adder : porOrigen) adder.reset();
+        nodos.reset();
+        evaluaciones.reset();
+        nanosEvaluando.reset();
+        consultasTabla.reset();
+        aciertosTabla.reset();
+        consultasLibro.reset();
+        aciertosLibro.reset();
+        for (int m = 0; m < MODOS.length; m++) {
+            for (LongAdder adder : histogramas[m]) adder.reset();
+            maximos[m].reset();
+        }
+    }
+}
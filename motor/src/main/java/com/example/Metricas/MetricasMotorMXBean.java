@@ -0,0 +1,59 @@
+package com.example.Metricas;
+
+import java.util.Map;
+
+/**
+ * Vista JMX de {@link MetricasMotor}, registrada como
+ * {@code com.example:type=MetricasMotor}. Los mapas van indexados por modo
+ * ({@code facil}, {@code dificil}, {@code aprendiz}, {@code montecarlo}, {@code nivel}) u origen de la jugada.
+ */
+public interface MetricasMotorMXBean {
+    /**
+     * Si se están contando jugadas; apagarlo deja los contadores como están.
+     */
+    boolean isActivas();
+    
+    void setActivas(boolean activas);
+    
+    long getMovimientos();
+    
+    long getNodos();
+    
+    /**
+     * Posiciones valoradas por el evaluador al final de la búsqueda.
+     */
+    long getEvaluaciones();
+    
+    /**
+     * Evaluaciones por segundo en las jugadas que evaluaron alguna posición.
+     */
+    double getEvaluacionesPorSegundo();
+    
+    Map<String, Long> getMovimientosPorModo();
+    
+    Map<String, Long> getMovimientosPorOrigen();
+    
+    /**
+     * Fracción de jugadas resueltas sin buscar ni consultar tablas (ganar o bloquear).
+     */
+    double getTasaForzadas();
+    
+    double getTasaAciertosTransposicion();
+    
+    double getTasaAciertosLibro();
+    
+    /**
+     * Límite superior, exclusivo, de cada cubeta de los histogramas.
+     */
+    long[] getLimitesHistogramaMicros();
+    
+    Map<String, long[]> getHistogramasLatencia();
+    
+    Map<String, Long> getLatenciaP50Micros();
+    
+    Map<String, Long> getLatenciaP99Micros();
+    
+    Map<String, Long> getLatenciaMaximaMicros();
+    
+    void reiniciar();
+}
@@ -0,0 +1,167 @@
+package com.example.Montecarlo;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Árbol de la búsqueda Monte Carlo guardado en arrays de primitivos: un nodo es
+ * un índice, y crear uno es avanzar un contador, así que buscar no crea objetos.
+ *
+ * <p>Los hijos de un nodo ocupan posiciones consecutivas y se crean todos a la
+ * vez al expandirlo. Visitas y puntos van juntos en un {@code long} (visitas en
+ * la mitad alta) para actualizarlos con una sola operación atómica; los puntos
+ * son medios puntos desde el punto de vista de quien hizo la jugada que lleva al
+ * nodo: 2 si ganó, 1 si empató.
+ *
+ * <p>Varios hilos pueden recorrer y actualizar el mismo árbol. Solo uno expande
+ * cada nodo (el que gana {@link #reservar(int)}); los hijos se publican al
+ * escribir {@code primerHijo}, después de inicializarlos.
+ */
+final class ArbolMontecarlo {
+    static final int RAIZ = 0;
+    static final int SIN_EXPANDIR = -1;
+    static final int EXPANDIENDO = -2;
+    // No quedaba sitio en el árbol para sus hijos: se queda como hoja
+    static final int SIN_SITIO = -3;
+    
+    private static final long UNA_VISITA = 1L << 32;
+    
+    private final int capacidad;
+    private final int[] casillas;
+    private final int[] numHijos;
+    private final AtomicIntegerArray primerHijo;
+    private final AtomicLongArray estadisticas;
+    private final AtomicInteger siguienteLibre = new AtomicInteger();
+    
+    ArbolMontecarlo(int capacidad) {
+        this.capacidad = capacidad;
+        this.casillas = new int[capacidad];
+        this.numHijos = new int[capacidad];
+        this.primerHijo = new AtomicIntegerArray(capacidad);
+        this.estadisticas = new AtomicLongArray(capacidad);
+        reiniciar();
+    }
+    
+    /**
+     * Vacía el árbol dejando solo la raíz. Los demás nodos se inicializan al
+     * volver a crearlos, así que no hace falta recorrerlos.
+     */
+    void reiniciar() {
+        siguienteLibre.set(RAIZ + 1);
+        iniciar(RAIZ, -1);
+    }
+    
+    private void iniciar(int nodo, int casilla) {
+        casillas[nodo] = casilla;
+        numHijos[nodo] = 0;
+        estadisticas.set(nodo, 0L);
+        primerHijo.set(nodo, SIN_EXPANDIR);
+    }
+    
+    /**
+     * Intenta quedarse con la expansión del nodo; falso si ya está expandido o lo
+     * está expandiendo otro hilo.
+     */
+    boolean reservar(int nodo) {
+        return primerHijo.compareAndSet(nodo, SIN_EXPANDIR, EXPANDIENDO);
+    }
+    
+    /**
+     * Crea los hijos de un nodo reservado, uno por cada una de las {@code n}
+     * primeras casillas del array. Devuelve el índice del primero, o
+     * {@link #SIN_SITIO} si no caben.
+     */
+    int expandir(int nodo, int[] jugadas, int n) {
+        int primero = siguienteLibre.getAndAdd(n);
+        if (primero > capacidad - n) {
+            primerHijo.set(nodo, SIN_SITIO);
+            return SIN_SITIO;
+        }
+        for (int i = 0; i < n; i++) {
+            iniciar(primero + i, jugadas[i]);
+        }
+        numHijos[nodo] = n;
+        primerHijo.set(nodo, primero);
+        return primero;
+    }
+    
+    /**
+     * Primer hijo del nodo, o {@link #SIN_EXPANDIR}, {@link #EXPANDIENDO} o
+     * {@link #SIN_SITIO}.
+     */
+    int getPrimerHijo(int nodo) {
+        return primerHijo.get(nodo);
+    }
+    
+    /**
+     * Casilla de la jugada que lleva al nodo.
+     */
+    int getCasilla(int nodo) {
+        return casillas[nodo];
+    }
+    
+    int getVisitas(int nodo) {
+        return (int) (estadisticas.get(nodo) >>> 32);
+    }
+    
+    /**
+     * Hijo de un nodo expandido con mayor cota UCT. Los hijos sin visitar van
+     * antes que ninguno, en el orden en que se crearon.
+     */
+    int seleccionar(int nodo, double exploracion) {
+        int primero = primerHijo.get(nodo);
+        int fin = primero + numHijos[nodo];
+        double logPadre = Math.log(Math.max(1, getVisitas(nodo)));
+        int mejor = primero;
+        double mejorValor = Double.NEGATIVE_INFINITY;
+        for (int hijo = primero; hijo < fin; hijo++) {
+            long valores = estadisticas.get(hijo);
+            int visitas = (int) (valores >>> 32);
+            if (visitas == 0) return hijo;
+            double media = (int) valores / (2.0 * visitas);
+            double valor = media + exploracion * Math.sqrt(logPadre / visitas);
+            if (valor > mejorValor) {
+                mejorValor = valor;
+                mejor = hijo;
+            }
+        }
+        return mejor;
+    }
+    
+    /**
+     * Cuenta {@code perdida} visitas sin puntos, para que otros hilos prefieran
+     * otra rama mientras esta se simula. Devuelve las visitas que tenía antes.
+     */
+    int sumarPerdidaVirtual(int nodo, int perdida) {
+        return (int) (estadisticas.getAndAdd(nodo, perdida * UNA_VISITA) >>> 32);
+    }
+    
+    /**
+     * Cierra una visita que empezó con {@link #sumarPerdidaVirtual}: deja una
+     * visita real y suma los puntos.
+     */
+    void actualizar(int nodo, int perdida, int puntos) {
+        estadisticas.getAndAdd(nodo, (1 - perdida) * UNA_VISITA + puntos);
+    }
+    
+    /**
+     * Hijo de la raíz con más visitas, o -1 si no está expandida.
+     */
+    int masVisitado() {
+        int primero = primerHijo.get(RAIZ);
+        if (primero < 0) return -1;
+        int mejor = primero;
+        for (int hijo = primero + 1; hijo < primero + numHijos[RAIZ]; hijo++) {
+            if (getVisitas(hijo) > getVisitas(mejor)) mejor = hijo;
+        }
+        return mejor;
+    }
+    
+    /**
+     * Nodos en uso.
+     */
+    int getTamano() {
+        return Math.min(siguienteLibre.get(), capacidad);
+    }
+}
@@ -0,0 +1,380 @@
+package com.example.Montecarlo;
+
+import com.example.Controller.Controller;
+import com.example.Controller.Motor;
+import com.example.Controller.OrigenJugada;
+import com.example.Controller.Tablero;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Búsqueda de árbol Monte Carlo (UCT) para los tableros en los que alfa-beta no
+ * llega a ver el final de la partida.
+ *
+ * <p>Cada iteración baja por el árbol eligiendo el hijo con mayor cota UCT,
+ * expande la primera hoja ya visitada, juega desde ella una partida simulada y
+ * sube el resultado. Las simulaciones ganan o bloquean si pueden y, si no, juegan
+ * al azar; no crean objetos. Se para al cumplir el número de iteraciones o el
+ * tiempo máximo, lo primero que llegue, y juega el hijo de la raíz más visitado.
+ *
+ * <p>Con varios hilos todos comparten el mismo árbol. Cada nodo por el que pasa
+ * un hilo cuenta visitas de pérdida virtual hasta que su simulación termina, para
+ * que los demás hilos se repartan por otras ramas. Con un solo hilo y sin tiempo
+ * máximo, la misma semilla da siempre la misma jugada.
+ */
+public class MotorMontecarlo implements Motor {
+    public static final int CAPACIDAD = 1 << 18;
+    // Visitas sin puntos que suma cada hilo en los nodos que está simulando
+    private static final int PERDIDA_VIRTUAL = 3;
+    // Iteraciones entre dos consultas del reloj
+    private static final int COMPROBAR_TIEMPO = 64;
+    
+    private final SplittableRandom random;
+    private final int capacidad;
+    private int iteraciones = 20_000;
+    private long tiempoMaximo;
+    private double exploracion = Math.sqrt(2);
+    private int hilos = 1;
+    // Se crean al primer uso: el árbol ocupa varios MiB
+    private ArbolMontecarlo arbol;
+    private Trabajador[] trabajadores;
+    private ExecutorService ejecutor;
+    
+    private final AtomicInteger iniciadas = new AtomicInteger();
+    private volatile boolean cancelada;
+    private long limite;
+    private long simulaciones;
+    private long nanos;
+    private int profundidad;
+    private OrigenJugada origen = OrigenJugada.NINGUNA;
+    
+    public MotorMontecarlo(SplittableRandom random) {
+        this(random, CAPACIDAD);
+    }
+    
+    /**
+     * @param capacidad nodos como máximo en el árbol; al llenarse se sigue
+     *                  simulando desde las hojas sin expandirlas
+     */
+    public MotorMontecarlo(SplittableRandom random, int capacidad) {
+        this.random = random;
+        this.capacidad = capacidad;
+    }
+    
+    @Override
+    public int mejorMovimiento(Tablero posicion, int jugador) {
+        simulaciones = 0;
+        nanos = 0;
+        profundidad = 0;
+        origen = OrigenJugada.NINGUNA;
+        if (posicion.resultado() != 0) return -1;
+        int movimiento = posicion.movimientoForzado(jugador);
+        if (movimiento != -1) {
+            origen = OrigenJugada.FORZADA;
+            return movimiento;
+        }
+        
+        origen = OrigenJugada.MONTECARLO;
+        long inicio = System.nanoTime();
+        if (arbol == null) arbol = new ArbolMontecarlo(capacidad);
+        arbol.reiniciar();
+        iniciadas.set(0);
+        cancelada = false;
+        limite = tiempoMaximo > 0 ? inicio + tiempoMaximo * 1_000_000 : Long.MAX_VALUE;
+        preparar(posicion, jugador);
+        
+        if (trabajadores.length == 1) {
+            trabajadores[0].run();
+        } else {
+            buscarEnParalelo();
+        }
+        for (Trabajador trabajador : trabajadores) {
+            simulaciones += trabajador.simulaciones;
+            profundidad = Math.max(profundidad, trabajador.profundidad);
+        }
+        nanos = System.nanoTime() - inicio;
+        int mejor = arbol.masVisitado();
+        return mejor == -1 ? primeraLibre(posicion) : arbol.getCasilla(mejor);
+    }
+    
+    private void preparar(Tablero posicion, int jugador) {
+        if (trabajadores == null || trabajadores.length != hilos) {
+            trabajadores = new Trabajador[hilos];
+        }
+        for (int h = 0; h < hilos; h++) {
+            if (trabajadores[h] == null || trabajadores[h].celdas != posicion.getCasillas()) {
+                trabajadores[h] = new Trabajador(posicion.getCasillas());
+            }
+            trabajadores[h].preparar(posicion, jugador, random.nextLong());
+        }
+    }
+    
+    // El hilo que llama hace de un trabajador más
+    private void buscarEnParalelo() {
+        if (ejecutor == null) {
+            ejecutor = Executors.newFixedThreadPool(hilos - 1, r -> {
+                Thread hilo = new Thread(r, "montecarlo");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        }
+        List<Future<?>> pendientes = new ArrayList<>(hilos - 1);
+        for (int h = 1; h < hilos; h++) {
+            pendientes.add(ejecutor.submit(trabajadores[h]));
+        }
+        trabajadores[0].run();
+        try {
+            for (Future<?> pendiente : pendientes) {
+                pendiente.get();
+            }
+        } catch (InterruptedException e) {
+            cancelada = true;
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falló un hilo de la búsqueda", e.getCause());
+        }
+    }
+    
+    private static int primeraLibre(Tablero posicion) {
+        for (int pos : posicion.getGeometria().getOrden()) {
+            if (posicion.estaLibre(pos)) return pos;
+        }
+        return -1;
+    }
+    
+    private boolean quedaPresupuesto(Trabajador trabajador) {
+        if (cancelada) return false;
+        if (iteraciones > 0 && iniciadas.getAndIncrement() >= iteraciones) return false;
+        if (trabajador.simulaciones % COMPROBAR_TIEMPO == 0 && System.nanoTime() - limite > 0) {
+            cancelada = true;
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Simulaciones por jugada (0 sin límite, entonces manda el tiempo).
+     */
+    public void setIteraciones(int iteraciones) {
+        this.iteraciones = iteraciones;
+    }
+    
+    public int getIteraciones() {
+        return iteraciones;
+    }
+    
+    /**
+     * Tiempo máximo de búsqueda por movimiento, en milisegundos (0 sin límite).
+     */
+    public void setTiempoMaximo(long milisegundos) {
+        this.tiempoMaximo = milisegundos;
+    }
+    
+    /**
+     * Peso de la exploración en la cota UCT; más alto reparte las simulaciones
+     * entre más jugadas y juega peor con pocas iteraciones.
+     */
+    public void setExploracion(double exploracion) {
+        this.exploracion = exploracion;
+    }
+    
+    /**
+     * Número de hilos que comparten el árbol; con 1 se busca en el hilo que llama.
+     */
+    public void setParalelismo(int hilos) {
+        if (hilos < 1) throw new IllegalArgumentException("Hilos: " + hilos);
+        cerrar();
+        this.hilos = hilos;
+    }
+    
+    /**
+     * Para los hilos de la búsqueda paralela, si los hay.
+     */
+    public void cerrar() {
+        if (ejecutor != null) {
+            ejecutor.shutdownNow();
+            ejecutor = null;
+        }
+    }
+    
+    @Override
+    public void cancelar() {
+        cancelada = true;
+    }
+    
+    /**
+     * Nodos del árbol tras la última búsqueda.
+     */
+    @Override
+    public long getNodos() {
+        return origen == OrigenJugada.MONTECARLO ? arbol.getTamano() : 0;
+    }
+    
+    @Override
+    public OrigenJugada getOrigen() {
+        return origen;
+    }
+    
+    /**
+     * Jugadas de la rama más larga del árbol en la última búsqueda.
+     */
+    @Override
+    public int getProfundidadAlcanzada() {
+        return profundidad;
+    }
+    
+    /**
+     * Partidas simuladas en la última búsqueda.
+     */
+    public long getSimulaciones() {
+        return simulaciones;
+    }
+    
+    /**
+     * Partidas simuladas por segundo en la última búsqueda, contando todos los hilos.
+     */
+    public double getSimulacionesPorSegundo() {
+        return nanos == 0 ? 0 : simulaciones * 1e9 / nanos;
+    }
+    
+    /**
+     * Estado de un hilo de la búsqueda: su copia del tablero y los arrays de
+     * trabajo, reutilizados de una iteración a otra.
+     */
+    private final class Trabajador implements Runnable {
+        final int celdas;
+        private Tablero tablero;
+        private int jugador;
+        private long semilla;
+        // Nodos desde la raíz hasta la hoja de la iteración en curso
+        private final int[] camino;
+        private final int[] candidatas;
+        // Casillas libres durante la simulación y dónde está cada una en la lista
+        private final int[] libres;
+        private final int[] indiceLibre;
+        private final int[] simuladas;
+        long simulaciones;
+        int profundidad;
+        
+        Trabajador(int celdas) {
+            this.celdas = celdas;
+            this.camino = new int[celdas + 1];
+            this.candidatas = new int[celdas];
+            this.libres = new int[celdas];
+            this.indiceLibre = new int[celdas];
+            this.simuladas = new int[celdas];
+        }
+        
+        void preparar(Tablero posicion, int jugador, long semilla) {
+            this.tablero = posicion.copia();
+            this.jugador = jugador;
+            // xorshift no admite el 0
+            this.semilla = semilla == 0 ? 0x9E3779B97F4A7C15L : semilla;
+            simulaciones = 0;
+            profundidad = 0;
+        }
+        
+        @Override
+        public void run() {
+            while (quedaPresupuesto(this)) {
+                iterar();
+                simulaciones++;
+            }
+        }
+        
+        private void iterar() {
+            int nodo = ArbolMontecarlo.RAIZ;
+            int turno = jugador;
+            int longitud = 0;
+            camino[0] = nodo;
+            arbol.sumarPerdidaVirtual(nodo, PERDIDA_VIRTUAL);
+            while (tablero.resultado() == 0) {
+                int primero = arbol.getPrimerHijo(nodo);
+                if (primero == ArbolMontecarlo.SIN_EXPANDIR) {
+                    if (!arbol.reservar(nodo)) break;
+                    primero = expandir(nodo);
+                }
+                // Otro hilo lo está expandiendo o ya no cabe: se simula desde aquí
+                if (primero < 0) break;
+                int hijo = arbol.seleccionar(nodo, exploracion);
+                boolean nueva = arbol.sumarPerdidaVirtual(hijo, PERDIDA_VIRTUAL) == 0;
+                tablero.mover(arbol.getCasilla(hijo), turno);
+                turno = Controller.HUMANO + Controller.IA - turno;
+                camino[++longitud] = hijo;
+                nodo = hijo;
+                if (nueva) break;
+            }
+            if (longitud > profundidad) profundidad = longitud;
+            
+            int resultado = simular(turno);
+            // La raíz la "jugó" el rival; a partir de ahí se alternan
+            int movio = Controller.HUMANO + Controller.IA - jugador;
+            for (int i = 0; i <= longitud; i++) {
+                int puntos = resultado == movio ? 2 : resultado == -1 ? 1 : 0;
+                arbol.actualizar(camino[i], PERDIDA_VIRTUAL, puntos);
+                movio = Controller.HUMANO + Controller.IA - movio;
+            }
+            for (int i = longitud; i > 0; i--) {
+                tablero.deshacer(arbol.getCasilla(camino[i]));
+            }
+        }
+        
+        // Una jugada por casilla libre candidata, en el orden preferido de la geometría
+        private int expandir(int nodo) {
+            int n = 0;
+            for (int pos : tablero.getGeometria().getOrden()) {
+                if (tablero.estaLibre(pos) && tablero.esCandidata(pos)) candidatas[n++] = pos;
+            }
+            return arbol.expandir(nodo, candidatas, n);
+        }
+        
+        /**
+         * Juega hasta el final desde la posición actual y la deja como estaba.
+         * Devuelve el resultado como {@link Tablero#resultado()}.
+         */
+        private int simular(int turno) {
+            int resultado = tablero.resultado();
+            if (resultado != 0) return resultado;
+            int numLibres = 0;
+            for (int pos = 0; pos < celdas; pos++) {
+                if (tablero.estaLibre(pos)) {
+                    indiceLibre[pos] = numLibres;
+                    libres[numLibres++] = pos;
+                }
+            }
+            int jugadas = 0;
+            while (resultado == 0) {
+                int casilla = tablero.movimientoForzado(turno);
+                if (casilla == -1) casilla = libres[aleatorio(numLibres)];
+                // Se saca de la lista poniendo la última en su sitio
+                int ultima = libres[--numLibres];
+                libres[indiceLibre[casilla]] = ultima;
+                indiceLibre[ultima] = indiceLibre[casilla];
+                tablero.mover(casilla, turno);
+                simuladas[jugadas++] = casilla;
+                turno = Controller.HUMANO + Controller.IA - turno;
+                resultado = tablero.resultado();
+            }
+            while (jugadas > 0) {
+                tablero.deshacer(simuladas[--jugadas]);
+            }
+            return resultado;
+        }
+        
+        // xorshift64: basta para elegir casillas y no necesita objetos ni sincronización
+        private int aleatorio(int n) {
+            long x = semilla;
+            x ^= x << 13;
+            x ^= x >>> 7;
+            x ^= x << 17;
+            semilla = x;
+            return (int) (((x >>> 32) * n) >>> 32);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.Registro;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Añade partidas al registro desde un hilo propio, en lotes.
+ *
+ * <p>{@link #registrar(PartidaRegistrada)} solo deja la partida en una cola
+ * acotada y vuelve; si la cola está llena la partida se descarta y se cuenta, así
+ * que el hilo del juego nunca espera al disco. Quien prefiera esperar a perder
+ * partidas (una simulación, por ejemplo) usa {@link #registrarEsperando}.
+ *
+ * <p>El hilo escritor vacía la cola de golpe, codifica el lote en un buffer
+ * directo y lo escribe con una sola llamada. Cuándo se fuerza a disco lo decide
+ * {@link Sincronizacion}. El directorio y el primer segmento se crean en ese hilo;
+ * un error de disco lo detiene y se informa en {@link #getError()}.
+ */
+public class EscritorRegistro implements AutoCloseable {
+    public static final long TAMANO_SEGMENTO = 64L << 20;
+    public static final int CAPACIDAD_COLA = 65_536;
+    private static final int LOTE_MAXIMO = 4096;
+    private static final long PERIODO_SINCRONIZACION_MS = 1000;
+    
+    /** Cuándo se fuerzan los datos escritos al disco. */
+    public enum Sincronizacion {
+        /** Nunca; el sistema operativo decide (lo más rápido). */
+        NUNCA,
+        /** Como mucho una vez por segundo, y también al quedarse sin trabajo. */
+        PERIODICA,
+        /** Tras cada lote: nada de lo que haya vuelto de disco se pierde. */
+        CADA_LOTE
+    }
+    
+    // Marca de fin en la cola
+    private static final PartidaRegistrada FIN = new PartidaRegistrada(0, 3, 3, 0, 0, 0, new int[0], 0);
+    
+    private final Path directorio;
+    private final long tamanoSegmento;
+    private final Sincronizacion sincronizacion;
+    private final BlockingQueue<PartidaRegistrada> cola;
+    private final Thread hilo;
+    private final AtomicLong descartadas = new AtomicLong();
+    private volatile long escritas;
+    private volatile IOException error;
+    
+    private FileChannel canal;
+    private long numeroSegmento;
+    private long tamanoActual;
+    private boolean pendiente;
+    private long ultimaSincronizacion;
+    
+    public EscritorRegistro(Path directorio) {
+        this(directorio, TAMANO_SEGMENTO, Sincronizacion.PERIODICA, CAPACIDAD_COLA);
+    }
+    
+    public EscritorRegistro(Path directorio, long tamanoSegmento, Sincronizacion sincronizacion, int capacidadCola) {
+        if (tamanoSegmento < FormatoRegistro.CABECERA + FormatoRegistro.REGISTRO_MAXIMO) {
+            throw new IllegalArgumentException("Segmento demasiado pequeño: " + tamanoSegmento);
+        }
+        this.directorio = directorio;
+        this.tamanoSegmento = tamanoSegmento;
+        this.sincronizacion = sincronizacion;
+        this.cola = new ArrayBlockingQueue<>(capacidadCola);
+        this.hilo = new Thread(this::escribirLotes, "registro-partidas");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+    
+    /**
+     * Encola la partida sin esperar; falso si se descartó porque la cola estaba
+     * llena o el escritor está cerrado.
+     */
+    public boolean registrar(PartidaRegistrada partida) {
+        if (error == null && hilo.isAlive() && cola.offer(partida)) return true;
+        descartadas.incrementAndGet();
+        return false;
+    }
+    
+    /**
+     * Encola la partida esperando a que haya sitio.
+     */
+    public void registrarEsperando(PartidaRegistrada partida) throws InterruptedException {
+        if (error != null || !hilo.isAlive()) {
+            descartadas.incrementAndGet();
+            return;
+        }
+        cola.put(partida);
+    }
+    
+    public long getEscritas() {
+        return escritas;
+    }
+    
+    public long getDescartadas() {
+        return descartadas.get();
+    }
+    
+    /**
+     * El error de disco que detuvo el escritor, o {@code null}.
+     */
+    public IOException getError() {
+        return error;
+    }
+    
+    /**
+     * Escribe lo que quede en la cola, fuerza a disco y cierra el segmento.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (hilo.isAlive()) {
+                cola.put(FIN);
+                hilo.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (error != null) throw error;
+    }
+    
+    private void escribirLotes() {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(LOTE_MAXIMO * 32 + FormatoRegistro.REGISTRO_MAXIMO);
+        List<PartidaRegistrada> lote = new ArrayList<>(LOTE_MAXIMO);
+        boolean fin = false;
+        try {
+            abrirSegmento();
+            while (!fin) {
+                PartidaRegistrada primera = sincronizacion == Sincronizacion.PERIODICA && pendiente
+                    ? cola.poll(PERIODO_SINCRONIZACION_MS, TimeUnit.MILLISECONDS)
+                    : cola.take();
+                if (primera == null) {
+                    sincronizar(); // nada que hacer: buen momento para forzar lo pendiente
+                    continue;
+                }
+                lote.add(primera);
+                cola.drainTo(lote, LOTE_MAXIMO - 1);
+                for (PartidaRegistrada partida : lote) {
+                    if (partida == FIN) {
+                        fin = true;
+                        break;
+                    }
+                    int tamano = FormatoRegistro.tamano(partida);
+                    if (tamanoActual + buffer.position() + tamano > tamanoSegmento) {
+                        // No cabe en este segmento: lo anterior se queda en él y esta va al siguiente
+                        vaciar(buffer);
+                        nuevoSegmento();
+                    }
+                    if (buffer.remaining() < tamano) vaciar(buffer);
+                    FormatoRegistro.escribir(buffer, partida, crc);
+                }
+                int enLote = lote.size() - (fin ? 1 : 0);
+                lote.clear();
+                vaciar(buffer);
+                escritas += enLote;
+                if (sincronizacion == Sincronizacion.CADA_LOTE
+                    || (sincronizacion == Sincronizacion.PERIODICA
+                        && System.currentTimeMillis() - ultimaSincronizacion >= PERIODO_SINCRONIZACION_MS)) {
+                    sincronizar();
+                }
+            }
+            if (sincronizacion != Sincronizacion.NUNCA) sincronizar();
+        } catch (IOException e) {
+            error = e;
+            System.err.println("Registro de partidas detenido: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            cerrarCanal();
+        }
+    }
+    
+    private void vaciar(ByteBuffer buffer) throws IOException {
+        if (buffer.position() == 0) return;
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            tamanoActual += canal.write(buffer);
+        }
+        buffer.clear();
+        pendiente = true;
+    }
+    
+    private void sincronizar() throws IOException {
+        if (pendiente) {
+            canal.force(false);
+            pendiente = false;
+        }
+        ultimaSincronizacion = System.currentTimeMillis();
+    }
+    
+    private void abrirSegmento() throws IOException {
+        Files.createDirectories(directorio);
+        long ultimo = 0;
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            ultimo = archivos.mapToLong(FormatoRegistro::numeroSegmento).max().orElse(0);
+        }
+        // Nunca se añade a un segmento existente: su final puede estar a medias
+        numeroSegmento = Math.max(0, ultimo);
+        nuevoSegmento();
+    }
+    
+    private void nuevoSegmento() throws IOException {
+        if (canal != null) {
+            if (sincronizacion != Sincronizacion.NUNCA) sincronizar();
+            canal.close();
+        }
+        numeroSegmento++;
+        canal = FileChannel.open(directorio.resolve(FormatoRegistro.nombreSegmento(numeroSegmento)),
+                                 StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer cabecera = ByteBuffer.allocate(FormatoRegistro.CABECERA);
+        FormatoRegistro.escribirCabecera(cabecera, System.currentTimeMillis());
+        cabecera.flip();
+        tamanoActual = 0;
+        while (cabecera.hasRemaining()) {
+            tamanoActual += canal.write(cabecera);
+        }
+    }
+    
+    private void cerrarCanal() {
+        if (canal == null) return;
+        try {
+            canal.close();
+        } catch (IOException e) {
+            if (error == null) error = e;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.Registro;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+
+/**
+ * Disposición binaria del registro de partidas (versión 1).
+ *
+ * <p>El registro es un directorio de segmentos {@code partidas-00000001.reg}
+ * que solo crecen; cada escritor empieza un segmento nuevo y pasa al siguiente al
+ * llegar al tamaño máximo. Cada segmento tiene una cabecera de 16 bytes (magia,
+ * versión, reservado e instante de creación) y detrás los registros uno tras otro:
+ *
+ * <pre>
+ *   u16 longitud   bytes que siguen a este campo
+ *   i32 crc        CRC32C de los bytes que siguen a este campo
+ *   i64 instante   milisegundos desde la época
+ *   u8  lado, u8 enLinea, u8 modo, i8 ganador, u8 primero
+ *   u16 jugadas
+ *   ... casillas jugadas: 4 bits cada una hasta 16 casillas, 8 hasta 256, 16 más allá
+ * </pre>
+ *
+ * <p>Una partida del 3x3 ocupa 26 bytes. Todo en big-endian. Un registro con la
+ * longitud o el CRC mal es el final escrito a medias de un segmento.
+ */
+final class FormatoRegistro {
+    static final int MAGIA = 0x54545250; // "TTRP"
+    static final short VERSION = 1;
+    static final int CABECERA = 16;
+    // longitud + crc
+    static final int PREFIJO = 6;
+    // instante, lado, enLinea, modo, ganador, primero, jugadas
+    static final int FIJO = 15;
+    static final int REGISTRO_MAXIMO = PREFIJO + FIJO + 2 * 19 * 19;
+    
+    static final String PREFIJO_SEGMENTO = "partidas-";
+    static final String SUFIJO_SEGMENTO = ".reg";
+    
+    private FormatoRegistro() {
+    }
+    
+    static int bitsPorJugada(int casillas) {
+        return casillas <= 16 ? 4 : casillas <= 256 ? 8 : 16;
+    }
+    
+    static int bytesJugadas(int casillas, int jugadas) {
+        return (jugadas * bitsPorJugada(casillas) + 7) / 8;
+    }
+    
+    /**
+     * Bytes que ocupa la partida en el registro, prefijo incluido.
+     */
+    static int tamano(PartidaRegistrada partida) {
+        int casillas = partida.getLado() * partida.getLado();
+        return PREFIJO + FIJO + bytesJugadas(casillas, partida.getNumJugadas());
+    }
+    
+    static String nombreSegmento(long numero) {
+        return String.format("%s%08d%s", PREFIJO_SEGMENTO, numero, SUFIJO_SEGMENTO);
+    }
+    
+    /**
+     * Número del segmento, o -1 si el archivo no es un segmento.
+     */
+    static long numeroSegmento(Path archivo) {
+        String nombre = archivo.getFileName().toString();
+        if (!nombre.startsWith(PREFIJO_SEGMENTO) || !nombre.endsWith(SUFIJO_SEGMENTO)) return -1;
+        try {
+            return Long.parseLong(nombre.substring(PREFIJO_SEGMENTO.length(),
+                                                   nombre.length() - SUFIJO_SEGMENTO.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    static void escribirCabecera(ByteBuffer buffer, long instante) {
+        buffer.putInt(MAGIA).putShort(VERSION).putShort((short) 0).putLong(instante);
+    }
+    
+    /**
+     * Añade la partida al buffer, que debe tener sitio para {@link #REGISTRO_MAXIMO} bytes.
+     */
+    static void escribir(ByteBuffer buffer, PartidaRegistrada partida, CRC32C crc) {
+        int casillas = partida.getLado() * partida.getLado();
+        int jugadas = partida.getNumJugadas();
+        int inicio = buffer.position();
+        buffer.position(inicio + PREFIJO);
+        buffer.putLong(partida.getInstante())
+            .put((byte) partida.getLado())
+            .put((byte) partida.getEnLinea())
+            .put((byte) partida.getModo())
+            .put((byte) partida.getGanador())
+            .put((byte) partida.getPrimero())
+            .putShort((short) jugadas);
+        int bits = bitsPorJugada(casillas);
+        if (bits == 4) {
+            for (int i = 0; i < jugadas; i += 2) {
+                int alta = partida.getJugada(i);
+                int baja = i + 1 < jugadas ? partida.getJugada(i + 1) : 0;
+                buffer.put((byte) (alta << 4 | baja));
+            }
+        } else {
+            for (int i = 0; i < jugadas; i++) {
+                if (bits == 8) buffer.put((byte) partida.getJugada(i));
+                else buffer.putShort((short) partida.getJugada(i));
+            }
+        }
+        int fin = buffer.position();
+        buffer.putShort(inicio, (short) (fin - inicio - 2));
+        buffer.putInt(inicio + 2, crc(crc, buffer, inicio + PREFIJO, fin));
+    }
+    
+    /**
+     * CRC32C de {@code [desde, hasta)} sin mover el buffer ni crear objetos.
+     */
+    static int crc(CRC32C crc, ByteBuffer buffer, int desde, int hasta) {
+        int posicion = buffer.position();
+        int limite = buffer.limit();
+        buffer.limit(hasta).position(desde);
+        crc.reset();
+        crc.update(buffer);
+        buffer.limit(limite).position(posicion);
+        return (int) crc.getValue();
+    }
+}
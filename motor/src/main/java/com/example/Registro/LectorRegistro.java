@@ -0,0 +1,291 @@
+package com.example.Registro;
+
+import com.example.Controller.Controller;
+import com.example.Controller.Geometria;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Recorre en orden todas las partidas de un registro con memoria constante: un
+ * buffer de lectura de 1 MiB y los campos de la partida actual, que se
+ * sobrescriben en cada {@link #siguiente()}. Sirve para cientos de millones de
+ * partidas sin crear un objeto por partida; {@link #actual()} hace una copia si
+ * hace falta guardarla.
+ *
+ * <pre>
+ *   try (LectorRegistro lector = LectorRegistro.abrir(directorio)) {
+ *       while (lector.siguiente()) {
+ *           ... lector.getGanador(), lector.getJugada(i) ...
+ *       }
+ *   }
+ * </pre>
+ *
+ * <p>Si un segmento termina en un registro escrito a medias (el proceso murió
+ * escribiendo), se salta el resto de ese segmento y se cuenta en
+ * {@link #getTruncados()}.
+ *
+ * <p>Uso: {@code LectorRegistro --registro ~/.tictactoe/partidas} imprime un resumen.
+ */
+public class LectorRegistro implements AutoCloseable {
+    private static final int TAMANO_BUFFER = 1 << 20;
+    
+    private final List<Path> segmentos;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANO_BUFFER);
+    private final CRC32C crc = new CRC32C();
+    private int siguienteSegmento;
+    private FileChannel canal;
+    private boolean finArchivo;
+    private long leidas;
+    private long truncados;
+    
+    private long instante;
+    private int lado;
+    private int enLinea;
+    private int modo;
+    private int ganador;
+    private int primero;
+    private int numJugadas;
+    private final int[] jugadas = new int[Geometria.LADO_MAXIMO * Geometria.LADO_MAXIMO];
+    
+    private LectorRegistro(List<Path> segmentos) {
+        this.segmentos = segmentos;
+    }
+    
+    /**
+     * Lector de todos los segmentos que hay ahora en el directorio, del más
+     * antiguo al más reciente.
+     */
+    public static LectorRegistro abrir(Path directorio) throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            List<Path> segmentos = archivos
+                .filter(archivo -> FormatoRegistro.numeroSegmento(archivo) >= 0)
+                .sorted(Comparator.comparingLong(FormatoRegistro::numeroSegmento))
+                .collect(Collectors.toList());
+            return new LectorRegistro(segmentos);
+        }
+    }
+    
+    /**
+     * Avanza a la siguiente partida; falso cuando no quedan.
+     */
+    public boolean siguiente() throws IOException {
+        while (true) {
+            if (canal == null && !abrirSiguienteSegmento()) return false;
+            if (leerRegistro()) {
+                leidas++;
+                return true;
+            }
+            cerrarSegmento();
+        }
+    }
+    
+    private boolean abrirSiguienteSegmento() throws IOException {
+        while (siguienteSegmento < segmentos.size()) {
+            Path archivo = segmentos.get(siguienteSegmento++);
+            canal = FileChannel.open(archivo, StandardOpenOption.READ);
+            finArchivo = false;
+            buffer.clear().flip();
+            if (!disponibles(FormatoRegistro.CABECERA)) {
+                // Creado pero sin cabecera completa: nunca llegó a tener partidas
+                truncados++;
+                cerrarSegmento();
+                continue;
+            }
+            if (buffer.getInt() != FormatoRegistro.MAGIA || buffer.getShort() != FormatoRegistro.VERSION) {
+                cerrarSegmento();
+                throw new IOException("No es un segmento del registro (versión " + FormatoRegistro.VERSION
+                    + "): " + archivo);
+            }
+            buffer.position(buffer.position() + FormatoRegistro.CABECERA - 6);
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Lee el registro siguiente del segmento actual; falso al final del segmento
+     * o si el resto está a medias.
+     */
+    private boolean leerRegistro() throws IOException {
+        if (!disponibles(FormatoRegistro.PREFIJO)) {
+            if (buffer.hasRemaining()) truncados++;
+            return false;
+        }
+        int inicio = buffer.position();
+        int longitud = buffer.getShort(inicio) & 0xFFFF;
+        if (longitud < FormatoRegistro.PREFIJO - 2 + FormatoRegistro.FIJO
+            || longitud > FormatoRegistro.REGISTRO_MAXIMO - 2) {
+            truncados++;
+            return false;
+        }
+        if (!disponibles(2 + longitud)) {
+            truncados++;
+            return false;
+        }
+        inicio = buffer.position();
+        int fin = inicio + 2 + longitud;
+        if (buffer.getInt(inicio + 2) != FormatoRegistro.crc(crc, buffer, inicio + FormatoRegistro.PREFIJO, fin)) {
+            truncados++;
+            return false;
+        }
+        
+        buffer.position(inicio + FormatoRegistro.PREFIJO);
+        instante = buffer.getLong();
+        lado = buffer.get() & 0xFF;
+        enLinea = buffer.get() & 0xFF;
+        modo = buffer.get() & 0xFF;
+        ganador = buffer.get();
+        primero = buffer.get() & 0xFF;
+        numJugadas = buffer.getShort() & 0xFFFF;
+        int casillas = lado * lado;
+        if (casillas > jugadas.length || numJugadas > casillas
+            || modo >= PartidaRegistrada.NOMBRES_MODO.length || ganador < -1 || ganador > Controller.IA
+            || fin - buffer.position() != FormatoRegistro.bytesJugadas(casillas, numJugadas)) {
+            throw new IOException("Registro inconsistente con CRC válido en " + segmentos.get(siguienteSegmento - 1));
+        }
+        int bits = FormatoRegistro.bitsPorJugada(casillas);
+        if (bits == 4) {
+            for (int i = 0; i < numJugadas; i += 2) {
+                int par = buffer.get() & 0xFF;
+                jugadas[i] = par >>> 4;
+                if (i + 1 < numJugadas) jugadas[i + 1] = par & 0xF;
+            }
+        } else {
+            for (int i = 0; i < numJugadas; i++) {
+                jugadas[i] = bits == 8 ? buffer.get() & 0xFF : buffer.getShort() & 0xFFFF;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Se asegura de tener al menos {@code n} bytes sin leer en el buffer, leyendo
+     * más del segmento si hace falta; falso si el segmento se acaba antes.
+     */
+    private boolean disponibles(int n) throws IOException {
+        if (buffer.remaining() >= n) return true;
+        if (finArchivo) return false;
+        buffer.compact();
+        while (buffer.position() < n) {
+            if (canal.read(buffer) < 0) {
+                finArchivo = true;
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer.remaining() >= n;
+    }
+    
+    private void cerrarSegmento() throws IOException {
+        if (canal != null) {
+            canal.close();
+            canal = null;
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        cerrarSegmento();
+        siguienteSegmento = segmentos.size();
+    }
+    
+    public long getInstante() {
+        return instante;
+    }
+    
+    public int getLado() {
+        return lado;
+    }
+    
+    public int getEnLinea() {
+        return enLinea;
+    }
+    
+    public int getModo() {
+        return modo;
+    }
+    
+    public int getGanador() {
+        return ganador;
+    }
+    
+    public int getPrimero() {
+        return primero;
+    }
+    
+    public int getNumJugadas() {
+        return numJugadas;
+    }
+    
+    public int getJugada(int i) {
+        return jugadas[i];
+    }
+    
+    /**
+     * Copia de la partida actual.
+     */
+    public PartidaRegistrada actual() {
+        return new PartidaRegistrada(instante, lado, enLinea, modo, ganador, primero, jugadas, numJugadas);
+    }
+    
+    /**
+     * Partidas leídas hasta ahora.
+     */
+    public long getLeidas() {
+        return leidas;
+    }
+    
+    /**
+     * Segmentos que terminaban en un registro a medias o estaban vacíos.
+     */
+    public long getTruncados() {
+        return truncados;
+    }
+    
+    public int getSegmentos() {
+        return segmentos.size();
+    }
+    
+    public static void main(String[] args) throws IOException {
+        Path directorio = Paths.get(System.getProperty("user.home"), ".tictactoe", "partidas");
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--registro": directorio = Paths.get(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+        long[] porModo = new long[PartidaRegistrada.NOMBRES_MODO.length];
+        // sin terminar, humano, ia, empate
+        long[] resultados = new long[4];
+        long jugadasTotales = 0;
+        long inicio = System.nanoTime();
+        try (LectorRegistro lector = abrir(directorio)) {
+            while (lector.siguiente()) {
+                porModo[lector.getModo()]++;
+                int ganador = lector.getGanador();
+                resultados[ganador == -1 ? 3 : ganador]++;
+                jugadasTotales += lector.getNumJugadas();
+            }
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+            long partidas = lector.getLeidas();
+            System.out.printf("%d partidas en %d segmentos (%d truncados), leídas en %.2f s (%.0f partidas/s)%n",
+                partidas, lector.getSegmentos(), lector.getTruncados(), segundos, partidas / segundos);
+            for (int m = 0; m < porModo.length; m++) {
+                if (porModo[m] > 0) System.out.printf("  %-10s %d%n", PartidaRegistrada.nombreModo(m), porModo[m]);
+            }
+            System.out.printf("Gana humano: %d   Gana IA: %d   Empates: %d   Sin terminar: %d   Jugadas por partida: %.2f%n",
+                resultados[Controller.HUMANO], resultados[Controller.IA], resultados[3], resultados[0],
+                partidas == 0 ? 0 : (double) jugadasTotales / partidas);
+        }
+    }
+}
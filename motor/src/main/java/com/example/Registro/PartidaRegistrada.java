@@ -0,0 +1,100 @@
+package com.example.Registro;
+
+import com.example.Controller.Controller;
+import com.example.Controller.Geometria;
+import java.util.Arrays;
+
+/**
+ * Una partida terminada (o abandonada) tal como se guarda en el registro: la
+ * variante, quién jugaba, el resultado y la secuencia de casillas jugadas. Los
+ * jugadores se alternan empezando por {@link #getPrimero()}.
+ */
+public final class PartidaRegistrada {
+    public static final int MODO_FACIL = 0;
+    public static final int MODO_DIFICIL = 1;
+    public static final int MODO_APRENDIZ = 2;
+    public static final int MODO_AUTOJUEGO = 3;
+    public static final int MODO_MONTECARLO = 4;
+    public static final int MODO_NIVEL = 5;
+    static final String[] NOMBRES_MODO = {"facil", "dificil", "aprendiz", "autojuego", "montecarlo", "nivel"};
+    
+    /** Resultado de una partida que se dejó sin terminar. */
+    public static final int SIN_TERMINAR = 0;
+    
+    private final long instante;
+    private final int lado;
+    private final int enLinea;
+    private final int modo;
+    private final int ganador;
+    private final int primero;
+    private final int[] jugadas;
+    
+    /**
+     * @param instante milisegundos desde la época en que terminó la partida
+     * @param ganador {@link Controller#HUMANO}, {@link Controller#IA}, -1 si fue
+     *                empate o {@link #SIN_TERMINAR}
+     * @param primero jugador que hizo la primera jugada
+     */
+    public PartidaRegistrada(long instante, int lado, int enLinea, int modo, int ganador, int primero,
+                             int[] jugadas, int numJugadas) {
+        Geometria.de(lado, enLinea); // valida la variante
+        if (modo < 0 || modo >= NOMBRES_MODO.length) {
+            throw new IllegalArgumentException("Modo desconocido: " + modo);
+        }
+        if (ganador < -1 || ganador > Controller.IA) {
+            throw new IllegalArgumentException("Resultado desconocido: " + ganador);
+        }
+        if (numJugadas > lado * lado) {
+            throw new IllegalArgumentException("Más jugadas que casillas: " + numJugadas);
+        }
+        this.instante = instante;
+        this.lado = lado;
+        this.enLinea = enLinea;
+        this.modo = modo;
+        this.ganador = ganador;
+        this.primero = primero == Controller.IA ? Controller.IA : Controller.HUMANO;
+        this.jugadas = Arrays.copyOf(jugadas, numJugadas);
+    }
+    
+    public long getInstante() {
+        return instante;
+    }
+    
+    public int getLado() {
+        return lado;
+    }
+    
+    public int getEnLinea() {
+        return enLinea;
+    }
+    
+    public int getModo() {
+        return modo;
+    }
+    
+    public static String nombreModo(int modo) {
+        return NOMBRES_MODO[modo];
+    }
+    
+    public int getGanador() {
+        return ganador;
+    }
+    
+    public int getPrimero() {
+        return primero;
+    }
+    
+    public int getNumJugadas() {
+        return jugadas.length;
+    }
+    
+    public int getJugada(int i) {
+        return jugadas[i];
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%dx%d/%d %s ganador=%d primero=%d jugadas=%s", lado, lado, enLinea,
+            NOMBRES_MODO[modo], ganador, primero, Arrays.toString(jugadas));
+    }
+}
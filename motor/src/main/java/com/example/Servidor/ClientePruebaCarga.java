@@ -0,0 +1,224 @@
+package com.example.Servidor;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prueba de carga para {@link ServidorJuego}: abre muchas sesiones a la vez y las
+ * juega todas intercaladas, una jugada por sesión y vuelta, hasta que terminan.
+ * Mide la latencia de cada jugada del humano y de cada jugada de la IA e informa
+ * de los percentiles 50 y 99.
+ *
+ * <p>Cada trabajador lleva su parte de las sesiones con peticiones síncronas, así
+ * que {@code --concurrencia} es el número de peticiones en vuelo. Sin {@code --url}
+ * arranca un servidor en el mismo proceso.
+ *
+ * <p>Uso: {@code ClientePruebaCarga --sesiones 10000 --concurrencia 64 --modo dificil
+ * --lado 3 --en-linea 3 --url http://127.0.0.1:8080}
+ */
+public class ClientePruebaCarga {
+    private final HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final String base;
+    private final AtomicLong errores = new AtomicLong();
+    
+    public ClientePruebaCarga(String url) {
+        this.base = url + "/partidas";
+    }
+    
+    /**
+     * Latencias en nanosegundos de un trabajador; crece según hace falta.
+     */
+    private static final class Latencias {
+        long[] valores = new long[1024];
+        int tamano;
+        
+        void agregar(long nanos) {
+            if (tamano == valores.length) valores = Arrays.copyOf(valores, tamano * 2);
+            valores[tamano++] = nanos;
+        }
+        
+        static long[] unir(Latencias[] partes) {
+            int total = 0;
+            for (Latencias parte : partes) total += parte.tamano;
+            long[] todas = new long[total];
+            int n = 0;
+            for (Latencias parte : partes) {
+                System.arraycopy(parte.valores, 0, todas, n, parte.tamano);
+                n += parte.tamano;
+            }
+            Arrays.sort(todas);
+            return todas;
+        }
+    }
+    
+    public void ejecutar(int numSesiones, int concurrencia, String modo, int lado, int enLinea, long semilla)
+            throws InterruptedException {
+        int hilos = Math.min(concurrencia, numSesiones);
+        Latencias[] humano = new Latencias[hilos];
+        Latencias[] ia = new Latencias[hilos];
+        Thread[] trabajadores = new Thread[hilos];
+        String alta = base + "?lado=" + lado + "&enLinea=" + enLinea + "&modo=" + modo;
+        
+        long inicio = System.nanoTime();
+        for (int h = 0; h < hilos; h++) {
+            int primero = h;
+            humano[h] = new Latencias();
+            ia[h] = new Latencias();
+            trabajadores[h] = new Thread(() -> jugar(primero, hilos, numSesiones, alta, lado * lado,
+                                                     new SplittableRandom(semilla + primero), humano[primero], ia[primero]),
+                                         "carga-" + h);
+            trabajadores[h].start();
+        }
+        for (Thread trabajador : trabajadores) {
+            trabajador.join();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        
+        long[] latenciasHumano = Latencias.unir(humano);
+        long[] latenciasIA = Latencias.unir(ia);
+        long peticiones = numSesiones + latenciasHumano.length + latenciasIA.length;
+        System.out.printf("%d sesiones a la vez, %d peticiones en %.2f s (%.0f peticiones/s), %d errores%n",
+            numSesiones, peticiones, segundos, peticiones / segundos, errores.get());
+        informar("Jugada humano", latenciasHumano);
+        informar("Jugada IA", latenciasIA);
+    }
+    
+    private static void informar(String nombre, long[] ordenadas) {
+        if (ordenadas.length == 0) return;
+        System.out.printf("%-14s p50 %.3f ms   p99 %.3f ms   máx %.3f ms   (%d)%n", nombre,
+            percentil(ordenadas, 0.50) / 1e6, percentil(ordenadas, 0.99) / 1e6,
+            ordenadas[ordenadas.length - 1] / 1e6, ordenadas.length);
+    }
+    
+    private static long percentil(long[] ordenadas, double p) {
+        return ordenadas[(int) Math.min(ordenadas.length - 1, Math.floor(p * ordenadas.length))];
+    }
+    
+    /**
+     * Trabajador: crea sus sesiones y después da vueltas haciendo una jugada del
+     * humano (al azar) y la respuesta de la IA en cada una que siga abierta.
+     */
+    private void jugar(int primero, int paso, int numSesiones, String alta, int casillas, SplittableRandom random,
+                       Latencias humano, Latencias ia) {
+        int propias = (numSesiones - primero + paso - 1) / paso;
+        String[] ids = new String[propias];
+        boolean[][] ocupadas = new boolean[propias][casillas];
+        boolean[] abiertas = new boolean[propias];
+        for (int i = 0; i < propias; i++) {
+            String respuesta = enviar(alta, "POST", 201);
+            if (respuesta == null) continue;
+            ids[i] = texto(respuesta, "id");
+            abiertas[i] = true;
+        }
+        
+        int pendientes = propias;
+        while (pendientes > 0) {
+            pendientes = 0;
+            for (int i = 0; i < propias; i++) {
+                if (!abiertas[i]) continue;
+                int casilla = casillaLibre(ocupadas[i], random);
+                long inicio = System.nanoTime();
+                String respuesta = enviar(base + "/" + ids[i] + "/movimiento?casilla=" + casilla, "POST", 200);
+                humano.agregar(System.nanoTime() - inicio);
+                if (respuesta == null || esFinal(respuesta)) {
+                    abiertas[i] = false;
+                    continue;
+                }
+                ocupadas[i][casilla] = true;
+                
+                inicio = System.nanoTime();
+                respuesta = enviar(base + "/" + ids[i] + "/ia", "POST", 200);
+                ia.agregar(System.nanoTime() - inicio);
+                if (respuesta == null || esFinal(respuesta)) {
+                    abiertas[i] = false;
+                    continue;
+                }
+                ocupadas[i][entero(respuesta, "movimiento")] = true;
+                pendientes++;
+            }
+        }
+        for (String id : ids) {
+            if (id != null) enviar(base + "/" + id, "DELETE", 200);
+        }
+    }
+    
+    private String enviar(String url, String metodo, int esperado) {
+        HttpRequest peticion = HttpRequest.newBuilder(URI.create(url))
+            .method(metodo, HttpRequest.BodyPublishers.noBody())
+            .build();
+        try {
+            HttpResponse<String> respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.ofString());
+            if (respuesta.statusCode() == esperado) return respuesta.body();
+        } catch (IOException e) {
+            // cuenta como error
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        errores.incrementAndGet();
+        return null;
+    }
+    
+    private static int casillaLibre(boolean[] ocupadas, SplittableRandom random) {
+        int casilla;
+        do {
+            casilla = random.nextInt(ocupadas.length);
+        } while (ocupadas[casilla]);
+        return casilla;
+    }
+    
+    private static boolean esFinal(String json) {
+        return json.contains("\"final\":true");
+    }
+    
+    private static String texto(String json, String campo) {
+        int inicio = json.indexOf("\"" + campo + "\":\"") + campo.length() + 4;
+        return json.substring(inicio, json.indexOf('"', inicio));
+    }
+    
+    private static int entero(String json, String campo) {
+        int inicio = json.indexOf("\"" + campo + "\":") + campo.length() + 3;
+        int fin = inicio;
+        while (fin < json.length() && (json.charAt(fin) == '-' || Character.isDigit(json.charAt(fin)))) fin++;
+        return Integer.parseInt(json.substring(inicio, fin));
+    }
+    
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String url = null;
+        int sesiones = 10_000;
+        int concurrencia = 64;
+        String modo = Sesion.DIFICIL;
+        int lado = 3;
+        int enLinea = 3;
+        long semilla = 42;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String valor = args[i + 1];
+            switch (args[i]) {
+                case "--url": url = valor; break;
+                case "--sesiones": sesiones = Integer.parseInt(valor); break;
+                case "--concurrencia": concurrencia = Math.max(1, Integer.parseInt(valor)); break;
+                case "--modo": modo = valor; break;
+                case "--lado": lado = Integer.parseInt(valor); break;
+                case "--en-linea": enLinea = Integer.parseInt(valor); break;
+                case "--semilla": semilla = Long.parseLong(valor); break;
+                default: throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+        ServidorJuego local = null;
+        if (url == null) {
+            local = new ServidorJuego(0, 600);
+            local.iniciar();
+            url = "http://127.0.0.1:" + local.getPuerto();
+        }
+        try {
+            new ClientePruebaCarga(url).ejecutar(sesiones, concurrencia, modo, lado, enLinea, semilla);
+        } finally {
+            if (local != null) local.detener();
+        }
+    }
+}
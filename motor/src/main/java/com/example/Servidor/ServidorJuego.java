@@ -0,0 +1,264 @@
+package com.example.Servidor;
+
+import com.example.Controller.Geometria;
+import com.example.Libro.LibroAperturas;
+import com.example.Registro.EscritorRegistro;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor HTTP local que atiende muchas partidas a la vez, una {@link Sesion}
+ * por partida.
+ *
+ * <p>Rutas (las respuestas son el estado de la partida en JSON):
+ * <ul>
+ * <li>{@code POST /partidas?lado=3&enLinea=3&modo=dificil&empieza=humano}: crea una partida.
+ * Los modos son {@code facil}, {@code dificil}, {@code aprendiz}, {@code montecarlo}
+ * y de {@code nivel1} a {@code nivel10}.</li>
+ * <li>{@code GET /partidas/{id}}: estado.</li>
+ * <li>{@code POST /partidas/{id}/movimiento?casilla=4}: jugada del humano.</li>
+ * <li>{@code POST /partidas/{id}/ia}: jugada de la IA.</li>
+ * <li>{@code DELETE /partidas/{id}}: termina la sesión y devuelve su último estado.</li>
+ * </ul>
+ *
+ * <p>Cada petición se atiende en su propio hilo virtual si la JVM los tiene (Java
+ * 21 o posterior); si no, en un grupo de hilos que crece según haga falta. Las
+ * sesiones sin actividad durante el tiempo indicado se eliminan.
+ *
+ * <p>Uso: {@code ServidorJuego --puerto 8080 --inactividad 300 --libro libro.bin
+ * --registro partidas}
+ */
+public class ServidorJuego {
+    private static final SecureRandom IDS = new SecureRandom();
+    
+    static {
+        // Sin esto cada respuesta corta espera al ACK retardado del cliente (~40 ms)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+    
+    private final HttpServer http;
+    private final ExecutorService ejecutor;
+    private final ScheduledExecutorService limpieza;
+    private final Map<String, Sesion> sesiones = new ConcurrentHashMap<>();
+    private final long inactividadNanos;
+    private volatile LibroAperturas libro;
+    private volatile EscritorRegistro registro;
+    
+    /**
+     * @param puerto puerto local; 0 elige uno libre
+     * @param inactividadSegundos tiempo sin peticiones tras el que se elimina una sesión
+     */
+    public ServidorJuego(int puerto, long inactividadSegundos) throws IOException {
+        this.inactividadNanos = TimeUnit.SECONDS.toNanos(inactividadSegundos);
+        this.http = HttpServer.create(new InetSocketAddress("127.0.0.1", puerto), 1024);
+        this.ejecutor = crearEjecutor("servidor-");
+        this.limpieza = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "servidor-limpieza");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        http.createContext("/partidas", this::atender);
+        http.setExecutor(ejecutor);
+    }
+    
+    /**
+     * Un hilo virtual por tarea si la JVM los tiene; si no, hilos de plataforma
+     * reutilizados. Se busca por reflexión porque el proyecto compila para Java 11.
+     */
+    static ExecutorService crearEjecutor(String prefijo) {
+        try {
+            Method metodo = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) metodo.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            AtomicInteger contador = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                Thread hilo = new Thread(r, prefijo + contador.getAndIncrement());
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        }
+    }
+    
+    /**
+     * Libro compartido por todas las partidas de su variante; {@code null} deja de usarlo.
+     */
+    public void setLibro(LibroAperturas libro) {
+        this.libro = libro;
+    }
+    
+    /**
+     * Registro donde se guardan las partidas de las sesiones creadas a partir de
+     * ahora; {@code null} deja de guardarlas.
+     */
+    public void setRegistro(EscritorRegistro registro) {
+        this.registro = registro;
+    }
+    
+    public void iniciar() {
+        long periodo = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(inactividadNanos) / 2);
+        limpieza.scheduleAtFixedRate(this::eliminarInactivas, periodo, periodo, TimeUnit.SECONDS);
+        http.start();
+    }
+    
+    public void detener() {
+        http.stop(0);
+        limpieza.shutdownNow();
+        ejecutor.shutdownNow();
+    }
+    
+    public int getPuerto() {
+        return http.getAddress().getPort();
+    }
+    
+    public int getSesiones() {
+        return sesiones.size();
+    }
+    
+    void eliminarInactivas() {
+        long limite = System.nanoTime() - inactividadNanos;
+        sesiones.values().removeIf(sesion -> {
+            if (sesion.getUltimoAcceso() - limite >= 0) return false;
+            sesion.abandonar();
+            return true;
+        });
+    }
+    
+    private void atender(HttpExchange intercambio) throws IOException {
+        try {
+            String[] partes = intercambio.getRequestURI().getPath().split("/");
+            Map<String, String> parametros = parametros(intercambio.getRequestURI().getRawQuery());
+            String metodo = intercambio.getRequestMethod();
+            // partes = {"", "partidas", id?, accion?}
+            if (partes.length == 2) {
+                if (!metodo.equals("POST")) {
+                    responder(intercambio, 405, error("Método no permitido"));
+                    return;
+                }
+                Sesion sesion = crearSesion(parametros);
+                responder(intercambio, 201, sesion.estadoJson());
+                return;
+            }
+            Sesion sesion = partes.length <= 4 ? sesiones.get(partes[2]) : null;
+            if (sesion == null) {
+                responder(intercambio, 404, error("Partida no encontrada"));
+                return;
+            }
+            sesion.tocar();
+            String accion = partes.length == 4 ? partes[3] : "";
+            switch (metodo + " " + accion) {
+                case "GET ":
+                    responder(intercambio, 200, sesion.estadoJson());
+                    break;
+                case "DELETE ":
+                    sesiones.remove(sesion.getId());
+                    String estado = sesion.estadoJson();
+                    sesion.abandonar();
+                    responder(intercambio, 200, estado);
+                    break;
+                case "POST movimiento":
+                    int casilla = Integer.parseInt(parametros.getOrDefault("casilla", "-1"));
+                    boolean valido = sesion.moverHumano(casilla);
+                    responder(intercambio, valido ? 200 : 409, sesion.estadoJson());
+                    break;
+                case "POST ia":
+                    int movimiento = sesion.moverIA();
+                    responder(intercambio, movimiento != -1 ? 200 : 409, sesion.estadoJson());
+                    break;
+                default:
+                    responder(intercambio, 404, error("Ruta desconocida"));
+            }
+        } catch (IllegalArgumentException e) {
+            responder(intercambio, 400, error(e.getMessage()));
+        } catch (RuntimeException e) {
+            responder(intercambio, 500, error(String.valueOf(e.getMessage())));
+        }
+    }
+    
+    private Sesion crearSesion(Map<String, String> parametros) {
+        int lado = Integer.parseInt(parametros.getOrDefault("lado", "3"));
+        int enLinea = Integer.parseInt(parametros.getOrDefault("enLinea", String.valueOf(Math.min(lado, 5))));
+        Geometria.de(lado, enLinea); // valida la variante
+        String modo = parametros.getOrDefault("modo", Sesion.DIFICIL);
+        boolean empiezaHumano = !"ia".equals(parametros.get("empieza"));
+        String id;
+        Sesion sesion;
+        do {
+            id = Long.toHexString(IDS.nextLong());
+            sesion = new Sesion(id, lado, enLinea, modo, empiezaHumano, libro, registro);
+        } while (sesiones.putIfAbsent(id, sesion) != null);
+        return sesion;
+    }
+    
+    private static Map<String, String> parametros(String consulta) {
+        Map<String, String> parametros = new HashMap<>();
+        if (consulta == null) return parametros;
+        for (String par : consulta.split("&")) {
+            int igual = par.indexOf('=');
+            if (igual > 0) parametros.put(par.substring(0, igual), par.substring(igual + 1));
+        }
+        return parametros;
+    }
+    
+    private static String error(String mensaje) {
+        return "{\"error\":\"" + mensaje.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}";
+    }
+    
+    private static void responder(HttpExchange intercambio, int codigo, String cuerpo) throws IOException {
+        byte[] bytes = cuerpo.getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        intercambio.sendResponseHeaders(codigo, bytes.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(bytes);
+        }
+    }
+    
+    public static void main(String[] args) throws IOException {
+        int puerto = 8080;
+        long inactividad = 300;
+        String libro = null;
+        String registro = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String valor = args[i + 1];
+            switch (args[i]) {
+                case "--puerto": puerto = Integer.parseInt(valor); break;
+                case "--inactividad": inactividad = Long.parseLong(valor); break;
+                case "--libro": libro = valor; break;
+                case "--registro": registro = valor; break;
+                default: throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+        ServidorJuego servidor = new ServidorJuego(puerto, inactividad);
+        if (libro != null) servidor.setLibro(LibroAperturas.abrir(Paths.get(libro)));
+        if (registro != null) {
+            EscritorRegistro escritor = new EscritorRegistro(Paths.get(registro));
+            servidor.setRegistro(escritor);
+            // Lo que quede en la cola se escribe antes de salir
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    escritor.close();
+                } catch (IOException e) {
+                    System.err.println("Error cerrando el registro: " + e.getMessage());
+                }
+            }));
+        }
+        servidor.iniciar();
+        System.out.println("Servidor escuchando en http://127.0.0.1:" + servidor.getPuerto() + "/partidas");
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.Servidor;
+
+import com.example.Controller.Controller;
+import com.example.Controller.ControllerDecorator;
+import com.example.Libro.LibroAperturas;
+import com.example.Registro.EscritorRegistro;
+
+/**
+ * Una partida del servidor con su propio controlador y sus propios motores. Las
+ * tablas de solo lectura (la resuelta del 3x3, la aprendida y el libro) se
+ * comparten entre todas las sesiones.
+ *
+ * <p>Todas las operaciones se sincronizan sobre la sesión, así que dos peticiones
+ * a la misma partida se atienden una detrás de otra.
+ */
+final class Sesion {
+    static final String FACIL = "facil";
+    static final String DIFICIL = "dificil";
+    static final String APRENDIZ = "aprendiz";
+    static final String MONTECARLO = "montecarlo";
+    // Seguido del número, de nivel1 a nivel10
+    static final String NIVEL = "nivel";
+    
+    private final String id;
+    private final Controller controller;
+    private final ControllerDecorator decorador;
+    private final int[] celdas;
+    private boolean turnoHumano;
+    private int ultimoMovimiento = -1;
+    private volatile long ultimoAcceso;
+    
+    Sesion(String id, int lado, int enLinea, String modo, boolean empiezaHumano, LibroAperturas libro,
+           EscritorRegistro registro) {
+        this.id = id;
+        this.controller = new Controller(lado, enLinea);
+        this.decorador = new ControllerDecorator(controller);
+        switch (modo) {
+            case FACIL: decorador.setModoFacil(true); break;
+            case APRENDIZ: decorador.setModoAprendiz(true); break;
+            case MONTECARLO: decorador.setModoMontecarlo(true); break;
+            case DIFICIL: break;
+            default:
+                if (!modo.startsWith(NIVEL)) throw new IllegalArgumentException("Modo desconocido: " + modo);
+                decorador.setNivel(Integer.parseInt(modo.substring(NIVEL.length())));
+        }
+        if (libro != null && libro.getLado() == lado && libro.getEnLinea() == enLinea) {
+            decorador.setLibro(libro);
+        }
+        decorador.setRegistro(registro);
+        this.celdas = new int[lado * lado];
+        this.turnoHumano = empiezaHumano;
+        tocar();
+    }
+    
+    String getId() {
+        return id;
+    }
+    
+    long getUltimoAcceso() {
+        return ultimoAcceso;
+    }
+    
+    void tocar() {
+        ultimoAcceso = System.nanoTime();
+    }
+    
+    /**
+     * Jugada del humano; falso si no es su turno, la partida terminó o la casilla no vale.
+     */
+    synchronized boolean moverHumano(int casilla) {
+        if (!turnoHumano || decorador.esFinal() || !decorador.hacerMovimientoHumano(casilla)) {
+            return false;
+        }
+        ultimoMovimiento = casilla;
+        turnoHumano = false;
+        return true;
+    }
+    
+    /**
+     * Jugada de la IA; -1 si no es su turno o la partida terminó.
+     */
+    synchronized int moverIA() {
+        if (turnoHumano || decorador.esFinal()) return -1;
+        int movimiento = decorador.hacerMovimientoIA();
+        if (movimiento != -1) {
+            ultimoMovimiento = movimiento;
+            turnoHumano = true;
+        }
+        return movimiento;
+    }
+    
+    /**
+     * Guarda la partida en el registro si se quedó a medias; se llama al eliminar la sesión.
+     */
+    synchronized void abandonar() {
+        decorador.reiniciarJuego();
+    }
+    
+    synchronized String estadoJson() {
+        decorador.copiarTablero(celdas);
+        StringBuilder json = new StringBuilder(64 + 2 * celdas.length);
+        json.append("{\"id\":\"").append(id)
+            .append("\",\"lado\":").append(controller.getLado())
+            .append(",\"enLinea\":").append(controller.getEnLinea())
+            .append(",\"tablero\":[");
+        for (int i = 0; i < celdas.length; i++) {
+            if (i > 0) json.append(',');
+            json.append(celdas[i]);
+        }
+        json.append("],\"turno\":\"").append(turnoHumano ? "humano" : "ia")
+            .append("\",\"movimiento\":").append(ultimoMovimiento)
+            .append(",\"ganador\":").append(decorador.verificarGanador())
+            .append(",\"final\":").append(decorador.esFinal())
+            .append('}');
+        return json.toString();
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.Simulacion;
+
+import com.example.Aprendizaje.EvaluadorRed;
+import com.example.Controller.Geometria;
+import com.example.Controller.Motor;
+import com.example.Controller.MotorDificil;
+import com.example.Controller.MotorNivel;
+import com.example.Controller.NivelDificultad;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+/**
+ * Un motor inscrito en un {@link Torneo}, con su propio tiempo por jugada. Dar
+ * a cada uno un tiempo distinto (incluso al mismo tipo de motor) permite comparar
+ * cuánta fuerza saca cada uno de cada milisegundo. El difícil puede llevar
+ * además un {@link EvaluadorRed} entrenado, para medirlo contra la evaluación
+ * por líneas. Los niveles de {@link NivelDificultad} se inscriben como
+ * {@code nivel1} a {@code nivel10}; no tienen tiempo, su búsqueda no depende
+ * del reloj.
+ */
+public final class Participante {
+    private final TipoMotor tipo;
+    private final long tiempoMaximo;
+    private final EvaluadorRed evaluador;
+    private final String modelo;
+    private final NivelDificultad nivel;
+    
+    /**
+     * @param tiempoMaximo milisegundos por jugada; 0 sin límite
+     */
+    public Participante(TipoMotor tipo, long tiempoMaximo) {
+        this.tipo = tipo;
+        this.tiempoMaximo = tiempoMaximo;
+        this.evaluador = null;
+        this.modelo = null;
+        this.nivel = null;
+    }
+    
+    /**
+     * Un motor difícil que evalúa con {@code evaluador}; {@code modelo} es el
+     * nombre con el que sale en los resultados.
+     */
+    public Participante(long tiempoMaximo, EvaluadorRed evaluador, String modelo) {
+        this.tipo = TipoMotor.DIFICIL;
+        this.tiempoMaximo = tiempoMaximo;
+        this.evaluador = evaluador;
+        this.modelo = modelo;
+        this.nivel = null;
+    }
+    
+    /**
+     * Un {@link MotorNivel}; su tipo es {@code null}.
+     */
+    public Participante(NivelDificultad nivel) {
+        this.tipo = null;
+        this.tiempoMaximo = 0;
+        this.evaluador = null;
+        this.modelo = null;
+        this.nivel = nivel;
+    }
+    
+    /**
+     * Lee {@code tipo}, {@code tipo@milisegundos} y, solo para el difícil, un
+     * evaluador detrás de dos puntos: {@code montecarlo@20} o
+     * {@code dificil@5:red.ev}. Sin milisegundos se usa {@code tiempoPorDefecto}.
+     */
+    public static Participante porNombre(String especificacion, long tiempoPorDefecto) throws IOException {
+        String nombre = especificacion.trim().toLowerCase();
+        if (nombre.startsWith("nivel")) {
+            return new Participante(NivelDificultad.de(Integer.parseInt(nombre.substring("nivel".length()))));
+        }
+        String archivo = null;
+        int dosPuntos = especificacion.indexOf(':');
+        if (dosPuntos >= 0) {
+            archivo = especificacion.substring(dosPuntos + 1).trim();
+            especificacion = especificacion.substring(0, dosPuntos);
+        }
+        int arroba = especificacion.indexOf('@');
+        TipoMotor tipo = TipoMotor.porNombre(arroba < 0 ? especificacion : especificacion.substring(0, arroba));
+        long tiempo = arroba < 0 ? tiempoPorDefecto : Long.parseLong(especificacion.substring(arroba + 1).trim());
+        if (archivo == null) return new Participante(tipo, tiempo);
+        if (tipo != TipoMotor.DIFICIL) {
+            throw new IllegalArgumentException("Solo el motor difícil admite evaluador: " + especificacion);
+        }
+        Path ruta = Paths.get(archivo);
+        return new Participante(tiempo, EvaluadorRed.cargar(ruta), ruta.getFileName().toString());
+    }
+    
+    /**
+     * Si puede jugar la variante; un evaluador solo sirve para aquella en la que
+     * se entrenó.
+     */
+    boolean admite(Geometria geometria) {
+        return evaluador == null || evaluador.getGeometria() == geometria;
+    }
+    
+    Motor crear(long semilla, int profundidadMaxima) {
+        if (nivel != null) return new MotorNivel(nivel, new SplittableRandom(semilla));
+        Motor motor = tipo.crear(semilla, tiempoMaximo, profundidadMaxima);
+        // Cada motor con su copia: el lote de evaluaciones usa buffers propios
+        if (evaluador != null) ((MotorDificil) motor).setEvaluador(evaluador.copia());
+        return motor;
+    }
+    
+    /**
+     * Tipo de motor, o {@code null} si es un nivel.
+     */
+    public TipoMotor getTipo() {
+        return tipo;
+    }
+    
+    public long getTiempoMaximo() {
+        return tiempoMaximo;
+    }
+    
+    public NivelDificultad getNivel() {
+        return nivel;
+    }
+    
+    @Override
+    public String toString() {
+        if (nivel != null) return "nivel" + nivel.getNivel();
+        String nombre = tipo.name().toLowerCase();
+        if (tiempoMaximo > 0) nombre += "@" + tiempoMaximo;
+        return modelo != null ? nombre + ":" + modelo : nombre;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.Simulacion;
+
+import com.example.Controller.Controller;
+
+/**
+ * Recuento de una tanda de partidas entre el motor A y el motor B.
+ *
+ * <p>Cada trabajador llena el suyo y al final se combinan, así que no hace falta
+ * sincronizar nada mientras se juega.
+ */
+public class Resultados {
+    private long victoriasA;
+    private long victoriasB;
+    private long empates;
+    private long victoriasPrimero;
+    // duraciones[n] = partidas que terminaron tras n jugadas
+    private final long[] duraciones;
+    private long nanos;
+    
+    public Resultados(int casillas) {
+        this.duraciones = new long[casillas + 1];
+    }
+    
+    void registrar(int resultado, boolean empiezaA, int jugadas) {
+        duraciones[jugadas]++;
+        if (resultado == -1) {
+            empates++;
+            return;
+        }
+        // El jugador HUMANO es siempre el que mueve primero
+        boolean ganaPrimero = resultado == Controller.HUMANO;
+        if (ganaPrimero) victoriasPrimero++;
+        if (ganaPrimero == empiezaA) victoriasA++;
+        else victoriasB++;
+    }
+    
+    void combinar(Resultados otro) {
+        victoriasA += otro.victoriasA;
+        victoriasB += otro.victoriasB;
+        empates += otro.empates;
+        victoriasPrimero += otro.victoriasPrimero;
+        for (int i = 0; i < duraciones.length; i++) {
+            duraciones[i] += otro.duraciones[i];
+        }
+    }
+    
+    void setNanos(long nanos) {
+        this.nanos = nanos;
+    }
+    
+    public long getPartidas() {
+        return victoriasA + victoriasB + empates;
+    }
+    
+    public long getVictoriasA() {
+        return victoriasA;
+    }
+    
+    public long getVictoriasB() {
+        return victoriasB;
+    }
+    
+    public long getEmpates() {
+        return empates;
+    }
+    
+    public long getVictoriasPrimero() {
+        return victoriasPrimero;
+    }
+    
+    /**
+     * Partidas que terminaron tras {@code jugadas} movimientos.
+     */
+    public long getDuracion(int jugadas) {
+        return duraciones[jugadas];
+    }
+    
+    public double getJugadasMedias() {
+        long total = 0;
+        for (int i = 0; i < duraciones.length; i++) {
+            total += i * duraciones[i];
+        }
+        return getPartidas() == 0 ? 0 : (double) total / getPartidas();
+    }
+    
+    public double getPartidasPorSegundo() {
+        return nanos == 0 ? 0 : getPartidas() * 1e9 / nanos;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Partidas: %d  A: %d  B: %d  Empates: %d  Gana quien empieza: %d%n",
+            getPartidas(), victoriasA, victoriasB, empates, victoriasPrimero));
+        sb.append(String.format("Jugadas por partida: media %.2f%n", getJugadasMedias()));
+        for (int i = 0; i < duraciones.length; i++) {
+            if (duraciones[i] > 0) {
+                sb.append(String.format("  %3d jugadas: %d%n", i, duraciones[i]));
+            }
+        }
+        sb.append(String.format("Tiempo: %.3f s  (%.0f partidas/s)", nanos / 1e9, getPartidasPorSegundo()));
+        return sb.toString();
+    }
+}
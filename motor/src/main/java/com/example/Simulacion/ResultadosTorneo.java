@@ -0,0 +1,241 @@
+package com.example.Simulacion;
+
+import com.example.Controller.Controller;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Recuento de un {@link Torneo}: resultados de cada emparejamiento y tiempo,
+ * nodos y evaluaciones de cada participante, con el Elo que se deduce de ellos.
+ *
+ * <p>Como {@link Resultados}, cada trabajador llena el suyo y al final se combinan.
+ *
+ * <p>El Elo es el de máxima verosimilitud del modelo logístico, con las tablas
+ * como medio punto y la media de los participantes en 0. A cada emparejamiento se
+ * le suman unas tablas ficticias para que un marcador perfecto no dé un Elo
+ * infinito. El margen es el intervalo del 95% de cada participante con los demás
+ * fijos, usando la varianza observada de sus partidas (las tablas la reducen);
+ * es aproximado, pero basta para ver si una diferencia es ruido.
+ */
+public class ResultadosTorneo {
+    private static final double K = Math.log(10) / 400;
+    
+    private final List<Participante> participantes;
+    // victorias[i][j] = partidas que i le ganó a j
+    private final long[][] victorias;
+    private final long[][] empates;
+    private final long[] jugadas;
+    private final long[] nanosJugadas;
+    private final long[] nodos;
+    private final long[] evaluaciones;
+    private long nanos;
+    private double[] elo;
+    private double[] margen;
+    
+    public ResultadosTorneo(List<Participante> participantes) {
+        int n = participantes.size();
+        this.participantes = Collections.unmodifiableList(new ArrayList<>(participantes));
+        this.victorias = new long[n][n];
+        this.empates = new long[n][n];
+        this.jugadas = new long[n];
+        this.nanosJugadas = new long[n];
+        this.nodos = new long[n];
+        this.evaluaciones = new long[n];
+    }
+    
+    /**
+     * Anota una partida entre los participantes {@code a} y {@code b}.
+     */
+    void registrarPartida(int a, int b, int resultado, boolean empiezaA) {
+        if (resultado == -1) {
+            empates[a][b]++;
+            empates[b][a]++;
+        } else if ((resultado == Controller.HUMANO) == empiezaA) {
+            victorias[a][b]++;
+        } else {
+            victorias[b][a]++;
+        }
+        elo = null;
+    }
+    
+    void registrarJugada(int participante, long nanos, long nodosJugada, long evaluacionesJugada) {
+        jugadas[participante]++;
+        nanosJugadas[participante] += nanos;
+        nodos[participante] += nodosJugada;
+        evaluaciones[participante] += evaluacionesJugada;
+    }
+    
+    void combinar(ResultadosTorneo otro) {
+        for (int i = 0; i < jugadas.length; i++) {
+            for (int j = 0; j < jugadas.length; j++) {
+                victorias[i][j] += otro.victorias[i][j];
+                empates[i][j] += otro.empates[i][j];
+            }
+            jugadas[i] += otro.jugadas[i];
+            nanosJugadas[i] += otro.nanosJugadas[i];
+            nodos[i] += otro.nodos[i];
+            evaluaciones[i] += otro.evaluaciones[i];
+        }
+        elo = null;
+    }
+    
+    void setNanos(long nanos) {
+        this.nanos = nanos;
+    }
+    
+    public List<Participante> getParticipantes() {
+        return participantes;
+    }
+    
+    public long getVictorias(int i, int j) {
+        return victorias[i][j];
+    }
+    
+    public long getEmpates(int i, int j) {
+        return empates[i][j];
+    }
+    
+    public long getPartidas(int i, int j) {
+        return victorias[i][j] + victorias[j][i] + empates[i][j];
+    }
+    
+    public long getPartidas(int i) {
+        long total = 0;
+        for (int j = 0; j < jugadas.length; j++) {
+            if (j != i) total += getPartidas(i, j);
+        }
+        return total;
+    }
+    
+    /**
+     * Fracción de los puntos posibles que sacó {@code i}, contando las tablas como medio.
+     */
+    public double getPuntuacion(int i) {
+        long partidas = getPartidas(i);
+        return partidas == 0 ? 0 : puntos(i) / partidas;
+    }
+    
+    public double getMilisegundosPorJugada(int i) {
+        return jugadas[i] == 0 ? 0 : nanosJugadas[i] / 1e6 / jugadas[i];
+    }
+    
+    public double getNodosPorSegundo(int i) {
+        return nanosJugadas[i] == 0 ? 0 : nodos[i] * 1e9 / nanosJugadas[i];
+    }
+    
+    public double getEvaluacionesPorSegundo(int i) {
+        return nanosJugadas[i] == 0 ? 0 : evaluaciones[i] * 1e9 / nanosJugadas[i];
+    }
+    
+    public double getElo(int i) {
+        calcularElo();
+        return elo[i];
+    }
+    
+    /**
+     * Media anchura del intervalo del 95% de {@link #getElo(int)}.
+     */
+    public double getMargenElo(int i) {
+        calcularElo();
+        return margen[i];
+    }
+    
+    private double puntos(int i) {
+        double total = 0;
+        for (int j = 0; j < jugadas.length; j++) {
+            if (j != i) total += victorias[i][j] + empates[i][j] / 2.0;
+        }
+        return total;
+    }
+    
+    private void calcularElo() {
+        if (elo != null) return;
+        int n = jugadas.length;
+        // gamma = 10^(elo/400); algoritmo MM de Hunter, que siempre converge
+        double[] gamma = new double[n];
+        Arrays.fill(gamma, 1);
+        for (int iteracion = 0; iteracion < 10_000; iteracion++) {
+            double cambio = 0;
+            for (int i = 0; i < n; i++) {
+                double puntos = 0;
+                double denominador = 0;
+                for (int j = 0; j < n; j++) {
+                    long partidas = j == i ? 0 : getPartidas(i, j);
+                    if (partidas == 0) continue;
+                    puntos += victorias[i][j] + (empates[i][j] + 1) / 2.0;
+                    denominador += (partidas + 1) / (gamma[i] + gamma[j]);
+                }
+                if (denominador == 0) continue;
+                double nuevo = puntos / denominador;
+                cambio = Math.max(cambio, Math.abs(Math.log(nuevo / gamma[i])));
+                gamma[i] = nuevo;
+            }
+            double logMedio = 0;
+            for (double g : gamma) {
+                logMedio += Math.log(g) / n;
+            }
+            for (int i = 0; i < n; i++) {
+                gamma[i] /= Math.exp(logMedio);
+            }
+            if (cambio < 1e-9) break;
+        }
+        
+        elo = new double[n];
+        margen = new double[n];
+        for (int i = 0; i < n; i++) {
+            elo[i] = 400 * Math.log10(gamma[i]);
+            // Varianza por partida con una victoria y una derrota ficticias, para que
+            // un marcador sin variación no dé un intervalo nulo
+            long ganadas = 1;
+            long tablas = 0;
+            long partidas = getPartidas(i) + 2;
+            for (int j = 0; j < n; j++) {
+                if (j == i) continue;
+                ganadas += victorias[i][j];
+                tablas += empates[i][j];
+            }
+            double media = (ganadas + tablas / 2.0) / partidas;
+            double varianza = (ganadas + tablas / 4.0) / partidas - media * media;
+            double informacion = 0;
+            for (int j = 0; j < n; j++) {
+                if (j == i) continue;
+                double p = gamma[i] / (gamma[i] + gamma[j]);
+                double pendiente = K * p * (1 - p);
+                informacion += getPartidas(i, j) * pendiente * pendiente / varianza;
+            }
+            margen[i] = informacion == 0 ? Double.POSITIVE_INFINITY : 1.96 / Math.sqrt(informacion);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        int n = jugadas.length;
+        List<Integer> orden = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            orden.add(i);
+        }
+        orden.sort(Comparator.comparingDouble(i -> -getElo(i)));
+        
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-20s %8s %8s %9s %7s %10s %12s %12s%n",
+            "Motor", "Elo", "±95%", "Partidas", "Puntos", "ms/jugada", "nodos/s", "evals/s"));
+        for (int i : orden) {
+            sb.append(String.format("%-20s %+8.1f %8.1f %9d %6.1f%% %10.3f %12.0f %12.0f%n",
+                participantes.get(i), getElo(i), getMargenElo(i), getPartidas(i), 100 * getPuntuacion(i),
+                getMilisegundosPorJugada(i), getNodosPorSegundo(i), getEvaluacionesPorSegundo(i)));
+        }
+        sb.append(String.format("%nEmparejamientos (victorias, tablas, derrotas del primero):%n"));
+        for (int a = 0; a < n; a++) {
+            for (int b = a + 1; b < n; b++) {
+                if (getPartidas(a, b) == 0) continue;
+                sb.append(String.format("  %s - %s: +%d =%d -%d%n", participantes.get(a), participantes.get(b),
+                    victorias[a][b], empates[a][b], victorias[b][a]));
+            }
+        }
+        sb.append(String.format("Tiempo: %.3f s", nanos / 1e9));
+        return sb.toString();
+    }
+}
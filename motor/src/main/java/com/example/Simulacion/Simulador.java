@@ -0,0 +1,190 @@
+package com.example.Simulacion;
+
+import com.example.Controller.Controller;
+import com.example.Controller.Geometria;
+import com.example.Controller.Motor;
+import com.example.Controller.Tablero;
+import com.example.Registro.EscritorRegistro;
+import com.example.Registro.PartidaRegistrada;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Juega partidas entre dos motores sin interfaz gráfica, con un trabajador por núcleo.
+ *
+ * <p>Las partidas se reparten en bloques de tamaño fijo. Cada bloque crea sus
+ * propios motores con semillas derivadas de la semilla global y del número de
+ * bloque, y cada trabajador acumula sus propios {@link Resultados}. Así no se
+ * comparte nada mutable salvo el contador de bloques, y una misma semilla da los
+ * mismos resultados sea cual sea el número de hilos. Los motores que buscan se
+ * limitan por profundidad; con un tiempo máximo dejan de ser reproducibles.
+ *
+ * <p>Con un {@link EscritorRegistro} cada partida se guarda además en el registro,
+ * esperando si el disco no da abasto en lugar de perder partidas.
+ *
+ * <p>Uso: {@code Simulador --partidas 1000000 --a dificil --b facil --hilos 8
+ * --semilla 42 --lado 3 --en-linea 3 --profundidad 4 --tiempo 0 --registro partidas}
+ */
+public class Simulador {
+    private static final int PARTIDAS_POR_BLOQUE = 1024;
+    
+    private final int lado;
+    private final int enLinea;
+    private final TipoMotor motorA;
+    private final TipoMotor motorB;
+    private int hilos = Runtime.getRuntime().availableProcessors();
+    private boolean alternarInicio = true;
+    private long tiempoMaximo = 0;
+    private int profundidadMaxima = 4;
+    private EscritorRegistro registro;
+    
+    public Simulador(int lado, int enLinea, TipoMotor motorA, TipoMotor motorB) {
+        Geometria.de(lado, enLinea); // valida la variante
+        this.lado = lado;
+        this.enLinea = enLinea;
+        this.motorA = motorA;
+        this.motorB = motorB;
+    }
+    
+    public void setHilos(int hilos) {
+        this.hilos = Math.max(1, hilos);
+    }
+    
+    /**
+     * Si es verdadero (por defecto), A empieza las partidas pares y B las impares;
+     * si no, A empieza siempre.
+     */
+    public void setAlternarInicio(boolean alternar) {
+        this.alternarInicio = alternar;
+    }
+    
+    /**
+     * Milisegundos por jugada para los motores que buscan; 0 (por defecto) sin límite.
+     */
+    public void setTiempoMaximo(long milisegundos) {
+        this.tiempoMaximo = milisegundos;
+    }
+    
+    public void setProfundidadMaxima(int profundidad) {
+        this.profundidadMaxima = profundidad;
+    }
+    
+    /**
+     * Registro donde guardar las partidas jugadas, como modo autojuego; {@code null} no las guarda.
+     */
+    public void setRegistro(EscritorRegistro registro) {
+        this.registro = registro;
+    }
+    
+    public Resultados ejecutar(long partidas, long semilla) throws InterruptedException {
+        long bloques = (partidas + PARTIDAS_POR_BLOQUE - 1) / PARTIDAS_POR_BLOQUE;
+        AtomicLong siguiente = new AtomicLong();
+        int casillas = lado * lado;
+        Resultados[] parciales = new Resultados[hilos];
+        Thread[] trabajadores = new Thread[hilos];
+        
+        long inicio = System.nanoTime();
+        for (int h = 0; h < hilos; h++) {
+            Resultados parcial = new Resultados(casillas);
+            parciales[h] = parcial;
+            trabajadores[h] = new Thread(() -> {
+                long bloque;
+                try {
+                    while ((bloque = siguiente.getAndIncrement()) < bloques) {
+                        long primera = bloque * PARTIDAS_POR_BLOQUE;
+                        long ultima = Math.min(partidas, primera + PARTIDAS_POR_BLOQUE);
+                        jugarBloque(bloque, primera, ultima, semilla, parcial);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "simulador-" + h);
+            trabajadores[h].start();
+        }
+        for (Thread trabajador : trabajadores) {
+            trabajador.join();
+        }
+        
+        Resultados total = new Resultados(casillas);
+        for (Resultados parcial : parciales) {
+            total.combinar(parcial);
+        }
+        total.setNanos(System.nanoTime() - inicio);
+        return total;
+    }
+    
+    private void jugarBloque(long bloque, long primera, long ultima, long semilla, Resultados resultados)
+            throws InterruptedException {
+        SplittableRandom semillas = new SplittableRandom(semilla ^ (bloque * 0x9E3779B97F4A7C15L));
+        Motor a = motorA.crear(semillas.nextLong(), tiempoMaximo, profundidadMaxima);
+        Motor b = motorB.crear(semillas.nextLong(), tiempoMaximo, profundidadMaxima);
+        Tablero tablero = new Tablero(Geometria.de(lado, enLinea));
+        int[] secuencia = new int[tablero.getCasillas()];
+        
+        for (long partida = primera; partida < ultima; partida++) {
+            tablero.reiniciar();
+            boolean empiezaA = !alternarInicio || (partida & 1) == 0;
+            int turno = Controller.HUMANO;
+            int jugadas = 0;
+            while (tablero.resultado() == 0) {
+                Motor motor = (turno == Controller.HUMANO) == empiezaA ? a : b;
+                int movimiento = motor.mejorMovimiento(tablero, turno);
+                tablero.mover(movimiento, turno);
+                secuencia[jugadas] = movimiento;
+                turno = Controller.HUMANO + Controller.IA - turno;
+                jugadas++;
+            }
+            resultados.registrar(tablero.resultado(), empiezaA, jugadas);
+            if (registro != null) {
+                registro.registrarEsperando(new PartidaRegistrada(System.currentTimeMillis(), lado, enLinea,
+                    PartidaRegistrada.MODO_AUTOJUEGO, tablero.resultado(), Controller.HUMANO, secuencia, jugadas));
+            }
+        }
+    }
+    
+    public static void main(String[] args) throws InterruptedException, IOException {
+        long partidas = 100_000;
+        long semilla = 42;
+        int lado = 3;
+        int enLinea = 3;
+        TipoMotor a = TipoMotor.DIFICIL;
+        TipoMotor b = TipoMotor.FACIL;
+        Integer hilos = null;
+        Long tiempo = null;
+        Integer profundidad = null;
+        String registro = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String valor = args[i + 1];
+            switch (args[i]) {
+                case "--partidas": partidas = Long.parseLong(valor); break;
+                case "--semilla": semilla = Long.parseLong(valor); break;
+                case "--lado": lado = Integer.parseInt(valor); break;
+                case "--en-linea": enLinea = Integer.parseInt(valor); break;
+                case "--a": a = TipoMotor.porNombre(valor); break;
+                case "--b": b = TipoMotor.porNombre(valor); break;
+                case "--hilos": hilos = Integer.parseInt(valor); break;
+                case "--tiempo": tiempo = Long.parseLong(valor); break;
+                case "--profundidad": profundidad = Integer.parseInt(valor); break;
+                case "--registro": registro = valor; break;
+                default: throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+        
+        Simulador simulador = new Simulador(lado, enLinea, a, b);
+        if (hilos != null) simulador.setHilos(hilos);
+        if (tiempo != null) simulador.setTiempoMaximo(tiempo);
+        if (profundidad != null) simulador.setProfundidadMaxima(profundidad);
+        System.out.printf("%s (A) contra %s (B) en %dx%d, %d en línea, %d hilos%n",
+            a, b, lado, lado, enLinea, simulador.hilos);
+        if (registro == null) {
+            System.out.println(simulador.ejecutar(partidas, semilla));
+            return;
+        }
+        try (EscritorRegistro escritor = new EscritorRegistro(Paths.get(registro))) {
+            simulador.setRegistro(escritor);
+            System.out.println(simulador.ejecutar(partidas, semilla));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.Simulacion;
+
+import com.example.Controller.Motor;
+import com.example.Controller.MotorAleatorio;
+import com.example.Controller.MotorDificil;
+import com.example.Controller.MotorFacil;
+import com.example.Montecarlo.MotorMontecarlo;
+import java.util.SplittableRandom;
+
+/**
+ * Motores disponibles para partidas sin interfaz, creados por nombre.
+ */
+public enum TipoMotor {
+    ALEATORIO,
+    FACIL,
+    DIFICIL,
+    MONTECARLO;
+    
+    /**
+     * Crea una instancia nueva con su propio generador sembrado.
+     *
+     * @param tiempoMaximo milisegundos por jugada para los motores que buscan (0 sin límite)
+     * @param profundidadMaxima jugadas como máximo para los motores que buscan
+     */
+    public Motor crear(long semilla, long tiempoMaximo, int profundidadMaxima) {
+        switch (this) {
+            case ALEATORIO:
+                return new MotorAleatorio(new SplittableRandom(semilla));
+            case FACIL:
+                return new MotorFacil(new SplittableRandom(semilla));
+            case MONTECARLO:
+                MotorMontecarlo montecarlo = new MotorMontecarlo(new SplittableRandom(semilla));
+                montecarlo.setTiempoMaximo(tiempoMaximo);
+                return montecarlo;
+            default:
+                MotorDificil motor = new MotorDificil();
+                motor.setTiempoMaximo(tiempoMaximo);
+                motor.setProfundidadMaxima(profundidadMaxima);
+                return motor;
+        }
+    }
+    
+    public static TipoMotor porNombre(String nombre) {
+        return valueOf(nombre.trim().toUpperCase());
+    }
+}
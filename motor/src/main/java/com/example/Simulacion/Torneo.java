@@ -0,0 +1,222 @@
+package com.example.Simulacion;
+
+import com.example.Controller.Controller;
+import com.example.Controller.Geometria;
+import com.example.Controller.Motor;
+import com.example.Controller.Tablero;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Liga a una vuelta entre varios motores, jugada en todos los núcleos, con el
+ * Elo, el tiempo por jugada y los nodos por segundo de cada uno.
+ *
+ * <p>Como en {@link Simulador}, las partidas de cada emparejamiento se reparten
+ * en bloques que crean sus propios motores con semillas derivadas de la semilla
+ * global, del emparejamiento y del bloque, así que una semilla da la misma liga
+ * con cualquier número de hilos mientras nadie juegue con tiempo. Las partidas
+ * van por parejas que comparten apertura y en las que cada motor empieza una.
+ * Los motores deterministas jugarían siempre la misma pareja, así que conviene
+ * pedir unas cuantas jugadas de apertura al azar.
+ *
+ * <p>Con un tiempo por jugada distinto para cada participante (por ejemplo
+ * {@code dificil@5,dificil@20,montecarlo@5,montecarlo@20}) se compara la fuerza
+ * por milisegundo. Entonces conviene no usar más hilos que núcleos, o cada motor
+ * tendrá menos CPU de la que indica su tiempo. Con {@code dificil,dificil:red.ev}
+ * se mide un evaluador de {@link com.example.Aprendizaje.EntrenadorEvaluacion}
+ * contra la evaluación por líneas, y la columna de evaluaciones por segundo
+ * dice cuánto cuesta cada una. Con {@code nivel1,nivel2,...,nivel10} se
+ * comprueba que cada nivel de dificultad gana a los de debajo.
+ *
+ * <p>Uso: {@code Torneo --motores dificil,facil,montecarlo@20 --partidas 1000
+ * --aperturas 2 --hilos 8 --semilla 42 --lado 3 --en-linea 3 --profundidad 4
+ * --tiempo 0}
+ */
+public class Torneo {
+    // Par, para que las dos partidas de cada pareja caigan en el mismo bloque
+    private static final int PARTIDAS_POR_BLOQUE = 64;
+    
+    private final int lado;
+    private final int enLinea;
+    private final List<Participante> participantes;
+    private int hilos = Runtime.getRuntime().availableProcessors();
+    private int profundidadMaxima = 4;
+    private int jugadasApertura = 0;
+    
+    public Torneo(int lado, int enLinea, List<Participante> participantes) {
+        Geometria geometria = Geometria.de(lado, enLinea); // valida la variante
+        if (participantes.size() < 2) throw new IllegalArgumentException("Hacen falta al menos dos motores");
+        for (Participante participante : participantes) {
+            if (!participante.admite(geometria)) {
+                throw new IllegalArgumentException(participante + " no sirve para " + lado + "x" + lado
+                    + " con " + enLinea + " en línea");
+            }
+        }
+        this.lado = lado;
+        this.enLinea = enLinea;
+        this.participantes = new ArrayList<>(participantes);
+    }
+    
+    public void setHilos(int hilos) {
+        this.hilos = Math.max(1, hilos);
+    }
+    
+    public void setProfundidadMaxima(int profundidad) {
+        this.profundidadMaxima = profundidad;
+    }
+    
+    /**
+     * Jugadas al azar con las que empieza cada pareja de partidas; 0 (por defecto) ninguna.
+     */
+    public void setJugadasApertura(int jugadas) {
+        this.jugadasApertura = Math.max(0, jugadas);
+    }
+    
+    /**
+     * Juega {@code partidasPorEmparejamiento} partidas entre cada par de participantes.
+     */
+    public ResultadosTorneo ejecutar(long partidasPorEmparejamiento, long semilla) throws InterruptedException {
+        int n = participantes.size();
+        int[][] emparejamientos = new int[n * (n - 1) / 2][];
+        int e = 0;
+        for (int a = 0; a < n; a++) {
+            for (int b = a + 1; b < n; b++) {
+                emparejamientos[e++] = new int[] {a, b};
+            }
+        }
+        long bloquesPorEmparejamiento = (partidasPorEmparejamiento + PARTIDAS_POR_BLOQUE - 1) / PARTIDAS_POR_BLOQUE;
+        long bloques = bloquesPorEmparejamiento * emparejamientos.length;
+        AtomicLong siguiente = new AtomicLong();
+        ResultadosTorneo[] parciales = new ResultadosTorneo[hilos];
+        Thread[] trabajadores = new Thread[hilos];
+        
+        long inicio = System.nanoTime();
+        for (int h = 0; h < hilos; h++) {
+            ResultadosTorneo parcial = new ResultadosTorneo(participantes);
+            parciales[h] = parcial;
+            trabajadores[h] = new Thread(() -> {
+                long bloque;
+                while ((bloque = siguiente.getAndIncrement()) < bloques) {
+                    // Los emparejamientos se intercalan para que todos avancen a la vez
+                    int emparejamiento = (int) (bloque % emparejamientos.length);
+                    long numero = bloque / emparejamientos.length;
+                    long primera = numero * PARTIDAS_POR_BLOQUE;
+                    long ultima = Math.min(partidasPorEmparejamiento, primera + PARTIDAS_POR_BLOQUE);
+                    long semillaBloque = semilla ^ ((emparejamiento * bloquesPorEmparejamiento + numero) * 0x9E3779B97F4A7C15L);
+                    jugarBloque(emparejamientos[emparejamiento], primera, ultima, semillaBloque, parcial);
+                }
+            }, "torneo-" + h);
+            trabajadores[h].start();
+        }
+        for (Thread trabajador : trabajadores) {
+            trabajador.join();
+        }
+        
+        ResultadosTorneo total = new ResultadosTorneo(participantes);
+        for (ResultadosTorneo parcial : parciales) {
+            total.combinar(parcial);
+        }
+        total.setNanos(System.nanoTime() - inicio);
+        return total;
+    }
+    
+    private void jugarBloque(int[] emparejamiento, long primera, long ultima, long semilla, ResultadosTorneo resultados) {
+        SplittableRandom semillas = new SplittableRandom(semilla);
+        int ia = emparejamiento[0];
+        int ib = emparejamiento[1];
+        Motor a = participantes.get(ia).crear(semillas.nextLong(), profundidadMaxima);
+        Motor b = participantes.get(ib).crear(semillas.nextLong(), profundidadMaxima);
+        SplittableRandom aperturas = semillas.split();
+        Tablero tablero = new Tablero(Geometria.de(lado, enLinea));
+        int[] apertura = new int[jugadasApertura];
+        int jugadasAbiertas = 0;
+        
+        for (long partida = primera; partida < ultima; partida++) {
+            tablero.reiniciar();
+            // La primera de cada pareja sortea la apertura y la segunda la repite
+            if ((partida & 1) == 0) {
+                jugadasAbiertas = sortearApertura(tablero, aperturas, apertura);
+                tablero.reiniciar();
+            }
+            int turno = Controller.HUMANO;
+            for (int i = 0; i < jugadasAbiertas; i++) {
+                tablero.mover(apertura[i], turno);
+                turno = Controller.HUMANO + Controller.IA - turno;
+            }
+            
+            boolean empiezaA = (partida & 1) == 0;
+            while (tablero.resultado() == 0) {
+                boolean mueveA = (turno == Controller.HUMANO) == empiezaA;
+                Motor motor = mueveA ? a : b;
+                long antes = System.nanoTime();
+                int movimiento = motor.mejorMovimiento(tablero, turno);
+                resultados.registrarJugada(mueveA ? ia : ib, System.nanoTime() - antes, motor.getNodos(),
+                    motor.getEvaluaciones());
+                tablero.mover(movimiento, turno);
+                turno = Controller.HUMANO + Controller.IA - turno;
+            }
+            resultados.registrarPartida(ia, ib, tablero.resultado(), empiezaA);
+        }
+    }
+    
+    // Juega al azar sin dejar la partida terminada; devuelve cuántas jugadas caben
+    private static int sortearApertura(Tablero tablero, SplittableRandom aleatorio, int[] apertura) {
+        int[] libres = new int[tablero.getCasillas()];
+        int turno = Controller.HUMANO;
+        for (int i = 0; i < apertura.length; i++) {
+            int numLibres = 0;
+            for (int casilla = 0; casilla < tablero.getCasillas(); casilla++) {
+                if (tablero.estaLibre(casilla)) libres[numLibres++] = casilla;
+            }
+            if (numLibres == 0) return i;
+            int casilla = libres[aleatorio.nextInt(numLibres)];
+            tablero.mover(casilla, turno);
+            if (tablero.resultado() != 0) return i;
+            apertura[i] = casilla;
+            turno = Controller.HUMANO + Controller.IA - turno;
+        }
+        return apertura.length;
+    }
+    
+    public static void main(String[] args) throws IOException, InterruptedException {
+        long partidas = 1000;
+        long semilla = 42;
+        int lado = 3;
+        int enLinea = 3;
+        String motores = "dificil,facil,aleatorio";
+        long tiempo = 0;
+        Integer hilos = null;
+        Integer profundidad = null;
+        int aperturas = 0;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String valor = args[i + 1];
+            switch (args[i]) {
+                case "--partidas": partidas = Long.parseLong(valor); break;
+                case "--semilla": semilla = Long.parseLong(valor); break;
+                case "--lado": lado = Integer.parseInt(valor); break;
+                case "--en-linea": enLinea = Integer.parseInt(valor); break;
+                case "--motores": motores = valor; break;
+                case "--hilos": hilos = Integer.parseInt(valor); break;
+                case "--tiempo": tiempo = Long.parseLong(valor); break;
+                case "--profundidad": profundidad = Integer.parseInt(valor); break;
+                case "--aperturas": aperturas = Integer.parseInt(valor); break;
+                default: throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+        
+        List<Participante> participantes = new ArrayList<>();
+        for (String especificacion : motores.split(",")) {
+            participantes.add(Participante.porNombre(especificacion, tiempo));
+        }
+        Torneo torneo = new Torneo(lado, enLinea, participantes);
+        if (hilos != null) torneo.setHilos(hilos);
+        if (profundidad != null) torneo.setProfundidadMaxima(profundidad);
+        torneo.setJugadasApertura(aperturas);
+        System.out.printf("%d motores, %d partidas por emparejamiento en %dx%d, %d en línea, %d hilos%n",
+            participantes.size(), partidas, lado, lado, enLinea, torneo.hilos);
+        System.out.println(torneo.ejecutar(partidas, semilla));
+    }
+}
@@ -0,0 +1,29 @@
+/**
+ * El juego sin interfaz: tablero, motores, simulador, torneo, servidor y
+ * herramientas de análisis. No depende de JavaFX, así que arranca en
+ * milisegundos y cabe en una imagen mínima del JDK:
+ *
+ * <pre>
+ * jlink --module-path motor/target/motor-1.0-SNAPSHOT.jar --add-modules com.example.motor
+ *       --launcher simulador=com.example.motor/com.example.Simulacion.Simulador
+ *       --strip-debug --no-header-files --no-man-pages --output motor/target/imagen
+ * </pre>
+ */
+module com.example.motor {
+    requires jdk.httpserver;
+    requires java.net.http;
+    requires java.management;
+    requires jdk.jfr;
+
+    exports com.example.Controller;
+    exports com.example.Montecarlo;
+    exports com.example.Aprendizaje;
+    exports com.example.Libro;
+    exports com.example.Registro;
+    exports com.example.Simulacion;
+    exports com.example.Analisis;
+    exports com.example.Servidor;
+
+    // JMX y JFR leen por reflexión el MBean y el evento de la IA
+    exports com.example.Metricas;
+}